@@ -2,24 +2,49 @@ package com.upsxace.tv_show_tracker.actor.controller;
 
 import com.upsxace.tv_show_tracker.actor.entity.ActorCredit;
 import com.upsxace.tv_show_tracker.actor.entity.Actor;
+import com.upsxace.tv_show_tracker.actor.graphql.ActorConnectionInput;
 import com.upsxace.tv_show_tracker.actor.graphql.AllActorsInput;
 import com.upsxace.tv_show_tracker.actor.service.ActorService;
+import com.upsxace.tv_show_tracker.common.graphql.Connection;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShowSummary;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.dataloader.DataLoader;
 import org.springframework.data.domain.Page;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * GraphQL controller for querying actors and their credits.
  * Provides endpoints for retrieving all actors, a specific actor, and their associated credits.
+ * The TV show fields of credits are resolved from the TV show summaries, batch loaded once per request level
+ * through a shared data loader.
  */
 @Controller
 @RequiredArgsConstructor
 public class ActorController {
     private final ActorService actorService;
+    private final BatchLoaderRegistry batchLoaderRegistry;
+
+    /**
+     * Registers the data loader of TV show summaries, keyed by TV show TMDB ID.
+     */
+    @PostConstruct
+    public void registerLoaders() {
+        batchLoaderRegistry.forTypePair(Long.class, TvShowSummary.class)
+                .registerMappedBatchLoader((tvShowTmdbIds, env) -> Mono.fromCallable(
+                        () -> actorService.getTvShowSummaries(tvShowTmdbIds)
+                ));
+    }
 
     /**
      * Retrieves a paginated list of all actors based on input parameters.
@@ -32,6 +57,17 @@ public class ActorController {
         return actorService.getAll(input);
     }
 
+    /**
+     * Retrieves a page of actors after a cursor.
+     *
+     * @param input page size, cursor to start after and sorting options
+     * @return a connection of actors
+     */
+    @QueryMapping
+    public Connection<Actor> allActorsConnection(@Argument ActorConnectionInput input){
+        return actorService.getConnection(input);
+    }
+
     /**
      * Retrieves an actor by their ID.
      *
@@ -53,4 +89,29 @@ public class ActorController {
     public List<ActorCredit> getActorCredits(@Argument Long actorId){
         return actorService.getActorCredits(actorId);
     }
+
+    @SchemaMapping(typeName = "ActorCredit")
+    public CompletableFuture<String> name(ActorCredit credit, DataLoader<Long, TvShowSummary> summaries){
+        return summaryField(credit, summaries, TvShowSummary::getName);
+    }
+
+    @SchemaMapping(typeName = "ActorCredit")
+    public CompletableFuture<String> overview(ActorCredit credit, DataLoader<Long, TvShowSummary> summaries){
+        return summaryField(credit, summaries, TvShowSummary::getOverview);
+    }
+
+    @SchemaMapping(typeName = "ActorCredit")
+    public CompletableFuture<Double> popularity(ActorCredit credit, DataLoader<Long, TvShowSummary> summaries){
+        return summaryField(credit, summaries, TvShowSummary::getPopularity);
+    }
+
+    @SchemaMapping(typeName = "ActorCredit")
+    public CompletableFuture<LocalDate> firstAirDate(ActorCredit credit, DataLoader<Long, TvShowSummary> summaries){
+        return summaryField(credit, summaries, TvShowSummary::getFirstAirDate);
+    }
+
+    private static <T> CompletableFuture<T> summaryField(ActorCredit credit, DataLoader<Long, TvShowSummary> summaries,
+                                                         Function<TvShowSummary, T> field){
+        return summaries.load(credit.getTvShowTmdbId()).thenApply(s -> s == null ? null : field.apply(s));
+    }
 }
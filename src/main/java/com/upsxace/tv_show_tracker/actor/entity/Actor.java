@@ -9,7 +9,8 @@ import lombok.*;
 @Builder @NoArgsConstructor @AllArgsConstructor
 public class Actor {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "actors_id_seq")
+    @SequenceGenerator(name = "actors_id_seq", sequenceName = "actors_id_seq", allocationSize = 50)
     @Column
     private Long id;
 
@@ -24,4 +25,9 @@ public class Actor {
 
     @Column
     private String profileUrl;
+
+    /** Whether all TV show credits of the actor were fetched from TMDB */
+    @Column
+    @Builder.Default
+    private Boolean creditsDiscovered = false;
 }
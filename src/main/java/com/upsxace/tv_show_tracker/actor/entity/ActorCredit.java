@@ -6,13 +6,18 @@ import lombok.*;
 
 import java.time.LocalDate;
 
+/**
+ * Credit of an actor in a TV show. The fields of the TV show are stored once per TV show,
+ * in its {@link com.upsxace.tv_show_tracker.tv_show.entity.TvShowSummary}, keyed by {@code tvShowTmdbId}.
+ */
 @Entity
 @Table(name = "actor_credits")
 @Getter @Setter
 @Builder @NoArgsConstructor @AllArgsConstructor
 public class ActorCredit {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "actor_credits_id_seq")
+    @SequenceGenerator(name = "actor_credits_id_seq", sequenceName = "actor_credits_id_seq", allocationSize = 50)
     @Column
     private Long id;
 
@@ -28,21 +33,9 @@ public class ActorCredit {
     @Column
     private Long tvShowTmdbId;
 
-    @Column
-    private String name;
-
-    @Column
-    private String overview;
-
-    @Column
-    private Double popularity;
-
     @Column
     private String character;
 
-    @Column
-    private LocalDate firstAirDate;
-
     @Column
     private LocalDate firstCreditAirDate;
 
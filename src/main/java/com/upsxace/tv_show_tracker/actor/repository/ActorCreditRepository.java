@@ -8,7 +8,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 
-public interface ActorCreditRepository extends JpaRepository<ActorCredit, Long> {
+public interface ActorCreditRepository extends JpaRepository<ActorCredit, Long>, ActorCreditRepositoryCustom {
     @NotNull
     @Override
     @EntityGraph(attributePaths = {"actor"})
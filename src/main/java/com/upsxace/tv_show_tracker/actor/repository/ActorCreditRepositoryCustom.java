@@ -0,0 +1,18 @@
+package com.upsxace.tv_show_tracker.actor.repository;
+
+import com.upsxace.tv_show_tracker.actor.entity.ActorCredit;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ActorCreditRepositoryCustom {
+    /**
+     * Inserts the credits not stored yet, matched by TMDB ID, in a single statement.
+     * Credits are linked to their TV show when it is stored, including stored credits that were not linked yet.
+     * The IDs of each stored row are set on the credits given.
+     *
+     * @param credits credits to store, with their actor already stored; duplicated TMDB IDs are stored once
+     * @return the credits stored, one per TMDB ID
+     */
+    List<ActorCredit> upsertAll(Collection<ActorCredit> credits);
+}
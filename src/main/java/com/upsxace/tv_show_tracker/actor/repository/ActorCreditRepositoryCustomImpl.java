@@ -0,0 +1,48 @@
+package com.upsxace.tv_show_tracker.actor.repository;
+
+import com.upsxace.tv_show_tracker.actor.entity.ActorCredit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.*;
+
+@RequiredArgsConstructor
+public class ActorCreditRepositoryCustomImpl implements ActorCreditRepositoryCustom {
+
+    private static final String UPSERT_ACTOR_CREDITS = """
+            INSERT INTO actor_credits (tmdb_id, actor_id, tv_show_id, tv_show_tmdb_id, "character", first_credit_air_date)
+            SELECT u.tmdb_id, u.actor_id, t.id, u.tv_show_tmdb_id, u."character", u.first_credit_air_date
+            FROM unnest(?::varchar[], ?::bigint[], ?::bigint[], ?::varchar[], ?::date[])
+                AS u (tmdb_id, actor_id, tv_show_tmdb_id, "character", first_credit_air_date)
+            LEFT JOIN tv_shows t ON t.tmdb_id = u.tv_show_tmdb_id
+            ON CONFLICT (tmdb_id) DO UPDATE
+            SET tv_show_id = COALESCE(actor_credits.tv_show_id, excluded.tv_show_id)
+            RETURNING id, tmdb_id, actor_id, tv_show_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ActorCredit> upsertAll(Collection<ActorCredit> credits) {
+        // A row can only be updated once per statement
+        Map<String, ActorCredit> creditsByTmdbId = new LinkedHashMap<>();
+        credits.forEach(c -> creditsByTmdbId.putIfAbsent(c.getTmdbId(), c));
+        if (creditsByTmdbId.isEmpty()) return List.of();
+
+        var values = creditsByTmdbId.values();
+        jdbcTemplate.query(UPSERT_ACTOR_CREDITS, (RowCallbackHandler) rs -> {
+                    var credit = creditsByTmdbId.get(rs.getString("tmdb_id"));
+                    credit.setId(rs.getLong("id"));
+                    credit.setActorId(rs.getLong("actor_id"));
+                    credit.setTvShowId(rs.getObject("tv_show_id", Long.class));
+                },
+                values.stream().map(ActorCredit::getTmdbId).toArray(String[]::new),
+                values.stream().map(c -> c.getActor().getId()).toArray(Long[]::new),
+                values.stream().map(ActorCredit::getTvShowTmdbId).toArray(Long[]::new),
+                values.stream().map(ActorCredit::getCharacter).toArray(String[]::new),
+                values.stream().map(c -> Objects.toString(c.getFirstCreditAirDate(), null)).toArray(String[]::new)
+        );
+        return List.copyOf(values);
+    }
+}
@@ -2,9 +2,16 @@ package com.upsxace.tv_show_tracker.actor.repository;
 
 import com.upsxace.tv_show_tracker.actor.entity.Actor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface ActorRepository extends JpaRepository<Actor, Long> {
+public interface ActorRepository extends JpaRepository<Actor, Long>, ActorRepositoryCustom {
     List<Actor> findByTmdbIdIn(List<Long> tmdbIds);
+
+    @Modifying
+    @Query("UPDATE Actor a SET a.creditsDiscovered = true WHERE a.id IN :ids")
+    void markCreditsDiscovered(Collection<Long> ids);
 }
@@ -0,0 +1,32 @@
+package com.upsxace.tv_show_tracker.actor.repository;
+
+import com.upsxace.tv_show_tracker.actor.entity.Actor;
+import com.upsxace.tv_show_tracker.actor.graphql.ActorSortableField;
+import com.upsxace.tv_show_tracker.common.graphql.Cursor;
+import com.upsxace.tv_show_tracker.common.graphql.SortDirection;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ActorRepositoryCustom {
+    /**
+     * Inserts the actors not stored yet and updates the others, matched by TMDB ID, in a single statement.
+     * The ID and credit discovery state of each stored row are set on the actors given.
+     *
+     * @param actors actors to store, duplicated TMDB IDs are stored once
+     * @return the actors stored, one per TMDB ID
+     */
+    List<Actor> upsertAll(Collection<Actor> actors);
+
+    /**
+     * Finds the positions of the actors after a cursor, ordered by a field and then by ID.
+     * Seeks through the index of the field, so every page costs the same, and counts no rows.
+     *
+     * @param field     field to order by
+     * @param direction sort direction
+     * @param after     cursor to start after, null to start from the first actor
+     * @param limit     maximum number of actors
+     * @return the cursors of the actors found, in order
+     */
+    List<Cursor> findPage(ActorSortableField field, SortDirection direction, Cursor after, int limit);
+}
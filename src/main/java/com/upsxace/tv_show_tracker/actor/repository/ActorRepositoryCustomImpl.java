@@ -0,0 +1,73 @@
+package com.upsxace.tv_show_tracker.actor.repository;
+
+import com.upsxace.tv_show_tracker.actor.entity.Actor;
+import com.upsxace.tv_show_tracker.actor.graphql.ActorSortableField;
+import com.upsxace.tv_show_tracker.common.graphql.Cursor;
+import com.upsxace.tv_show_tracker.common.graphql.Keyset;
+import com.upsxace.tv_show_tracker.common.graphql.SortDirection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ActorRepositoryCustomImpl implements ActorRepositoryCustom {
+
+    private static final String UPSERT_ACTORS = """
+            INSERT INTO actors (tmdb_id, name, popularity, profile_url)
+            SELECT * FROM unnest(?::bigint[], ?::varchar[], ?::double precision[], ?::varchar[])
+            ON CONFLICT (tmdb_id) DO UPDATE
+            SET name = excluded.name, popularity = excluded.popularity, profile_url = excluded.profile_url
+            RETURNING id, tmdb_id, credits_discovered
+            """;
+
+    private static final String FIND_PAGE = """
+            SELECT a.id, %s AS sort_key
+            FROM actors a
+            WHERE %s
+            ORDER BY %s
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Actor> upsertAll(Collection<Actor> actors) {
+        // A row can only be updated once per statement
+        Map<Long, Actor> actorsByTmdbId = new LinkedHashMap<>();
+        actors.forEach(a -> actorsByTmdbId.putIfAbsent(a.getTmdbId(), a));
+        if (actorsByTmdbId.isEmpty()) return List.of();
+
+        var values = actorsByTmdbId.values();
+        jdbcTemplate.query(UPSERT_ACTORS, (RowCallbackHandler) rs -> {
+                    var actor = actorsByTmdbId.get(rs.getLong("tmdb_id"));
+                    actor.setId(rs.getLong("id"));
+                    actor.setCreditsDiscovered(rs.getBoolean("credits_discovered"));
+                },
+                values.stream().map(Actor::getTmdbId).toArray(Long[]::new),
+                values.stream().map(Actor::getName).toArray(String[]::new),
+                values.stream().map(Actor::getPopularity).toArray(Double[]::new),
+                values.stream().map(Actor::getProfileUrl).toArray(String[]::new)
+        );
+        return List.copyOf(values);
+    }
+
+    @Override
+    public List<Cursor> findPage(ActorSortableField field, SortDirection direction, Cursor after, int limit) {
+        var keyset = switch (field) {
+            case id -> Keyset.byId(field.name(), "a.id", direction);
+            case name -> Keyset.by(field.name(), "a.name", "varchar", "a.id", direction);
+            case popularity -> Keyset.by(field.name(), "a.popularity", "double precision", "a.id", direction);
+        };
+        List<Object> args = new ArrayList<>();
+        var sql = FIND_PAGE.formatted(keyset.getSortKey(), keyset.after(after, args), keyset.orderBy());
+        args.add(limit);
+
+        return jdbcTemplate.query(sql, keyset.cursorMapper(), args.toArray());
+    }
+}
@@ -2,17 +2,30 @@ package com.upsxace.tv_show_tracker.actor.service;
 
 import com.upsxace.tv_show_tracker.actor.entity.ActorCredit;
 import com.upsxace.tv_show_tracker.actor.entity.Actor;
+import com.upsxace.tv_show_tracker.actor.graphql.ActorConnectionInput;
+import com.upsxace.tv_show_tracker.actor.graphql.ActorSortableField;
 import com.upsxace.tv_show_tracker.actor.graphql.AllActorsInput;
 import com.upsxace.tv_show_tracker.actor.repository.ActorCreditRepository;
 import com.upsxace.tv_show_tracker.actor.repository.ActorRepository;
 import com.upsxace.tv_show_tracker.common.exceptions.NotFoundException;
+import com.upsxace.tv_show_tracker.common.graphql.Connection;
+import com.upsxace.tv_show_tracker.common.graphql.Cursor;
+import com.upsxace.tv_show_tracker.common.graphql.Keyset;
+import com.upsxace.tv_show_tracker.common.graphql.Pagination;
+import com.upsxace.tv_show_tracker.common.graphql.SortDirection;
 import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShowSummary;
 import com.upsxace.tv_show_tracker.tv_show.repository.TvShowRepository;
+import com.upsxace.tv_show_tracker.tv_show.repository.TvShowSummaryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing actors and their credits.
@@ -25,6 +38,7 @@ public class ActorService {
     private final ActorCreditRepository actorCreditRepository;
     private final TmdbService tmdbService;
     private final TvShowRepository tvShowRepository;
+    private final TvShowSummaryRepository tvShowSummaryRepository;
 
     /**
      * Creates a pageable object for paginated queries based on input parameters.
@@ -33,27 +47,11 @@ public class ActorService {
      * @return a Pageable object
      */
     private Pageable createPageable(AllActorsInput input) {
-        int page = 0;
-        if (input != null && input.getPage() != null && input.getPage().getPage() != null) {
-            page = input.getPage().getPage();
-        }
-
-        Sort sort = Sort.unsorted();
-        if (input != null && input.getOrder() != null) {
-            var orderInput = input.getOrder();
-            Sort.Direction direction = Sort.Direction.ASC;
-            if (orderInput.getDirection() != null) {
-                direction = Sort.Direction.valueOf(orderInput.getDirection().name());
-            }
-            String sortField = orderInput.getField().name();
-            sort = Sort.by(direction, sortField);
-        }
-
-        int pageSize = (input != null && input.getPage() != null && input.getPage().getSize() != null)
-                ? Math.max(1, Math.min(20, input.getPage().getSize()))
-                : 20;
-
-        return PageRequest.of(page, pageSize, sort);
+        if (input == null) return Pagination.pageable(null, null, null);
+        var order = input.getOrder();
+        return order == null
+                ? Pagination.pageable(input.getPage(), null, null)
+                : Pagination.pageable(input.getPage(), order.getField(), order.getDirection());
     }
 
     /**
@@ -67,6 +65,26 @@ public class ActorService {
         return actorRepository.findAll(pageable);
     }
 
+    /**
+     * Retrieves a page of actors after a cursor. Any page costs the same as the first one.
+     *
+     * @param input page size, cursor to start after and sorting parameters
+     * @return a connection of actors
+     */
+    public Connection<Actor> getConnection(ActorConnectionInput input){
+        var order = input != null ? input.getOrder() : null;
+        var field = order != null ? order.getField() : ActorSortableField.id;
+        var direction = order != null && order.getDirection() != null ? order.getDirection() : SortDirection.ASC;
+        var page = input != null ? input.getPage() : null;
+        int first = Pagination.pageSize(page != null ? page.getFirst() : null);
+        var after = Cursor.decode(page != null ? page.getAfter() : null, Keyset.ordering(field.name(), direction));
+
+        var cursors = actorRepository.findPage(field, direction, after, first + 1);
+
+        return Connection.of(cursors, first, after != null, ids -> actorRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Actor::getId, Function.identity())));
+    }
+
     /**
      * Fetches an actor by its ID.
      *
@@ -79,22 +97,21 @@ public class ActorService {
 
     /**
      * Retrieves all credits for a given actor.
-     * If no credits are present in the database, fetches them from TMDB and saves.
+     * If the actor's credits were never fetched from TMDB (only the ones stored while discovering
+     * TV shows are present), fetches them from TMDB and saves.
      *
      * @param actorId the actor ID
      * @return a list of actor credits
      */
     public List<ActorCredit> getActorCredits(Long actorId){
         var example = Example.of(ActorCredit.builder().actor(Actor.builder().id(actorId).build()).build());
-        var credits = actorCreditRepository.findAll(example);
+        var actor = actorRepository.findById(actorId).orElseThrow(NotFoundException::new);
 
-        if(credits.isEmpty()){
-            var actor = actorRepository.findById(actorId).orElseThrow(NotFoundException::new);
+        if(!actor.getCreditsDiscovered()){
             tmdbService.discoverActorCredits(actor, actor.getTmdbId());
-            return actorCreditRepository.findAll(example);
         }
 
-        return credits;
+        return actorCreditRepository.findAll(example);
     }
 
     /**
@@ -106,4 +123,15 @@ public class ActorService {
     public List<ActorCredit> getActorCreditsByTvShowIds(List<Long> tvShowIds){
         return actorCreditRepository.findByTvShowIdIn(tvShowIds);
     }
+
+    /**
+     * Retrieves the summaries of the TV shows actor credits are in.
+     *
+     * @param tvShowTmdbIds TMDB IDs of the TV shows
+     * @return summaries by TV show TMDB ID
+     */
+    public Map<Long, TvShowSummary> getTvShowSummaries(Set<Long> tvShowTmdbIds){
+        return tvShowSummaryRepository.findByTvShowTmdbIdIn(tvShowTmdbIds).stream()
+                .collect(Collectors.toMap(TvShowSummary::getTvShowTmdbId, Function.identity()));
+    }
 }
@@ -10,7 +10,8 @@ import lombok.*;
 public class AppProperty {
     @Column
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_properties_id_seq")
+    @SequenceGenerator(name = "app_properties_id_seq", sequenceName = "app_properties_id_seq", allocationSize = 50)
     private Long id;
     @Column
     private String key;
@@ -2,6 +2,7 @@ package com.upsxace.tv_show_tracker.common.config;
 
 import com.upsxace.tv_show_tracker.common.jwt.JwtAuthFilter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -53,6 +54,17 @@ public class SecurityConfig {
         return http.build();
     }
 
+    @Bean
+    @Order(-2)
+    public SecurityFilterChain managementSecurityFilterChain(HttpSecurity http) throws Exception {
+        // Actuator endpoints are only served on the management port
+        http
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .authorizeHttpRequests(registry -> registry.anyRequest().permitAll());
+
+        return http.build();
+    }
+
     @Bean
     @Order(0)
     public SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http, JwtAuthFilter jwtAuthFilter) throws Exception {
@@ -0,0 +1,44 @@
+package com.upsxace.tv_show_tracker.common.graphql;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Relay-style connection: a page of nodes, each with the cursor the next page can start after.
+ */
+@Data
+public class Connection<T> {
+    private final List<Edge<T>> edges;
+    private final PageInfo pageInfo;
+
+    /**
+     * Builds a connection from the cursors of a keyset query, which fetched one row more than the page size
+     * to tell whether a next page exists.
+     *
+     * @param cursors         cursors of the rows fetched, in order
+     * @param first           page size
+     * @param hasPreviousPage whether the page started after a cursor
+     * @param nodesById       loads the nodes of the page by ID. Nodes deleted meanwhile are left out
+     * @return the connection
+     */
+    public static <T> Connection<T> of(List<Cursor> cursors, int first, boolean hasPreviousPage,
+                                       Function<List<Long>, Map<Long, T>> nodesById) {
+        var page = cursors.size() > first ? cursors.subList(0, first) : cursors;
+        var nodes = page.isEmpty() ? Map.<Long, T>of() : nodesById.apply(page.stream().map(Cursor::getId).toList());
+
+        var edges = page.stream()
+                .filter(c -> nodes.containsKey(c.getId()))
+                .map(c -> new Edge<>(c.encode(), nodes.get(c.getId())))
+                .toList();
+
+        return new Connection<>(edges, new PageInfo(
+                hasPreviousPage,
+                cursors.size() > first,
+                page.isEmpty() ? null : page.getFirst().encode(),
+                page.isEmpty() ? null : page.getLast().encode()
+        ));
+    }
+}
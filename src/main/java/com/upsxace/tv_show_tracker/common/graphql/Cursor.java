@@ -0,0 +1,45 @@
+package com.upsxace.tv_show_tracker.common.graphql;
+
+import com.upsxace.tv_show_tracker.common.exceptions.BadRequestException;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a row in a keyset-paginated query: the ordering it belongs to, its sort key and its ID.
+ * Clients get it as an opaque string, and a cursor is only accepted back by the ordering that issued it.
+ */
+@Data
+public class Cursor {
+    /** Ordering the cursor belongs to, see {@link Keyset#getOrdering()} */
+    private final String ordering;
+    /** Sort key of the row, as text. Null when ordering by ID only */
+    private final String sortKey;
+    private final Long id;
+
+    public String encode() {
+        var value = ordering + "\n" + id + (sortKey == null ? "" : "\n" + sortKey);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor issued by a keyset query.
+     *
+     * @param value    cursor given by the client, may be null
+     * @param ordering ordering of the query, see {@link Keyset#getOrdering()}
+     * @return the cursor, or null if no cursor was given
+     * @throws BadRequestException if the cursor is malformed or was issued by another ordering
+     */
+    public static Cursor decode(String value, String ordering) {
+        if (value == null || value.isEmpty()) return null;
+
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split("\n", 3);
+            if (parts.length < 2 || !parts[0].equals(ordering)) throw new BadRequestException("Invalid cursor.");
+            return new Cursor(parts[0], parts.length == 3 ? parts[2] : null, Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.upsxace.tv_show_tracker.common.graphql;
+
+import lombok.Data;
+
+@Data
+public class Edge<T> {
+    private final String cursor;
+    private final T node;
+}
@@ -0,0 +1,92 @@
+package com.upsxace.tv_show_tracker.common.graphql;
+
+import lombok.Getter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+
+/**
+ * Ordering of a keyset-paginated query: a sort column followed by the ID as tie-breaker.
+ * <p>
+ * The rows after a cursor are selected by comparing their sort key and ID with the ones of the cursor,
+ * so with an index on {@code (column, id)} every page costs a range scan of its own rows, instead of
+ * skipping the rows of the pages before it. The sort column must not be nullable.
+ * <p>
+ * Queries select the sort key with {@link #getSortKey()} and the ID as {@code id}, and map the rows
+ * to cursors with {@link #cursorMapper()}.
+ */
+@Getter
+public class Keyset {
+    private final String ordering;
+    private final String column;
+    private final String type;
+    private final String idColumn;
+    private final SortDirection direction;
+
+    private Keyset(String name, String column, String type, String idColumn, SortDirection direction) {
+        this.ordering = ordering(name, direction);
+        this.column = column;
+        this.type = type;
+        this.idColumn = idColumn;
+        this.direction = direction;
+    }
+
+    /**
+     * @param name      name of the sort field, identifies the ordering in cursors
+     * @param column    sort column, qualified as in the query
+     * @param type      SQL type of the sort column
+     * @param idColumn  ID column, qualified as in the query
+     * @param direction sort direction, also applied to the ID
+     */
+    public static Keyset by(String name, String column, String type, String idColumn, SortDirection direction) {
+        return new Keyset(name, column, type, idColumn, direction);
+    }
+
+    public static Keyset byId(String name, String idColumn, SortDirection direction) {
+        return new Keyset(name, null, null, idColumn, direction);
+    }
+
+    /**
+     * Name of an ordering in cursors.
+     */
+    public static String ordering(String name, SortDirection direction) {
+        return name + ":" + direction.name();
+    }
+
+    /**
+     * Expression of the sort key selected as {@code sort_key}, as text so it is compared back exactly.
+     */
+    public String getSortKey() {
+        return column == null ? "NULL" : column + "::text";
+    }
+
+    /**
+     * Predicate selecting the rows after a cursor. Its parameters are added to the arguments given.
+     *
+     * @param after cursor to start after, null to start from the first row
+     * @param args  arguments of the query
+     * @return the predicate, always true without cursor
+     */
+    public String after(Cursor after, List<Object> args) {
+        if (after == null) return "TRUE";
+
+        var operator = direction == SortDirection.DESC ? "<" : ">";
+        if (column == null) {
+            args.add(after.getId());
+            return idColumn + " " + operator + " ?";
+        }
+        args.add(after.getSortKey());
+        args.add(after.getId());
+        return "(" + column + ", " + idColumn + ") " + operator + " (?::" + type + ", ?)";
+    }
+
+    public String orderBy() {
+        return column == null
+                ? idColumn + " " + direction.name()
+                : column + " " + direction.name() + ", " + idColumn + " " + direction.name();
+    }
+
+    public RowMapper<Cursor> cursorMapper() {
+        return (rs, i) -> new Cursor(ordering, rs.getString("sort_key"), rs.getLong("id"));
+    }
+}
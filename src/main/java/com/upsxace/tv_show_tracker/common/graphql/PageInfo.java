@@ -0,0 +1,11 @@
+package com.upsxace.tv_show_tracker.common.graphql;
+
+import lombok.Data;
+
+@Data
+public class PageInfo {
+    private final boolean hasPreviousPage;
+    private final boolean hasNextPage;
+    private final String startCursor;
+    private final String endCursor;
+}
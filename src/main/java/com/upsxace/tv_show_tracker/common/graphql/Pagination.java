@@ -0,0 +1,42 @@
+package com.upsxace.tv_show_tracker.common.graphql;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Page sizes and offset pages shared by the paginated queries.
+ */
+public final class Pagination {
+    public static final int MAX_PAGE_SIZE = 20;
+
+    private Pagination() {
+    }
+
+    /**
+     * Clamps a requested page size to {@code 1..MAX_PAGE_SIZE}, defaulting to the maximum.
+     */
+    public static int pageSize(Integer size) {
+        return size == null ? MAX_PAGE_SIZE : Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+    }
+
+    /**
+     * Creates an offset page request.
+     *
+     * @param page      page number and size, may be null
+     * @param sortField field to sort by, null for no sorting
+     * @param direction sort direction, ascending if null
+     * @return a Pageable object
+     */
+    public static Pageable pageable(PageInput page, Enum<?> sortField, SortDirection direction) {
+        int pageNumber = page != null && page.getPage() != null ? page.getPage() : 0;
+        int pageSize = pageSize(page != null ? page.getSize() : null);
+
+        Sort sort = Sort.unsorted();
+        if (sortField != null) {
+            sort = Sort.by(direction != null ? Sort.Direction.valueOf(direction.name()) : Sort.Direction.ASC,
+                    sortField.name());
+        }
+        return PageRequest.of(pageNumber, pageSize, sort);
+    }
+}
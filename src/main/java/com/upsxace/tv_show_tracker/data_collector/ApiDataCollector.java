@@ -1,65 +1,47 @@
 package com.upsxace.tv_show_tracker.data_collector;
 
+import com.upsxace.tv_show_tracker.data_collector.discovery.DiscoveryConfig;
+import com.upsxace.tv_show_tracker.data_collector.discovery.DiscoveryPipeline;
 import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import com.upsxace.tv_show_tracker.data_collector.storage.StorageBudgetService;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkQueueProcessor;
 import jakarta.annotation.PostConstruct;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
 
 /**
  * Service responsible for collecting TV show data from the TMDB API.
  * Handles genre collection and periodic discovery of new TV shows.
- * Implements error handling and cooldown periods to avoid overloading the API or database.
+ * Discovery is partitioned between the application nodes through page leases, so every node can run it.
+ * Pages that keep failing are skipped. Once the database reaches its maximum size, the least popular TV shows
+ * are evicted to make room for more popular ones, and collection stops only when nothing is left to evict.
+ * Skipped pages and other failed work are queued, and retried later with backoff.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ApiDataCollector {
-    @Value("${app.db.name}")
-    private String dbName;
-
-    @Value("${app.db.max-size}")
-    private Integer dbMaxSizeMb;
-
     @Value("${tmdb.api-key}")
     private String tmdbApiKey;
 
-    @Value("${discovery.enabled}")
-    private Boolean discoveryEnabled;
-
-    @PersistenceContext
-    private EntityManager entityManager;
-
     private final TmdbService tmdbService;
-
-    private int errorCount;
-    private LocalDateTime cooldownUntil;
-
-    /**
-     * Retrieves the current size of the database in megabytes.
-     *
-     * @return current database size in MB
-     */
-    private int getCurrentDbSizeInMb() {
-        String sql = String.format("SELECT pg_database_size('%s');", dbName);
-        var result = (Number) entityManager.createNativeQuery(sql).getSingleResult();
-        return result.intValue() / 1024 / 1024;
-    }
+    private final DiscoveryPipeline discoveryPipeline;
+    private final DiscoveryConfig discoveryConfig;
+    private final WorkQueueProcessor workQueueProcessor;
+    private final StorageBudgetService storageBudgetService;
 
     /**
      * Determines whether the service should continue collecting new TV show data.
+     * Once the database reaches its maximum size, cold TV shows are evicted to make room.
      *
-     * @return true if discovery is enabled and database size is under the maximum limit
+     * @return true if discovery is enabled and the storage budget has room left
      */
     public boolean shouldContinueCollecting() {
-        return discoveryEnabled && getCurrentDbSizeInMb() < dbMaxSizeMb;
+        return discoveryConfig.isEnabled() && storageBudgetService.hasRoom();
     }
 
     /**
@@ -71,30 +53,26 @@ public class ApiDataCollector {
     }
 
     /**
-     * Runs background discovery tasks periodically.
-     * Applies error handling and cooldown to prevent excessive requests.
+     * Runs the discovery pipeline, restarting it 10 seconds after it stops.
+     * Throttling by TMDB is handled by the adaptive rate limiter, and pages that keep failing are skipped
+     * by the page leases, on whichever node they fail. Failed work whose retry is due runs first.
      */
     @Scheduled(fixedDelay = 10000)
     public void backgroundTasks() {
-        // Reset error count if cooldown has expired
-        if (cooldownUntil != null && LocalDateTime.now().isAfter(cooldownUntil)) {
-            errorCount = 0;
-            cooldownUntil = null;
+        if (discoveryConfig.isEnabled()) {
+            try {
+                workQueueProcessor.processDueItems();
+            } catch (Exception e) {
+                log.error("An error occurred while retrying failed discovery work", e);
+            }
         }
 
-        if (cooldownUntil != null) return;
-
         try {
-            if (shouldContinueCollecting()) tmdbService.discover();
+            if (shouldContinueCollecting()) discoveryPipeline.run(this::shouldContinueCollecting);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
-            log.error("An error occurred while trying to discover. Error count: {}", errorCount);
-            errorCount++;
-            if (errorCount >= 3) {
-                // After 3 errors, skip page and pause discovery for 2 minutes
-                log.info("More than 2 errors have occurred. Skipping page and cooling down discovery for 2 minutes.");
-                tmdbService.skipPage();
-                cooldownUntil = LocalDateTime.now().plus(Duration.ofMinutes(2));
-            }
+            log.error("An error occurred while trying to discover", e);
         }
     }
 }
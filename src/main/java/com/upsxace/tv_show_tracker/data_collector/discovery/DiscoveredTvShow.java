@@ -0,0 +1,16 @@
+package com.upsxace.tv_show_tracker.data_collector.discovery;
+
+import com.upsxace.tv_show_tracker.data_collector.dto.CastPersonDto;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvShowDetailsDto;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * TV show fetched by the discovery workers, waiting to be persisted.
+ */
+@Data
+public class DiscoveredTvShow {
+    private final TvShowDetailsDto details;
+    private final List<CastPersonDto> cast;
+}
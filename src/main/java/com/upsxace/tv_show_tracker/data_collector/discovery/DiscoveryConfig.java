@@ -0,0 +1,60 @@
+package com.upsxace.tv_show_tracker.data_collector.discovery;
+
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.discovery")
+@Data
+public class DiscoveryConfig {
+    private boolean enabled = true;
+    /** Number of discover pages fetched ahead of the persistence stage */
+    private int pagesInFlight = 3;
+    /** Number of virtual-thread workers fetching TV show details and credits */
+    private int fetchWorkers = 8;
+    private RetryProperties retry = new RetryProperties();
+    private LeaseProperties lease = new LeaseProperties();
+    private SliceProperties slices = new SliceProperties();
+
+    @Getter
+    @Setter
+    public static class RetryProperties {
+        /** Attempts after which failed work is dead-lettered */
+        private int maxAttempts = 5;
+        /** Delay before the first retry, doubled on every further attempt */
+        private Duration initialBackoff = Duration.ofMinutes(1);
+        private Duration maxBackoff = Duration.ofHours(6);
+        /** Failed work items retried on every run of the collector */
+        private int batchSize = 20;
+    }
+
+    @Getter
+    @Setter
+    public static class LeaseProperties {
+        /** Identifies this node in page leases; defaults to the host name and a random suffix */
+        private String nodeId = "";
+        /** Time a page lease lasts without a heartbeat before another node can take the page over */
+        private Duration duration = Duration.ofSeconds(60);
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+        /** Failed attempts, on any node, after which a page is skipped */
+        private int maxAttempts = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class SliceProperties {
+        /** Whether to crawl one slice per first air year besides the unfiltered popularity walk */
+        private boolean enabled = true;
+        /** First air year of the oldest slice */
+        private int fromYear = 1950;
+        /** Deepest discover page TMDB serves */
+        private int maxPages = 500;
+        /** Whether to split the year slices deeper than {@code max-pages} by genre */
+        private boolean splitByGenre = true;
+    }
+}
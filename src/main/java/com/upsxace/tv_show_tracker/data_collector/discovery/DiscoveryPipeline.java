@@ -0,0 +1,288 @@
+package com.upsxace.tv_show_tracker.data_collector.discovery;
+
+import com.upsxace.tv_show_tracker.data_collector.dto.TvShowDto;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvShowsResponse;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbCacheMissException;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkItemType;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkQueueService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Pipelined discovery engine for TMDB.
+ * <p>
+ * Discovery is split in three stages connected by bounded queues:
+ * <ul>
+ *     <li>a page prefetcher, which leases discover pages and keeps up to {@code app.discovery.pages-in-flight}
+ *     of them ahead</li>
+ *     <li>a pool of virtual-thread workers fetching the details and cast of every new TV show</li>
+ *     <li>a persistence stage, which stores the pages in the order they were leased and completes their leases</li>
+ * </ul>
+ * Pages are leased through {@link PageLeaseService}, so several application nodes crawl disjoint pages in parallel,
+ * and consecutive pages come from different slices of the catalog (see {@link SlicePlanner}).
+ * Throughput is therefore bound by the TMDB rate limiter instead of the latency of each round trip.
+ * Only the persistence stage writes to the database, in one short transaction per page, so no pooled
+ * connection is held while waiting for TMDB. The time connections are held in each discovery cycle
+ * is recorded by the {@code discovery.connection.hold-time} timer.
+ * <p>
+ * TV shows that fail to be fetched are queued to be retried later, and their page is stored without them.
+ * Only a page where every TV show failed is treated as a failure of the whole page, and its lease is given up
+ * so the page can be retried, possibly by another node.
+ * <p>
+ * When replaying the TMDB response cache, discovery ends at the first page that was not recorded,
+ * and TV shows that were not recorded are left out of their page.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DiscoveryPipeline {
+
+    private final TmdbService tmdbService;
+    private final DiscoveryConfig discoveryConfig;
+    private final WorkQueueService workQueueService;
+    private final PageLeaseService pageLeaseService;
+    private final MeterRegistry meterRegistry;
+
+    private ExecutorService fetchExecutor;
+    private volatile boolean shuttingDown;
+    private Timer connectionHoldTimer;
+    private volatile Duration lastConnectionHoldTime = Duration.ZERO;
+
+    @PostConstruct
+    public void init() {
+        fetchExecutor = Executors.newFixedThreadPool(
+                Math.max(1, discoveryConfig.getFetchWorkers()),
+                Thread.ofVirtual().name("tmdb-fetch-", 0).factory()
+        );
+        connectionHoldTimer = Timer.builder("discovery.connection.hold-time")
+                .description("Time database connections are held by a discovery cycle")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Time database connections were held by the last discovery cycle.
+     */
+    public Duration getLastConnectionHoldTime() {
+        return lastConnectionHoldTime;
+    }
+
+    /**
+     * Runs a database call and adds its duration to the connection hold time of the cycle.
+     */
+    private static <T> T timed(AtomicLong holdNanos, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            holdNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Runs the pipeline until every page was explored or leased, the condition stops holding or an error occurs.
+     * Leases of the pages not stored when it stops are released, so discovery resumes from them.
+     *
+     * @param shouldContinue condition checked before prefetching each page
+     * @throws InterruptedException if the calling thread is interrupted while waiting for a page
+     */
+    public void run(BooleanSupplier shouldContinue) throws InterruptedException {
+        if (tmdbService.isDiscoveryFinished()) return;
+
+        log.info("Discovering...");
+        BlockingQueue<PageWork> pageQueue = new ArrayBlockingQueue<>(Math.max(1, discoveryConfig.getPagesInFlight()));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong holdNanos = new AtomicLong();
+
+        var prefetcher = Thread.ofVirtual()
+                .name("tmdb-page-prefetch")
+                .start(() -> prefetchPages(pageQueue, running, shouldContinue, holdNanos));
+
+        try {
+            persistPages(pageQueue, holdNanos);
+        } finally {
+            running.set(false);
+            prefetcher.interrupt();
+            awaitTermination(prefetcher);
+            pageQueue.forEach(PageWork::cancel);
+            timed(holdNanos, () -> {
+                pageLeaseService.releaseAll();
+                return null;
+            });
+
+            lastConnectionHoldTime = Duration.ofNanos(holdNanos.get());
+            connectionHoldTimer.record(lastConnectionHoldTime);
+            log.info("Discovery cycle held database connections for {} ms", lastConnectionHoldTime.toMillis());
+        }
+    }
+
+    /**
+     * Prefetch stage: leases and fetches discover pages, and hands every new TV show to the fetch workers.
+     * Blocks when {@code pages-in-flight} pages are waiting to be persisted.
+     */
+    private void prefetchPages(BlockingQueue<PageWork> pageQueue, AtomicBoolean running, BooleanSupplier shouldContinue,
+                               AtomicLong holdNanos) {
+        PageLease page = null;
+
+        try {
+            while (running.get() && !shuttingDown && shouldContinue.getAsBoolean()) {
+                var lease = timed(holdNanos, pageLeaseService::acquire);
+                if (lease.isEmpty()) break;
+                page = lease.get();
+
+                TvShowsResponse response;
+                try {
+                    response = tmdbService.fetchDiscoverPage(page.getSlice(), page.getPage());
+                } catch (TmdbCacheMissException e) {
+                    log.info("Replay reached page {}, which was not recorded", page);
+                    break;
+                }
+
+                var tvShowIds = timed(holdNanos, () -> tmdbService.findMissingTvShowIds(
+                        response.getResults().stream().map(TvShowDto::getId).toList()
+                ));
+                var tvShows = tvShowIds.stream()
+                        .map(id -> CompletableFuture.supplyAsync(() -> tmdbService.fetchTvShow(id), fetchExecutor))
+                        .toList();
+
+                pageQueue.put(new PageWork(page, response, tvShowIds, tvShows, null));
+            }
+            pageQueue.put(new PageWork(page, null, List.of(), List.of(), null));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            try {
+                pageQueue.put(new PageWork(page, null, List.of(), List.of(), e));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Persistence stage: waits for every TV show of a page to be fetched and stores the page.
+     */
+    private void persistPages(BlockingQueue<PageWork> pageQueue, AtomicLong holdNanos) throws InterruptedException {
+        while (!shuttingDown) {
+            var work = pageQueue.take();
+            if (work.getError() != null) {
+                failPage(work.getPage(), holdNanos);
+                throw new IllegalStateException("Failed to prefetch discover page " + work.getPage(), work.getError());
+            }
+            if (work.getResponse() == null) return;
+
+            try {
+                persistPage(work, holdNanos);
+            } catch (RuntimeException e) {
+                failPage(work.getPage(), holdNanos);
+                throw e;
+            }
+        }
+    }
+
+    private void persistPage(PageWork work, AtomicLong holdNanos) {
+        var tvShows = new ArrayList<DiscoveredTvShow>();
+        var failures = new HashMap<Long, Throwable>();
+        for (int i = 0; i < work.getTvShowIds().size(); i++) {
+            try {
+                var tvShow = joinTvShow(work.getTvShows().get(i));
+                if (tvShow != null) tvShows.add(tvShow);
+            } catch (CompletionException e) {
+                failures.put(work.getTvShowIds().get(i), e.getCause() != null ? e.getCause() : e);
+            }
+        }
+        if (!failures.isEmpty() && tvShows.isEmpty()) {
+            throw new IllegalStateException(
+                    "Failed to fetch every tv show of discover page " + work.getPage(),
+                    failures.values().iterator().next()
+            );
+        }
+
+        timed(holdNanos, () -> {
+            failures.forEach((id, error) -> workQueueService.recordFailure(WorkItemType.TV_SHOW, id, error));
+            tmdbService.persistDiscoveredPage(work.getPage(), work.getResponse(), tvShows);
+            return null;
+        });
+        log.info("Discovered page {}: {} new tv shows, {} queued for retry",
+                work.getPage(), tvShows.size(), failures.size());
+    }
+
+    /**
+     * Gives up the lease of a page that failed, so it is retried until it fails too many times.
+     */
+    private void failPage(PageLease page, AtomicLong holdNanos) {
+        if (page == null) return;
+        try {
+            timed(holdNanos, () -> {
+                pageLeaseService.fail(page);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to give up the lease of discover page {}", page, e);
+        }
+    }
+
+    /**
+     * Waits for a TV show to be fetched.
+     *
+     * @return the TV show, or null if it was not recorded in the cache being replayed
+     */
+    private static DiscoveredTvShow joinTvShow(CompletableFuture<DiscoveredTvShow> tvShow) {
+        try {
+            return tvShow.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TmdbCacheMissException) return null;
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the prefetch stage to stop, so it leases no page after the leases were released.
+     */
+    private static void awaitTermination(Thread prefetcher) {
+        try {
+            prefetcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Discover page waiting to be persisted. A page without response marks the end of the prefetch stage.
+     */
+    @Data
+    private static class PageWork {
+        /** Page leased, null if the prefetch stage failed before leasing one */
+        private final PageLease page;
+        private final TvShowsResponse response;
+        private final List<Long> tvShowIds;
+        private final List<CompletableFuture<DiscoveredTvShow>> tvShows;
+        private final Exception error;
+
+        void cancel() {
+            tvShows.forEach(f -> f.cancel(false));
+        }
+    }
+}
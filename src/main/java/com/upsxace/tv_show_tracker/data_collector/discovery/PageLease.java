@@ -0,0 +1,18 @@
+package com.upsxace.tv_show_tracker.data_collector.discovery;
+
+import lombok.Data;
+
+/**
+ * Discover page leased by this node.
+ */
+@Data
+public class PageLease {
+    /** Discover filter of the slice the page belongs to, see {@link SlicePlanner} */
+    private final String slice;
+    private final int page;
+
+    @Override
+    public String toString() {
+        return slice.isEmpty() ? String.valueOf(page) : page + " of slice " + slice;
+    }
+}
@@ -0,0 +1,242 @@
+package com.upsxace.tv_show_tracker.data_collector.discovery;
+
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkItemType;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkQueueService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partitions discovery between the application nodes through leases on discover pages,
+ * stored in the {@code discovery_page_leases} table.
+ * <p>
+ * A node leases a page of a slice (see {@link SlicePlanner}) before fetching it, and the lease is completed
+ * in the same transaction that stores the page, so every page is stored by a single node while the nodes
+ * crawl disjoint pages in parallel.
+ * Leases are extended by a heartbeat while the page is in flight. The lease of a node that stops
+ * without releasing it expires, and the page is taken over by another node.
+ * <p>
+ * Pages that failed {@code app.discovery.lease.max-attempts} times, on any node, are skipped
+ * and queued to be retried later.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PageLeaseService {
+
+    private static final String RECLAIM_PAGE = """
+            UPDATE discovery_page_leases l
+            SET "owner" = ?, leased_until = now() + make_interval(secs => ?),
+                attempts = l.attempts + CASE WHEN l."owner" IS NULL THEN 0 ELSE 1 END
+            FROM (
+                SELECT slice, page FROM discovery_page_leases
+                WHERE NOT completed AND ("owner" IS NULL OR leased_until < now())
+                ORDER BY page, slice
+                LIMIT 1
+                FOR UPDATE SKIP LOCKED
+            ) r
+            WHERE l.slice = r.slice AND l.page = r.page
+            RETURNING l.slice, l.page, l.attempts
+            """;
+
+    /*
+     * Takes the next page of the slice with the fewest pages leased, so slices are crawled side by side.
+     * Only the first page of a slice is leased until it reports the number of pages of the slice.
+     */
+    private static final String LEASE_NEW_PAGE = """
+            INSERT INTO discovery_page_leases (slice, page, "owner", leased_until)
+            SELECT n.slice, n.page, ?, now() + make_interval(secs => ?)
+            FROM (
+                SELECT s.slice, COALESCE(MAX(l.page), 0) + 1 AS page
+                FROM discovery_slices s
+                LEFT JOIN discovery_page_leases l ON l.slice = s.slice
+                WHERE NOT s.split
+                GROUP BY s.slice, s.total_pages
+                HAVING COALESCE(MAX(l.page), 0) < CASE WHEN s.total_pages IS NULL THEN 1 ELSE LEAST(s.total_pages, ?) END
+                ORDER BY COALESCE(MAX(l.page), 0), s.slice
+                LIMIT 1
+            ) n
+            ON CONFLICT (slice, page) DO NOTHING
+            RETURNING slice, page
+            """;
+
+    private static final String HAS_PAGES_LEFT = """
+            SELECT EXISTS (SELECT 1 FROM discovery_page_leases WHERE NOT completed)
+                OR EXISTS (
+                    SELECT 1
+                    FROM discovery_slices s
+                    LEFT JOIN discovery_page_leases l ON l.slice = s.slice
+                    WHERE NOT s.split
+                    GROUP BY s.slice, s.total_pages
+                    HAVING COALESCE(MAX(l.page), 0) < CASE WHEN s.total_pages IS NULL THEN 1 ELSE LEAST(s.total_pages, ?) END
+                )
+            """;
+
+    /** Attempts at leasing a new page when other nodes keep taking the next one first */
+    private static final int NEW_PAGE_ATTEMPTS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DiscoveryConfig discoveryConfig;
+    private final WorkQueueService workQueueService;
+    private final SlicePlanner slicePlanner;
+
+    private String nodeId;
+    private ScheduledExecutorService heartbeatExecutor;
+
+    @PostConstruct
+    public void init() {
+        nodeId = discoveryConfig.getLease().getNodeId();
+        if (nodeId == null || nodeId.isBlank()) nodeId = defaultNodeId();
+
+        long interval = discoveryConfig.getLease().getHeartbeatInterval().toMillis();
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("discovery-lease-heartbeat").factory()
+        );
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Discovery node id: {}", nodeId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        try {
+            releaseAll();
+        } catch (Exception e) {
+            log.warn("Failed to release discover page leases on shutdown", e);
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Leases the next discover page for this node: the first page whose lease was released or expired,
+     * otherwise the next page of the slice with the fewest pages leased.
+     *
+     * @return the page leased, or empty if every page is leased or completed
+     */
+    public Optional<PageLease> acquire() {
+        double leaseSeconds = discoveryConfig.getLease().getDuration().toMillis() / 1000.0;
+        int maxAttempts = discoveryConfig.getLease().getMaxAttempts();
+
+        while (true) {
+            var reclaimed = jdbcTemplate.query(RECLAIM_PAGE,
+                    (rs, i) -> Map.entry(new PageLease(rs.getString("slice"), rs.getInt("page")), rs.getInt("attempts")),
+                    nodeId, leaseSeconds);
+            if (reclaimed.isEmpty()) break;
+
+            var lease = reclaimed.getFirst().getKey();
+            int attempts = reclaimed.getFirst().getValue();
+            if (attempts < maxAttempts) return Optional.of(lease);
+
+            log.info("Discover page {} failed {} times. Skipping page.", lease, attempts);
+            complete(lease);
+            workQueueService.recordFailure(WorkItemType.DISCOVER_PAGE, lease.getSlice(), (long) lease.getPage(),
+                    new IllegalStateException("Discover page " + lease + " failed " + attempts + " times"));
+        }
+
+        int maxPages = discoveryConfig.getSlices().getMaxPages();
+        for (int i = 0; i < NEW_PAGE_ATTEMPTS; i++) {
+            var leased = jdbcTemplate.query(LEASE_NEW_PAGE,
+                    (rs, n) -> new PageLease(rs.getString("slice"), rs.getInt("page")),
+                    nodeId, leaseSeconds, maxPages);
+            if (!leased.isEmpty()) return Optional.of(leased.getFirst());
+            if (!hasPagesLeft()) break;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Marks a page as stored. Joins the transaction storing the page, if any.
+     */
+    public void complete(PageLease lease) {
+        jdbcTemplate.update("""
+                UPDATE discovery_page_leases SET completed = true, "owner" = ?, leased_until = now()
+                WHERE slice = ? AND page = ?
+                """, nodeId, lease.getSlice(), lease.getPage());
+    }
+
+    /**
+     * Marks a page as stored, and records the number of pages of its slice reported by TMDB.
+     * Joins the transaction storing the page, if any.
+     */
+    public void complete(PageLease lease, int totalPages) {
+        complete(lease);
+        slicePlanner.recordTotalPages(lease.getSlice(), totalPages);
+    }
+
+    /**
+     * Gives up the lease of a page that failed, counting the failure as an attempt.
+     */
+    public void fail(PageLease lease) {
+        jdbcTemplate.update("""
+                UPDATE discovery_page_leases SET attempts = attempts + 1, "owner" = NULL, leased_until = now()
+                WHERE slice = ? AND page = ? AND "owner" = ? AND NOT completed
+                """, lease.getSlice(), lease.getPage(), nodeId);
+    }
+
+    /**
+     * Gives up every page leased by this node and not completed, so other nodes can take them right away.
+     */
+    public void releaseAll() {
+        jdbcTemplate.update("""
+                UPDATE discovery_page_leases SET "owner" = NULL, leased_until = now()
+                WHERE "owner" = ? AND NOT completed
+                """, nodeId);
+    }
+
+    /**
+     * Extends the leases of the pages this node has in flight.
+     */
+    void heartbeat() {
+        try {
+            jdbcTemplate.update("""
+                    UPDATE discovery_page_leases SET leased_until = now() + make_interval(secs => ?)
+                    WHERE "owner" = ? AND NOT completed
+                    """, discoveryConfig.getLease().getDuration().toMillis() / 1000.0, nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to extend discover page leases", e);
+        }
+    }
+
+    /**
+     * Number of discover pages stored by the cluster, in every slice.
+     */
+    public int getPagesExplored() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM discovery_page_leases WHERE completed", Integer.class
+        );
+    }
+
+    /**
+     * Whether some page of a slice is left to be leased or stored.
+     */
+    public boolean hasPagesLeft() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                HAS_PAGES_LEFT, Boolean.class, discoveryConfig.getSlices().getMaxPages()
+        ));
+    }
+}
@@ -0,0 +1,94 @@
+package com.upsxace.tv_show_tracker.data_collector.discovery;
+
+import com.upsxace.tv_show_tracker.genre.Genre;
+import com.upsxace.tv_show_tracker.genre.GenreRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Splits discovery into slices: independent page sequences of the discover endpoint, each with its own filter,
+ * stored in the {@code discovery_slices} table.
+ * <p>
+ * TMDB serves at most {@code app.discovery.slices.max-pages} pages of a sequence, so one walk by popularity only
+ * reaches the most popular TV shows. Besides that walk (the slice without filter), there is one slice per
+ * first air year, and year slices deeper than the page limit are split by genre once their size is known.
+ * Slices are crawled concurrently, and their progress is tracked by the page leases.
+ * TV shows without a first air date are only reached by the popularity walk.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlicePlanner {
+
+    static final String YEAR_FILTER = "first_air_date_year=";
+    static final String GENRE_FILTER = "with_genres=";
+
+    private static final String INSERT_SLICE = "INSERT INTO discovery_slices (slice) VALUES (?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DiscoveryConfig discoveryConfig;
+    private final GenreRepository genreRepository;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.batchUpdate(INSERT_SLICE, getInitialSlices().stream().map(s -> new Object[]{s}).toList());
+    }
+
+    /**
+     * Slices planned up front: the unfiltered walk, then one slice per first air year up to next year, newest first.
+     */
+    List<String> getInitialSlices() {
+        var slices = new ArrayList<String>();
+        slices.add("");
+        var properties = discoveryConfig.getSlices();
+        if (properties.isEnabled()) {
+            for (int year = Year.now().getValue() + 1; year >= properties.getFromYear(); year--) {
+                slices.add(YEAR_FILTER + year);
+            }
+        }
+        return slices;
+    }
+
+    /**
+     * Records the number of pages of a slice, reported by its discover pages,
+     * and splits the slice if it is deeper than TMDB serves.
+     */
+    public void recordTotalPages(String slice, int totalPages) {
+        jdbcTemplate.update(
+                "UPDATE discovery_slices SET total_pages = ? WHERE slice = ? AND total_pages IS DISTINCT FROM ?",
+                totalPages, slice, totalPages
+        );
+        if (totalPages > discoveryConfig.getSlices().getMaxPages() && isSplittable(slice)) split(slice);
+    }
+
+    private boolean isSplittable(String slice) {
+        return discoveryConfig.getSlices().isSplitByGenre()
+                && slice.startsWith(YEAR_FILTER)
+                && !slice.contains(GENRE_FILTER);
+    }
+
+    /**
+     * Replaces a slice by one slice per genre. TV shows with several genres are found in several of them,
+     * and stored once.
+     */
+    private void split(String slice) {
+        var children = genreRepository.findAll().stream()
+                .map(Genre::getTmdbId)
+                .filter(Objects::nonNull)
+                .map(id -> slice + "&" + GENRE_FILTER + id)
+                .toList();
+        if (children.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_SLICE, children.stream().map(s -> new Object[]{s}).toList());
+        jdbcTemplate.update("UPDATE discovery_slices SET split = true WHERE slice = ?", slice);
+        log.info("Split discovery slice {} into {} slices by genre", slice, children.size());
+    }
+}
@@ -13,6 +13,7 @@ public class CastPersonDto {
     private final Double popularity;
     private final String profile_path;
     private final String character;
+    private final String credit_id;
 
     public Actor toActorModel(){
         return Actor.builder()
@@ -25,8 +26,7 @@ public class CastPersonDto {
 
     public ActorCredit toActorCreditModel(TvShow tvShow, Actor actor){
         return ActorCredit.builder()
-                .name(name)
-                .popularity(popularity)
+                .tmdbId(credit_id)
                 .character(character)
                 .tvShowTmdbId(tvShow.getTmdbId())
                 .actor(actor)
@@ -4,6 +4,7 @@ import com.upsxace.tv_show_tracker.actor.entity.Actor;
 import com.upsxace.tv_show_tracker.actor.entity.ActorCredit;
 import com.upsxace.tv_show_tracker.common.utils.DateUtils;
 import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShowSummary;
 import lombok.Data;
 
 @Data
@@ -22,15 +23,21 @@ public class PersonCreditsCastDto {
         return ActorCredit.builder()
                 .tmdbId(credit_id)
                 .tvShowTmdbId(id)
-                .name(name)
-                .overview(overview)
-                .popularity(popularity)
                 .character(character)
-                .firstAirDate(DateUtils.safeDateParse(first_air_date))
                 .firstCreditAirDate(DateUtils.safeDateParse(first_credit_air_date))
                 .tvShow(tvShow)
                 .actor(actor)
                 .build();
 
     }
+
+    public TvShowSummary toSummaryModel() {
+        return TvShowSummary.builder()
+                .tvShowTmdbId(id)
+                .name(name)
+                .overview(overview)
+                .popularity(popularity)
+                .firstAirDate(DateUtils.safeDateParse(first_air_date))
+                .build();
+    }
 }
@@ -0,0 +1,9 @@
+package com.upsxace.tv_show_tracker.data_collector.dto;
+
+import lombok.Data;
+
+@Data
+public class TvChangeDto {
+    private final Long id;
+    private final Boolean adult;
+}
@@ -25,6 +25,8 @@ public class TvShowDetailsDto {
     private final Integer number_of_seasons;
     private final List<TvShowSeasonDto> seasons;
     private final Boolean in_production;
+    /** Only present when requested through append_to_response */
+    private final TvShowCreditsResponse credits;
 
     public TvShow toModel(List<Long> genreIds){
         var tvShow = TvShow.builder()
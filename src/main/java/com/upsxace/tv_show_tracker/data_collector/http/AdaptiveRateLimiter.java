@@ -0,0 +1,224 @@
+package com.upsxace.tv_show_tracker.data_collector.http;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Rate limiter for TMDB calls that adapts to the feedback of the server (AIMD).
+ * <p>
+ * Calls are paced at the current rate, which grows additively while calls succeed
+ * (by {@code additive-increase} permits per second of traffic) and is multiplied by
+ * {@code decrease-factor} whenever TMDB answers with 429 or a server error.
+ * A {@code Retry-After} header pauses every call until the given instant.
+ * Throttled and server error responses are retried up to {@code max-retries} times.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdaptiveRateLimiter {
+
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final TmdbConfig tmdbConfig;
+    private final MeterRegistry meterRegistry;
+
+    private TmdbConfig.RateLimitProperties properties;
+    private double rate;
+    private long nextPermitAt;
+    private long blockedUntil;
+
+    private final AtomicLong throttledCount = new AtomicLong();
+    private final AtomicLong serverErrorCount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        properties = tmdbConfig.getRateLimit();
+        rate = properties.getInitialRate();
+        nextPermitAt = System.nanoTime();
+        blockedUntil = nextPermitAt;
+
+        Gauge.builder("tmdb.rate-limiter.rate", this, AdaptiveRateLimiter::getCurrentRate)
+                .description("Current permits per second of TMDB calls")
+                .register(meterRegistry);
+        FunctionCounter.builder("tmdb.rate-limiter.rejections", throttledCount, AtomicLong::doubleValue)
+                .description("TMDB calls rejected with 429")
+                .tag("reason", "throttled")
+                .register(meterRegistry);
+        FunctionCounter.builder("tmdb.rate-limiter.rejections", serverErrorCount, AtomicLong::doubleValue)
+                .description("TMDB calls failed with a server error")
+                .tag("reason", "server_error")
+                .register(meterRegistry);
+    }
+
+    public synchronized double getCurrentRate() {
+        return rate;
+    }
+
+    public long getThrottledCount() {
+        return throttledCount.get();
+    }
+
+    public long getServerErrorCount() {
+        return serverErrorCount.get();
+    }
+
+    /**
+     * Blocks until the caller may send a request at the current rate.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    /**
+     * Reserves the next permit at the current rate.
+     *
+     * @return nanoseconds to wait before the permit may be used
+     */
+    private long reserve() {
+        long permitAt;
+        synchronized (this) {
+            long now = System.nanoTime();
+            permitAt = Math.max(now, Math.max(nextPermitAt, blockedUntil));
+            nextPermitAt = permitAt + (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        }
+        return Math.max(0, permitAt - System.nanoTime());
+    }
+
+    /**
+     * Executes a blocking call, pacing it and retrying it when TMDB throttles or fails.
+     *
+     * @param call the call to TMDB
+     * @return the result of the call
+     */
+    public <T> T execute(Supplier<T> call) {
+        for (int attempt = 0; ; attempt++) {
+            acquireUninterruptibly();
+            try {
+                var result = call.get();
+                onSuccess();
+                return result;
+            } catch (RestClientResponseException e) {
+                if (!onFailure(e) || attempt >= properties.getMaxRetries()) throw e;
+            }
+        }
+    }
+
+    /**
+     * Executes a non-blocking call, pacing it and retrying it when TMDB throttles or fails.
+     * Every attempt is scheduled once its permit is due, so neither the calling thread nor the thread completing
+     * a response ever waits.
+     *
+     * @param call the call to TMDB
+     * @return future completed with the result of the call
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+        return schedule(call, 0);
+    }
+
+    private <T> CompletableFuture<T> schedule(Supplier<CompletableFuture<T>> call, int attempt) {
+        var permit = CompletableFuture.delayedExecutor(reserve(), TimeUnit.NANOSECONDS);
+        return CompletableFuture.runAsync(() -> {}, permit).thenCompose(ignored -> attempt(call, attempt));
+    }
+
+    private <T> CompletableFuture<T> attempt(Supplier<CompletableFuture<T>> call, int attempt) {
+        return call.get()
+                .handle((result, ex) -> {
+                    if (ex == null) {
+                        onSuccess();
+                        return CompletableFuture.completedFuture(result);
+                    }
+
+                    var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof RestClientResponseException responseEx
+                            && onFailure(responseEx)
+                            && attempt < properties.getMaxRetries()) {
+                        return schedule(call, attempt + 1);
+                    }
+                    return CompletableFuture.<T>failedFuture(cause);
+                })
+                .thenCompose(f -> f);
+    }
+
+    private void acquireUninterruptibly() {
+        try {
+            acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a TMDB permit.", e);
+        }
+    }
+
+    private synchronized void onSuccess() {
+        rate = Math.min(properties.getMaxRate(), rate + properties.getAdditiveIncrease() / rate);
+    }
+
+    /**
+     * Adjusts the rate to a failed response.
+     *
+     * @return true if the call should be retried
+     */
+    private boolean onFailure(RestClientResponseException e) {
+        int status = e.getStatusCode().value();
+        if (status == 429) {
+            throttledCount.incrementAndGet();
+            var retryAfter = parseRetryAfter(e.getResponseHeaders());
+            synchronized (this) {
+                decreaseRate();
+                blockedUntil = Math.max(blockedUntil, System.nanoTime() + retryAfter.toNanos());
+            }
+            log.warn("TMDB throttled the request. Retrying after {} ms at {} requests/s", retryAfter.toMillis(), getCurrentRate());
+            return true;
+        }
+        if (e.getStatusCode().is5xxServerError()) {
+            serverErrorCount.incrementAndGet();
+            synchronized (this) {
+                decreaseRate();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void decreaseRate() {
+        rate = Math.max(properties.getMinRate(), rate * properties.getDecreaseFactor());
+    }
+
+    /**
+     * Parses a Retry-After header, given either in seconds or as an HTTP date.
+     */
+    static Duration parseRetryAfter(HttpHeaders headers) {
+        var value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) return DEFAULT_RETRY_AFTER;
+
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                var date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                var duration = Duration.between(ZonedDateTime.now(date.getZone()), date);
+                return duration.isNegative() ? Duration.ZERO : duration;
+            } catch (Exception ignored) {
+                return DEFAULT_RETRY_AFTER;
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.upsxace.tv_show_tracker.data_collector.http;
+
+/**
+ * Thrown in replay mode when a request has no response in the TMDB cache.
+ */
+public class TmdbCacheMissException extends RuntimeException {
+    public TmdbCacheMissException(String uri) {
+        super("No cached TMDB response for " + uri);
+    }
+}
@@ -1,65 +1,264 @@
 package com.upsxace.tv_show_tracker.data_collector.http;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.upsxace.tv_show_tracker.data_collector.dto.*;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import jakarta.annotation.PostConstruct;
-import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Client for interacting with the TMDB API.
  * Provides methods to fetch TV genres, TV shows, TV show details, and actor credits.
- * Rate-limited using Resilience4j to avoid exceeding TMDB API limits.
+ * Every method has a blocking variant and a {@link CompletableFuture} variant, both sharing
+ * a pooled HTTP/2-capable {@link HttpClient} with explicit connect and read timeouts.
+ * Rate-limited by the {@link AdaptiveRateLimiter} to run at the highest rate TMDB accepts.
+ * Responses go through the {@link TmdbResponseCache}, which is revalidated with {@code ETag}
+ * and {@code Last-Modified}, or used without any network access in replay mode.
  */
 @Component
+@RequiredArgsConstructor
 public class TmdbClient {
 
-    @Value("${tmdb.api-key}")
-    private String apiKey;
+    private final TmdbConfig tmdbConfig;
+    private final ObjectMapper objectMapper;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final TmdbResponseCache responseCache;
 
+    private ExecutorService httpExecutor;
+    HttpClient httpClient;
     RestClient customClient;
 
     /**
-     * Initializes the RestClient with base URL and Authorization header.
+     * Initializes the pooled HttpClient, and the RestClient on top of it, with base URL and Authorization header.
      */
     @PostConstruct
     public void init(){
+        httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(tmdbConfig.getConnectTimeout())
+                .executor(httpExecutor)
+                .build();
+
+        var requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(tmdbConfig.getReadTimeout());
+
         customClient = RestClient.builder()
-                .baseUrl("https://api.themoviedb.org")
-                .defaultHeader("Authorization", "Bearer " + apiKey)
+                .requestFactory(requestFactory)
+                .baseUrl(tmdbConfig.getBaseUrl())
+                .defaultHeader("Authorization", "Bearer " + tmdbConfig.getApiKey())
                 .build();
     }
 
+    @PreDestroy
+    public void close(){
+        httpClient.close();
+        httpExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the cached response of a request if it can be used without reaching TMDB.
+     * A response being revalidated is only used as is when replaying.
+     *
+     * @throws TmdbCacheMissException in replay mode, if the response is not cached
+     */
+    private Optional<byte[]> getFromCache(String path, Optional<TmdbResponseCache.CachedResponse> cached,
+                                          boolean revalidate){
+        if (cached.isPresent() && (responseCache.isReplay() || (!revalidate && responseCache.isFresh(cached.get())))) {
+            return Optional.of(cached.get().getBody());
+        }
+        if (responseCache.isReplay()) throw new TmdbCacheMissException(path);
+        return Optional.empty();
+    }
+
+    private void addConditionalHeaders(HttpHeaders headers, Optional<TmdbResponseCache.CachedResponse> cached){
+        cached.ifPresent(c -> {
+            if (c.getEtag() != null) headers.setIfNoneMatch(c.getEtag());
+            if (c.getLastModified() != null) headers.set(HttpHeaders.IF_MODIFIED_SINCE, c.getLastModified());
+        });
+    }
+
+    /**
+     * Stores a response in the cache, or refreshes the cached one when TMDB reports it as not modified.
+     *
+     * @return the body to use for the request
+     */
+    private byte[] cacheResponse(String path, int status, HttpHeaders headers, byte[] body,
+                                 Optional<TmdbResponseCache.CachedResponse> cached){
+        if (status == HttpStatus.NOT_MODIFIED.value() && cached.isPresent()) {
+            var c = cached.get();
+            responseCache.put(path, c.getBody(), c.getEtag(), c.getLastModified());
+            return c.getBody();
+        }
+
+        responseCache.put(path, body, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+        return body;
+    }
+
+    private <T> T readJson(byte[] body, Class<T> type){
+        if (body == null || body.length == 0) return null;
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sends a blocking GET request and deserializes the JSON body.
+     *
+     * @param path request path, relative to the base URL
+     * @param type type of the response body
+     * @return the response body
+     */
+    private <T> T get(String path, Class<T> type){
+        return get(path, type, false);
+    }
+
+    /**
+     * Sends a blocking GET request and deserializes the JSON body.
+     *
+     * @param path       request path, relative to the base URL
+     * @param type       type of the response body
+     * @param revalidate whether to check with TMDB even if the cached response is fresh
+     * @return the response body
+     */
+    private <T> T get(String path, Class<T> type, boolean revalidate){
+        var cached = responseCache.get(path);
+        var fromCache = getFromCache(path, cached, revalidate);
+        if (fromCache.isPresent()) return readJson(fromCache.get(), type);
+
+        var response = rateLimiter.execute(() -> customClient.get()
+                .uri(path)
+                .headers(h -> addConditionalHeaders(h, cached))
+                .retrieve()
+                .toEntity(byte[].class));
+
+        return readJson(
+                cacheResponse(path, response.getStatusCode().value(), response.getHeaders(), response.getBody(), cached),
+                type
+        );
+    }
+
+    /**
+     * Sends a non-blocking GET request and deserializes the JSON body.
+     * Error statuses complete the future with the same exceptions thrown by {@link RestClient}.
+     *
+     * @param path request path, relative to the base URL
+     * @param type type of the response body
+     * @return future completed with the response body
+     */
+    private <T> CompletableFuture<T> getAsync(String path, Class<T> type){
+        return getAsync(path, type, false);
+    }
+
+    /**
+     * Sends a non-blocking GET request and deserializes the JSON body.
+     *
+     * @param path       request path, relative to the base URL
+     * @param type       type of the response body
+     * @param revalidate whether to check with TMDB even if the cached response is fresh
+     * @return future completed with the response body
+     */
+    private <T> CompletableFuture<T> getAsync(String path, Class<T> type, boolean revalidate){
+        var cached = responseCache.get(path);
+        Optional<byte[]> fromCache;
+        try {
+            fromCache = getFromCache(path, cached, revalidate);
+        } catch (TmdbCacheMissException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (fromCache.isPresent()) return CompletableFuture.completedFuture(readJson(fromCache.get(), type));
+
+        var requestBuilder = HttpRequest.newBuilder(URI.create(tmdbConfig.getBaseUrl() + path))
+                .timeout(tmdbConfig.getReadTimeout())
+                .header("Authorization", "Bearer " + tmdbConfig.getApiKey())
+                .header("Accept", "application/json")
+                .GET();
+        var conditionalHeaders = new HttpHeaders();
+        addConditionalHeaders(conditionalHeaders, cached);
+        conditionalHeaders.forEach((name, values) -> values.forEach(v -> requestBuilder.header(name, v)));
+        var request = requestBuilder.build();
+
+        return rateLimiter.executeAsync(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                        .thenApply(this::checkStatus))
+                .thenApply(response -> {
+                    var headers = new HttpHeaders();
+                    response.headers().map().forEach(headers::addAll);
+                    return readJson(cacheResponse(path, response.statusCode(), headers, response.body(), cached), type);
+                });
+    }
+
+    /**
+     * Raises the same exceptions as {@link RestClient} for error statuses, so they can be retried by the rate limiter.
+     */
+    private HttpResponse<byte[]> checkStatus(HttpResponse<byte[]> response){
+        var status = HttpStatusCode.valueOf(response.statusCode());
+        if (status.isError()) {
+            var headers = new HttpHeaders();
+            response.headers().map().forEach(headers::addAll);
+            throw status.is4xxClientError()
+                    ? HttpClientErrorException.create(status, "", headers, response.body(), StandardCharsets.UTF_8)
+                    : HttpServerErrorException.create(status, "", headers, response.body(), StandardCharsets.UTF_8);
+        }
+        return response;
+    }
+
     /**
      * Retrieves all TV genres from TMDB.
      *
      * @return list of GenreDto objects or null if none found
      */
-    @RateLimiter(name = "tmdb")
     public List<GenreDto> getTvGenreList(){
-        var result = customClient.get()
-                .uri("/3/genre/tv/list")
-                .retrieve()
-                .body(TvGenreListResponse.class);
-
+        var result = get("/3/genre/tv/list", TvGenreListResponse.class);
         return result == null ? null : result.getGenres();
     }
 
+    /**
+     * Non-blocking variant of {@link #getTvGenreList()}.
+     */
+    public CompletableFuture<List<GenreDto>> getTvGenreListAsync(){
+        return getAsync("/3/genre/tv/list", TvGenreListResponse.class)
+                .thenApply(result -> result == null ? null : result.getGenres());
+    }
+
     /**
      * Retrieves a specific TV genre by ID.
      *
      * @param id TMDB genre ID
      * @return GenreDto object
      */
-    @RateLimiter(name = "tmdb")
     public GenreDto getTvGenre(Long id){
-        return customClient.get()
-                .uri("/3/genre/{id}", id)
-                .retrieve()
-                .body(GenreDto.class);
+        return get(String.format("/3/genre/%d", id), GenreDto.class);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getTvGenre(Long)}.
+     */
+    public CompletableFuture<GenreDto> getTvGenreAsync(Long id){
+        return getAsync(String.format("/3/genre/%d", id), GenreDto.class);
     }
 
     /**
@@ -68,12 +267,38 @@ public class TmdbClient {
      * @param page page number
      * @return TvShowsResponse containing TV show summaries
      */
-    @RateLimiter(name = "tmdb")
     public TvShowsResponse getTvShows(int page){
-        return customClient.get()
-                .uri(String.format("/3/discover/tv?page=%d&sort_by=popularity.desc", page))
-                .retrieve()
-                .body(TvShowsResponse.class);
+        return getTvShows("", page);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getTvShows(int)}.
+     */
+    public CompletableFuture<TvShowsResponse> getTvShowsAsync(int page){
+        return getTvShowsAsync("", page);
+    }
+
+    /**
+     * Retrieves a page of the TV shows matching a discover filter from TMDB, sorted by popularity.
+     *
+     * @param filter discover query parameters, e.g. {@code first_air_date_year=2019}, or empty for no filter
+     * @param page   page number
+     * @return TvShowsResponse containing TV show summaries
+     */
+    public TvShowsResponse getTvShows(String filter, int page){
+        return get(discoverPath(filter, page), TvShowsResponse.class);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getTvShows(String, int)}.
+     */
+    public CompletableFuture<TvShowsResponse> getTvShowsAsync(String filter, int page){
+        return getAsync(discoverPath(filter, page), TvShowsResponse.class);
+    }
+
+    private static String discoverPath(String filter, int page){
+        var path = String.format("/3/discover/tv?page=%d&sort_by=popularity.desc", page);
+        return filter.isEmpty() ? path : path + "&" + filter;
     }
 
     /**
@@ -82,12 +307,60 @@ public class TmdbClient {
      * @param id TMDB TV show ID
      * @return TvShowDetailsDto with detailed TV show information
      */
-    @RateLimiter(name = "tmdb")
     public TvShowDetailsDto getTvShowDetails(long id){
-        return customClient.get()
-                .uri(String.format("/3/tv/%d", id))
-                .retrieve()
-                .body(TvShowDetailsDto.class);
+        return get(String.format("/3/tv/%d", id), TvShowDetailsDto.class);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getTvShowDetails(long)}.
+     */
+    public CompletableFuture<TvShowDetailsDto> getTvShowDetailsAsync(long id){
+        return getAsync(String.format("/3/tv/%d", id), TvShowDetailsDto.class);
+    }
+
+    /**
+     * Retrieves detailed information about a TV show together with its cast in a single request,
+     * using TMDB's {@code append_to_response}.
+     *
+     * @param id TMDB TV show ID
+     * @return TvShowDetailsDto with detailed TV show information and its credits
+     */
+    public TvShowDetailsDto getTvShowDetailsWithCredits(long id){
+        return get(String.format("/3/tv/%d?append_to_response=credits", id), TvShowDetailsDto.class);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getTvShowDetailsWithCredits(long)}.
+     */
+    public CompletableFuture<TvShowDetailsDto> getTvShowDetailsWithCreditsAsync(long id){
+        return getAsync(String.format("/3/tv/%d?append_to_response=credits", id), TvShowDetailsDto.class);
+    }
+
+    /**
+     * Retrieves detailed information about a TV show, checking with TMDB even if a fresh response is cached.
+     * An unchanged show costs a {@code 304 Not Modified} response.
+     *
+     * @param id TMDB TV show ID
+     * @return future completed with the current TV show information
+     */
+    public CompletableFuture<TvShowDetailsDto> revalidateTvShowDetailsAsync(long id){
+        return getAsync(String.format("/3/tv/%d", id), TvShowDetailsDto.class, true);
+    }
+
+    /**
+     * Retrieves a page of the IDs of TV shows changed on TMDB between two dates, at most 14 days apart.
+     *
+     * @param startDate first day of the changes
+     * @param endDate   last day of the changes
+     * @param page      page number
+     * @return TvChangesResponse containing the IDs of the changed TV shows
+     */
+    public TvChangesResponse getTvChanges(LocalDate startDate, LocalDate endDate, int page){
+        return get(
+                String.format("/3/tv/changes?start_date=%s&end_date=%s&page=%d", startDate, endDate, page),
+                TvChangesResponse.class,
+                true
+        );
     }
 
     /**
@@ -96,29 +369,35 @@ public class TmdbClient {
      * @param id TMDB TV show ID
      * @return list of CastPersonDto objects or null if none found
      */
-    @RateLimiter(name = "tmdb")
     public List<CastPersonDto> getTvShowCredits(long id){
-        var result = customClient.get()
-                .uri(String.format("/3/tv/%d/credits", id))
-                .retrieve()
-                .body(TvShowCreditsResponse.class);
-
+        var result = get(String.format("/3/tv/%d/credits", id), TvShowCreditsResponse.class);
         return result == null ? null : result.getCast();
     }
 
+    /**
+     * Non-blocking variant of {@link #getTvShowCredits(long)}.
+     */
+    public CompletableFuture<List<CastPersonDto>> getTvShowCreditsAsync(long id){
+        return getAsync(String.format("/3/tv/%d/credits", id), TvShowCreditsResponse.class)
+                .thenApply(result -> result == null ? null : result.getCast());
+    }
+
     /**
      * Retrieves all TV show credits for a person (actor) by TMDB ID.
      *
      * @param id TMDB person ID
      * @return list of PersonCreditsCastDto objects or null if none found
      */
-    @RateLimiter(name = "tmdb")
     public List<PersonCreditsCastDto> getPersonTvShowCredits(long id){
-        var result = customClient.get()
-                .uri(String.format("/3/person/%d/tv_credits", id))
-                .retrieve()
-                .body(TvShowPersonCreditsResponse.class);
-
+        var result = get(String.format("/3/person/%d/tv_credits", id), TvShowPersonCreditsResponse.class);
         return result == null ? null : result.getCast();
     }
+
+    /**
+     * Non-blocking variant of {@link #getPersonTvShowCredits(long)}.
+     */
+    public CompletableFuture<List<PersonCreditsCastDto>> getPersonTvShowCreditsAsync(long id){
+        return getAsync(String.format("/3/person/%d/tv_credits", id), TvShowPersonCreditsResponse.class)
+                .thenApply(result -> result == null ? null : result.getCast());
+    }
 }
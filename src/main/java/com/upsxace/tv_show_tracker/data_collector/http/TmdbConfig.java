@@ -0,0 +1,48 @@
+package com.upsxace.tv_show_tracker.data_collector.http;
+
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "tmdb")
+@Data
+public class TmdbConfig {
+    private String apiKey;
+    private String baseUrl = "https://api.themoviedb.org";
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout = Duration.ofSeconds(15);
+    private RateLimitProperties rateLimit = new RateLimitProperties();
+    private CacheProperties cache = new CacheProperties();
+
+    @Getter
+    @Setter
+    public static class RateLimitProperties {
+        /** Permits per second when the application starts */
+        private double initialRate = 20;
+        private double minRate = 1;
+        private double maxRate = 50;
+        /** Permits per second added for every second of successful calls */
+        private double additiveIncrease = 1;
+        /** Factor applied to the rate when TMDB throttles or fails */
+        private double decreaseFactor = 0.5;
+        private int maxRetries = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class CacheProperties {
+        private boolean enabled = false;
+        private String directory = "tmdb-cache";
+        private DataSize maxSize = DataSize.ofMegabytes(512);
+        /** Age until which cached responses are used without revalidating them with TMDB */
+        private Duration freshFor = Duration.ofHours(24);
+        /** Serve every request from the cache only, without reaching TMDB */
+        private boolean replay = false;
+    }
+}
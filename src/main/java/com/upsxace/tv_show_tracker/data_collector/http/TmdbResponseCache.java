@@ -0,0 +1,259 @@
+package com.upsxace.tv_show_tracker.data_collector.http;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent, size-bounded cache of TMDB responses, keyed by request URI.
+ * <p>
+ * Each response is stored gzip-compressed in its own file, together with the {@code ETag} and
+ * {@code Last-Modified} headers used to revalidate it. Once the cache grows past its maximum size,
+ * the least recently used entries are evicted. Entries are written to a temporary file first, and temporary files
+ * left behind by a crash are deleted when the cache starts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TmdbResponseCache {
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final TmdbConfig tmdbConfig;
+
+    private TmdbConfig.CacheProperties properties;
+    private Path directory;
+    private final AtomicLong currentSize = new AtomicLong();
+
+    @Data
+    public static class CachedResponse {
+        private final String uri;
+        private final String etag;
+        private final String lastModified;
+        private final Instant storedAt;
+        private final byte[] body;
+    }
+
+    @PostConstruct
+    public void init() {
+        properties = tmdbConfig.getCache();
+        if (!properties.isEnabled()) return;
+
+        directory = Path.of(properties.getDirectory());
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.walk(directory)) {
+                currentSize.set(files.filter(Files::isRegularFile).mapToLong(this::scan).sum());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize the TMDB response cache.", e);
+        }
+        log.info("TMDB response cache at {}: {} KB used", directory.toAbsolutePath(), currentSize.get() / 1024);
+    }
+
+    /**
+     * Size of a file found when the cache starts. Temporary files are leftovers of writes that never completed:
+     * they are deleted, and counted only if they could not be.
+     */
+    private long scan(Path file) {
+        if (!file.getFileName().toString().endsWith(TMP_SUFFIX)) return sizeOf(file);
+
+        long size = sizeOf(file);
+        try {
+            Files.deleteIfExists(file);
+            return 0;
+        } catch (IOException e) {
+            log.warn("Failed to delete leftover TMDB cache file {}", file, e);
+            return size;
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Whether the application runs from the cache only, without reaching TMDB.
+     */
+    public boolean isReplay() {
+        return properties.isEnabled() && properties.isReplay();
+    }
+
+    /**
+     * Whether a cached response can be used without revalidating it with TMDB.
+     */
+    public boolean isFresh(CachedResponse response) {
+        return isReplay() || response.getStoredAt().plus(properties.getFreshFor()).isAfter(Instant.now());
+    }
+
+    public long getCurrentSize() {
+        return currentSize.get();
+    }
+
+    /**
+     * Reads the cached response of a request.
+     *
+     * @param uri request URI, relative to the TMDB base URL
+     * @return the cached response, or empty if the cache is disabled or has no entry for it
+     */
+    public Optional<CachedResponse> get(String uri) {
+        if (!properties.isEnabled()) return Optional.empty();
+
+        var file = fileFor(uri);
+        if (!Files.exists(file)) return Optional.empty();
+
+        try (var in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file))))) {
+            var cachedUri = in.readUTF();
+            if (!cachedUri.equals(uri)) return Optional.empty();
+
+            var etag = in.readUTF();
+            var lastModified = in.readUTF();
+            var storedAt = Instant.ofEpochMilli(in.readLong());
+            var body = in.readNBytes(in.readInt());
+
+            // The modification time of the file tracks its last use, for eviction
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            return Optional.of(new CachedResponse(
+                    uri, etag.isEmpty() ? null : etag, lastModified.isEmpty() ? null : lastModified, storedAt, body
+            ));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Discarding unreadable TMDB cache entry for {}", uri);
+            delete(file);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the response of a request, replacing any previous entry.
+     *
+     * @param uri          request URI, relative to the TMDB base URL
+     * @param body         response body
+     * @param etag         ETag header of the response, may be null
+     * @param lastModified Last-Modified header of the response, may be null
+     */
+    public void put(String uri, byte[] body, String etag, String lastModified) {
+        if (!properties.isEnabled() || body == null) return;
+
+        var file = fileFor(uri);
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), TMP_SUFFIX);
+            try (var out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))) {
+                out.writeUTF(uri);
+                out.writeUTF(etag == null ? "" : etag);
+                out.writeUTF(lastModified == null ? "" : lastModified);
+                out.writeLong(Instant.now().toEpochMilli());
+                out.writeInt(body.length);
+                out.write(body);
+            }
+
+            long previousSize = sizeOf(file);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            currentSize.addAndGet(sizeOf(file) - previousSize);
+        } catch (IOException e) {
+            log.warn("Failed to cache TMDB response for {}", uri, e);
+            if (tmp != null) deleteQuietly(tmp);
+            return;
+        }
+
+        if (currentSize.get() > properties.getMaxSize().toBytes()) evict();
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache uses at most 90% of its maximum size.
+     */
+    private synchronized void evict() {
+        long target = properties.getMaxSize().toBytes() * 9 / 10;
+        if (currentSize.get() <= target) return;
+
+        List<Path> files;
+        try (Stream<Path> entries = listEntries()) {
+            files = entries.sorted(Comparator.comparing(this::lastModifiedOf)).toList();
+        } catch (IOException e) {
+            log.warn("Failed to evict TMDB cache entries", e);
+            return;
+        }
+
+        int evicted = 0;
+        for (var file : files) {
+            if (currentSize.get() <= target) break;
+            delete(file);
+            evicted++;
+        }
+        log.info("Evicted {} TMDB cache entries", evicted);
+    }
+
+    private Stream<Path> listEntries() throws IOException {
+        return Files.walk(directory)
+                .filter(Files::isRegularFile)
+                .filter(p -> p.getFileName().toString().endsWith(".gz"));
+    }
+
+    private void delete(Path file) {
+        long size = sizeOf(file);
+        try {
+            if (Files.deleteIfExists(file)) currentSize.addAndGet(-size);
+        } catch (IOException e) {
+            log.warn("Failed to delete TMDB cache entry {}", file, e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Deleted when the cache starts next
+        }
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private FileTime lastModifiedOf(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /**
+     * Entries are spread in subdirectories named after the first byte of the hash of their URI.
+     */
+    private Path fileFor(String uri) {
+        try {
+            var hash = HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(uri.getBytes(StandardCharsets.UTF_8))
+            );
+            return directory.resolve(hash.substring(0, 2)).resolve(hash + ".gz");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -4,22 +4,32 @@ import com.upsxace.tv_show_tracker.actor.entity.Actor;
 import com.upsxace.tv_show_tracker.actor.entity.ActorCredit;
 import com.upsxace.tv_show_tracker.actor.repository.ActorCreditRepository;
 import com.upsxace.tv_show_tracker.actor.repository.ActorRepository;
-import com.upsxace.tv_show_tracker.common.app_property.AppPropertyService;
+import com.upsxace.tv_show_tracker.common.utils.SingleFlight;
+import com.upsxace.tv_show_tracker.data_collector.discovery.DiscoveredTvShow;
+import com.upsxace.tv_show_tracker.data_collector.discovery.PageLease;
+import com.upsxace.tv_show_tracker.data_collector.discovery.PageLeaseService;
 import com.upsxace.tv_show_tracker.data_collector.dto.CastPersonDto;
 import com.upsxace.tv_show_tracker.data_collector.dto.GenreDto;
-import com.upsxace.tv_show_tracker.data_collector.dto.TvShowDto;
-import com.upsxace.tv_show_tracker.genre.Genre;
-import com.upsxace.tv_show_tracker.genre.GenreRepository;
+import com.upsxace.tv_show_tracker.data_collector.dto.PersonCreditsCastDto;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvShowDetailsDto;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvShowsResponse;
+import com.upsxace.tv_show_tracker.data_collector.hydration.CreditHydrationWriter;
+import com.upsxace.tv_show_tracker.data_collector.index.TmdbIdIndex;
+import com.upsxace.tv_show_tracker.data_collector.ingest.BulkIngestWriter;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkItemType;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkQueueService;
 import com.upsxace.tv_show_tracker.genre.GenreService;
 import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
-import com.upsxace.tv_show_tracker.tv_show.repository.TvShowRepository;
-import jakarta.annotation.PostConstruct;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShowSummary;
+import com.upsxace.tv_show_tracker.tv_show.repository.TvShowSummaryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.Hibernate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,67 +37,30 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TmdbService {
 
-    private final AppPropertyService appPropertyService;
     private final TmdbClient tmdbClient;
-    private final GenreRepository genreRepository;
-    private final TvShowRepository tvShowRepository;
+    private final GenreService genreService;
+    private final TvShowSummaryRepository tvShowSummaryRepository;
     private final ActorRepository actorRepository;
     private final ActorCreditRepository actorCreditRepository;
-    private final GenreService genreService;
-
-    private int pagesExplored = 0;
-    private int totalPages = 0;
-
-    @PostConstruct
-    public void loadStateFromDatabase() {
-        pagesExplored = appPropertyService.readProperty("tmdb:pages-explored").map(Integer::parseInt).orElse(0);
-        totalPages = appPropertyService.readProperty("tmdb:total-pages").map(Integer::parseInt).orElse(0);
-    }
+    private final BulkIngestWriter bulkIngestWriter;
+    private final PageLeaseService pageLeaseService;
+    private final WorkQueueService workQueueService;
+    private final TransactionTemplate transactionTemplate;
+    private final TmdbIdIndex tmdbIdIndex;
+    private final CreditHydrationWriter creditHydrationWriter;
 
-    public void saveState(int newPagesExplored, int newTotalPages) {
-        synchronized (this) {
-            pagesExplored = newPagesExplored;
-            totalPages = newTotalPages;
-            appPropertyService.upsertProperty("tmdb:pages-explored", String.valueOf(newPagesExplored));
-            appPropertyService.upsertProperty("tmdb:total-pages", String.valueOf(newTotalPages));
-            log.info("Saved discovery state: {}/{} pages explored", newPagesExplored, newTotalPages);
-        }
-    }
+    /** Hydrations in flight, by TMDB ID of the TV show or actor */
+    private final SingleFlight<Long, List<ActorCredit>> tvShowCreditsFlights = new SingleFlight<>();
+    private final SingleFlight<Long, List<ActorCredit>> actorCreditsFlights = new SingleFlight<>();
 
-    public void skipPage() {
-        synchronized (this) {
-            if (totalPages > pagesExplored) {
-                saveState(pagesExplored + 1, totalPages);
-            }
-        }
-    }
-
-    @Transactional
     public void collectGenres() {
-        var allGenres = tmdbClient.getTvGenreList();
-        var allIds = allGenres.stream().map(GenreDto::getId).toList();
-        var idsInDb = genreRepository.findByTmdbIdIn(allIds).stream()
-                .map(Genre::getTmdbId).toList();
-
-        var genresToInsert = allGenres.stream()
-                .filter(g -> !idsInDb.contains(g.getId()))
-                .map(GenreDto::toModel)
-                .toList();
-
-        genreRepository.saveAll(genresToInsert);
+        genreService.storeAll(tmdbClient.getTvGenreList().stream().map(GenreDto::toModel).toList());
     }
 
-    @Transactional
-    private void addMissingGenresToDb(List<Long> genreIds) {
-        var idsInDb = genreRepository.findByTmdbIdIn(genreIds).stream()
-                .map(Genre::getTmdbId).collect(Collectors.toSet());
-        var genresMissing = genreIds.stream().filter(id -> !idsInDb.contains(id)).toList();
-        var genres = genresMissing.stream().map(id -> tmdbClient.getTvGenre(id).toModel()).toList();
-        genreRepository.saveAll(genres);
-    }
+    private List<CastPersonDto> getActorsInCast(TvShowDetailsDto tvShowDetails){
+        if (tvShowDetails.getCredits() == null || tvShowDetails.getCredits().getCast() == null) return List.of();
 
-    private List<CastPersonDto> getActorsInCast(Long tmdbId){
-        return tmdbClient.getTvShowCredits(tmdbId)
+        return tvShowDetails.getCredits().getCast()
                 .stream()
                 .filter(p -> "Acting".equals(p.getKnown_for_department()))
                 .sorted(Comparator.comparingDouble(CastPersonDto::getPopularity).reversed()) // descending
@@ -95,126 +68,175 @@ public class TmdbService {
                 .toList();
     }
 
-    @Transactional
-    private Set<Actor> getActorsInTvShow(Long tmdbId){
-        var actorsInCast = getActorsInCast(tmdbId);
-        var actorsAlreadyInDb = actorRepository.findByTmdbIdIn(
-                actorsInCast.stream().map(CastPersonDto::getId).toList()
-        );
-
-        Set<Actor> actors = new HashSet<>();
-        for (var actorInCast : actorsInCast) {
-            var inDb = actorsAlreadyInDb.stream()
-                    .filter(a -> a.getTmdbId().equals(actorInCast.getId()))
-                    .findFirst()
-                    .orElse(null);
-            actors.add(inDb != null ? inDb : actorInCast.toActorModel());
-        }
-
-        return actors;
+    /**
+     * Number of discover pages stored by every node, in every slice.
+     */
+    public int getPagesExplored() {
+        return pageLeaseService.getPagesExplored();
     }
 
-    @Transactional
-    public void discover() {
-        if (totalPages > 0 && pagesExplored >= totalPages) return;
-
-        log.info("Discovering...");
-        var tvShowsResponse = tmdbClient.getTvShows(pagesExplored + 1);
-
-        var tmdbIds = tvShowsResponse.getResults().stream().map(TvShowDto::getId).toList();
-        var tvShowModels = tvShowRepository.findByTmdbIdIn(tmdbIds);
-        var inDbIds = tvShowModels.stream().map(TvShow::getTmdbId).toList();
-
-        var tvShowsToAddIds = tmdbIds.stream().filter(id -> !inDbIds.contains(id)).toList();
-        Set<Actor> allActors = new HashSet<>();
-
-        for (var tvShowDetails : tvShowsToAddIds.stream().map(tmdbClient::getTvShowDetails).toList()) {
+    public boolean isDiscoveryFinished() {
+        return !pageLeaseService.hasPagesLeft();
+    }
 
-            // Add any missing genres to DB
-            addMissingGenresToDb(tvShowDetails.getGenres().stream().map(GenreDto::getId).toList());
+    public TvShowsResponse fetchDiscoverPage(String slice, int page) {
+        return tmdbClient.getTvShows(slice, page);
+    }
 
-            // Map genres to DB IDs
-            var genreIds = genreService.mapToDbId(tvShowDetails.getGenres().stream().map(GenreDto::getId).toList());
-            var model = tvShowDetails.toModel(genreIds);
-            tvShowModels.add(model);
+    /**
+     * Filters out the TV shows already stored, according to the {@link TmdbIdIndex}.
+     */
+    public List<Long> findMissingTvShowIds(List<Long> tmdbIds) {
+        return tmdbIdIndex.findMissingTvShowIds(tmdbIds);
+    }
 
-            // Collect all actors from cast
-            allActors.addAll(getActorsInTvShow(tvShowDetails.getId()));
-        }
+    /**
+     * Fetches the details and main cast of a TV show in a single request. Performs no database access,
+     * so it can safely run on the discovery fetch workers.
+     */
+    public DiscoveredTvShow fetchTvShow(Long tmdbId) {
+        var details = tmdbClient.getTvShowDetailsWithCredits(tmdbId);
+        return new DiscoveredTvShow(details, getActorsInCast(details));
+    }
 
-        // Batch save TV shows and actors
-        tvShowRepository.saveAll(tvShowModels);
-        actorRepository.saveAll(allActors);
+    /**
+     * Persists the TV shows fetched from a discover page, together with their cast and credits,
+     * and completes the lease of that page.
+     * Pages are prefetched ahead, by this node and others, and slices overlap, so a show may have been stored
+     * meanwhile by another page; the bulk writer skips the shows already stored.
+     */
+    @Transactional
+    public void persistDiscoveredPage(PageLease lease, TvShowsResponse page, List<DiscoveredTvShow> discoveredTvShows) {
+        bulkIngestWriter.write(discoveredTvShows);
 
         // Update discovery state
-        saveState(tvShowsResponse.getPage(), tvShowsResponse.getTotal_pages());
+        pageLeaseService.complete(lease, page.getTotal_pages());
     }
 
-
+    /**
+     * Persists TV shows fetched outside discovery pages, together with their cast and credits.
+     *
+     * @return number of TV shows inserted
+     */
     @Transactional
+    public int persistTvShows(List<DiscoveredTvShow> tvShows) {
+        return bulkIngestWriter.write(tvShows);
+    }
+
+    /**
+     * Fetches all TV show credits of an actor from TMDB, then stores the ones not in the database yet
+     * and links the others to their TV show, in a short write transaction.
+     * Concurrent calls for the same actor share a single fetch.
+     *
+     * @return the credits of the actor, as stored
+     */
     public List<ActorCredit> discoverActorCredits(Actor actor, Long tmdbId){
-        log.info("Discovering actor credits...");
+        var credits = actorCreditsFlights.execute(tmdbId, () -> {
+            log.info("Discovering actor credits...");
 
-        var creditsModels = tmdbClient.getPersonTvShowCredits(tmdbId).stream()
-                .map(c -> c.toModel(tvShowRepository.findByTmdbId(c.getId()).orElse(null), actor))
-                .toList();
+            var tmdbCredits = tmdbClient.getPersonTvShowCredits(tmdbId);
+            return transactionTemplate.execute(status -> persistActorCredits(actor, tmdbCredits));
+        });
+        // Set once the credits are committed, also on the instance of callers that shared another caller's fetch
+        actor.setCreditsDiscovered(true);
+        return credits;
+    }
 
-        var creditsInDbIds = actorCreditRepository.findByTmdbIdIn(
-                creditsModels.stream().map(ActorCredit::getTmdbId).toList()
-        ).stream().map(ActorCredit::getTmdbId).toList();
+    /**
+     * Stores the credits of a stored actor. Credits are upserted by TMDB ID and linked to their TV show
+     * in the same statement, so nothing is read before writing.
+     */
+    private List<ActorCredit> persistActorCredits(Actor actor, List<PersonCreditsCastDto> credits){
+        saveMissingSummaries(credits.stream().map(PersonCreditsCastDto::toSummaryModel).toList());
+        var storedCredits = actorCreditRepository.upsertAll(credits.stream().map(c -> c.toModel(null, actor)).toList());
 
-        var newCredits = creditsModels.stream()
-                .filter(c -> !creditsInDbIds.contains(c.getTmdbId()))
-                .toList();
+        actorRepository.markCreditsDiscovered(List.of(actor.getId()));
+        return storedCredits;
+    }
 
-        actorCreditRepository.saveAllAndFlush(newCredits);
-        return newCredits;
+    /**
+     * Stores the summaries of the TV shows credits are shown with, if not stored yet.
+     */
+    private void saveMissingSummaries(List<TvShowSummary> summaries) {
+        tvShowSummaryRepository.insertMissing(summaries);
     }
 
-    @Transactional
+    /**
+     * Fetches the main cast of a TV show, and the credits of its actors already in the database, from TMDB.
+     * Then stores the new actors and all the credits found in a single short write transaction,
+     * so no pooled connection is held while waiting for TMDB.
+     * Actors whose credits fail to be fetched are queued to be retried, and only get their credit in this show.
+     * Concurrent calls for the same TV show share a single fetch, so a TV show opened by many users at once
+     * costs the same TMDB calls as opening it once.
+     */
     public void fillTvShowCredits(TvShow tvShow){
+        var credits = tvShowCreditsFlights.execute(tvShow.getTmdbId(), () -> fetchTvShowCredits(tvShow));
+        tvShow.setActorCredits(new ArrayList<>(credits));
+    }
+
+    private List<ActorCredit> fetchTvShowCredits(TvShow tvShow){
         log.info("Discovering tv show credits...");
 
-        var actorsInCast = getActorsInCast(tvShow.getTmdbId());
-        var actorsAlreadyInDb = actorRepository.findByTmdbIdIn(
-                actorsInCast.stream().map(CastPersonDto::getId).toList()
-        );
+        var actorsInCast = getActorsInCast(tmdbClient.getTvShowDetailsWithCredits(tvShow.getTmdbId()));
 
-        Map<Long, Actor> actorsMap = new HashMap<>();
-        for (var actor : actorsAlreadyInDb) {
-            actorsMap.put(actor.getTmdbId(), actor);
+        // The credits of every known actor are fetched concurrently, so this takes as long as the slowest call
+        Map<Long, CompletableFuture<List<PersonCreditsCastDto>>> requests = new LinkedHashMap<>();
+        for (var actorInCast : actorsInCast) {
+            if (tmdbIdIndex.hasActor(actorInCast.getId())) {
+                requests.put(actorInCast.getId(), tmdbClient.getPersonTvShowCreditsAsync(actorInCast.getId()));
+            }
         }
 
-        Set<Actor> newActors = new HashSet<>();
-        List<ActorCredit> credits = new ArrayList<>();
-
-        for(var actorInCast : actorsInCast){
-            Actor inDb = actorsMap.get(actorInCast.getId());
-            if (inDb != null){
-                credits.addAll(discoverActorCredits(inDb, inDb.getTmdbId()));
-            } else {
-                newActors.add(actorInCast.toActorModel());
+        Map<Long, List<PersonCreditsCastDto>> knownActorsCredits = new LinkedHashMap<>();
+        requests.forEach((actorTmdbId, request) -> {
+            try {
+                knownActorsCredits.put(actorTmdbId, Objects.requireNonNullElse(request.join(), List.of()));
+            } catch (CompletionException e) {
+                workQueueService.recordFailure(WorkItemType.ACTOR_CREDITS, actorTmdbId, e.getCause() != null ? e.getCause() : e);
             }
-        }
+        });
 
-        actorRepository.saveAll(newActors);
+        return transactionTemplate.execute(
+                status -> persistTvShowCredits(tvShow, actorsInCast, knownActorsCredits)
+        );
+    }
 
-        var creditsFromCurrent = credits.stream()
-                .filter(c -> c.getTvShowTmdbId().equals(tvShow.getTmdbId()))
-                .toList();
+    /**
+     * Stores the cast of a TV show with their credits in it, and the credits fetched for its known actors,
+     * and marks the credits of the TV show as hydrated.
+     * Actors and credits are upserted by TMDB ID, so concurrent requests for the same TV show store them once.
+     * All credits are written in one statement, which also links them to their stored TV shows.
+     *
+     * @return the credits in this TV show
+     */
+    private List<ActorCredit> persistTvShowCredits(TvShow tvShow, List<CastPersonDto> actorsInCast,
+                                                   Map<Long, List<PersonCreditsCastDto>> knownActorsCredits){
+        Map<Long, Actor> actorsMap = new HashMap<>();
+        actorRepository.upsertAll(actorsInCast.stream().map(CastPersonDto::toActorModel).toList())
+                .forEach(a -> actorsMap.put(a.getTmdbId(), a));
+        tmdbIdIndex.recordActors(actorsMap.values().stream().collect(Collectors.toMap(Actor::getTmdbId, Actor::getId)));
 
-        creditsFromCurrent.forEach(c -> {
-            if(c.getTvShow() == null){
-                c.setTvShow(tvShow);
+        // The first of duplicated credits and summaries is stored: the fullest version comes first
+        List<TvShowSummary> summaries = new ArrayList<>(List.of(TvShowSummary.of(tvShow)));
+        List<ActorCredit> credits = new ArrayList<>();
+        knownActorsCredits.forEach((actorTmdbId, actorCredits) -> {
+            for (var credit : actorCredits) {
+                summaries.add(credit.toSummaryModel());
+                credits.add(credit.toModel(null, actorsMap.get(actorTmdbId)));
             }
-            c.setTvShowId(c.getTvShow().getId());
-            c.setActorId(c.getActor().getId());
         });
+        actorsInCast.forEach(c -> credits.add(c.toActorCreditModel(tvShow, actorsMap.get(c.getId()))));
+
+        saveMissingSummaries(summaries);
+        var storedCredits = actorCreditRepository.upsertAll(credits);
+        if (!knownActorsCredits.isEmpty()) {
+            actorRepository.markCreditsDiscovered(
+                    knownActorsCredits.keySet().stream().map(id -> actorsMap.get(id).getId()).toList()
+            );
+        }
+        creditHydrationWriter.markHydrated(tvShow.getId());
 
-        actorCreditRepository.saveAllAndFlush(credits);
-        tvShow.setActorCredits(creditsFromCurrent);
-
-        if(!credits.isEmpty()) Hibernate.initialize(credits.getFirst().getActor());
+        return storedCredits.stream().filter(c -> tvShow.getTmdbId().equals(c.getTvShowTmdbId())).toList();
     }
 
 }
@@ -0,0 +1,19 @@
+package com.upsxace.tv_show_tracker.data_collector.hydration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.credit-hydration")
+@Data
+public class CreditHydrationConfig {
+    /** When disabled, credits are fetched on the request reading the TV show */
+    private boolean enabled = true;
+    /** TV shows hydrated on every run of the worker */
+    private int batchSize = 20;
+    /** Time a node holds the TV shows it claimed before other nodes may take them over */
+    private Duration claimDuration = Duration.ofMinutes(10);
+}
@@ -0,0 +1,87 @@
+package com.upsxace.tv_show_tracker.data_collector.hydration;
+
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fetches the credits of TV shows in the background, so reading a TV show never waits for TMDB.
+ * <p>
+ * TV shows read before their credits were fetched are requested, and hydrated first. Then the most popular
+ * TV shows not hydrated yet are, which covers newly discovered and trending ones. Until its credits are
+ * hydrated, a TV show is returned with the credits stored so far and marked as pending.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CreditHydrationService {
+
+    private final TmdbService tmdbService;
+    private final CreditHydrationWriter creditHydrationWriter;
+    private final CreditHydrationConfig creditHydrationConfig;
+    private final MeterRegistry meterRegistry;
+
+    private Counter hydratedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        hydratedCounter = meterRegistry.counter("catalog.credits.hydrations", "result", "hydrated");
+        failedCounter = meterRegistry.counter("catalog.credits.hydrations", "result", "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${app.credit-hydration.interval:PT10S}")
+    public void backgroundTasks() {
+        if (!creditHydrationConfig.isEnabled()) return;
+
+        try {
+            hydratePending();
+        } catch (Exception e) {
+            log.error("An error occurred while hydrating tv show credits", e);
+        }
+    }
+
+    /**
+     * Called when a TV show without credits is read. Requests its credits in the background,
+     * or fetches them right away when background hydration is disabled.
+     */
+    public void requestCredits(TvShow tvShow) {
+        if (creditHydrationConfig.isEnabled()) {
+            creditHydrationWriter.request(tvShow.getId());
+        } else {
+            tmdbService.fillTvShowCredits(tvShow);
+        }
+    }
+
+    /**
+     * Fetches the credits of a batch of the TV shows most in need of them.
+     *
+     * @return number of TV shows hydrated
+     */
+    public int hydratePending() {
+        var tvShows = creditHydrationWriter.claimPending(
+                creditHydrationConfig.getBatchSize(), creditHydrationConfig.getClaimDuration()
+        );
+        if (tvShows.isEmpty()) return 0;
+
+        int hydrated = 0;
+        for (var tvShow : tvShows) {
+            try {
+                tmdbService.fillTvShowCredits(tvShow);
+                hydratedCounter.increment();
+                hydrated++;
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                log.warn("Failed to hydrate the credits of tv show {}", tvShow.getTmdbId(), e);
+            }
+        }
+        log.info("Hydrated the credits of {} tv shows, {} failed", hydrated, tvShows.size() - hydrated);
+        return hydrated;
+    }
+}
@@ -0,0 +1,82 @@
+package com.upsxace.tv_show_tracker.data_collector.hydration;
+
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Database side of the credit hydration: tracks which TV shows still need their credits fetched from TMDB.
+ */
+@Component
+@RequiredArgsConstructor
+public class CreditHydrationWriter {
+
+    /*
+     * Shows requested by readers come first, oldest request first, then the most popular ones.
+     * Claimed shows are skipped by other nodes until the claim expires, so a failed hydration is retried later.
+     */
+    private static final String CLAIM_PENDING = """
+            UPDATE tv_shows t
+            SET credits_claimed_until = now() + make_interval(secs => ?)
+            FROM (
+                SELECT s.id
+                FROM tv_shows s
+                WHERE s.credits_hydrated_at IS NULL
+                  AND (s.credits_claimed_until IS NULL OR s.credits_claimed_until < now())
+                ORDER BY s.credits_requested_at IS NULL, s.credits_requested_at, s.popularity DESC NULLS LAST
+                LIMIT ?
+                FOR UPDATE OF s SKIP LOCKED
+            ) c
+            WHERE t.id = c.id
+            RETURNING t.id, t.tmdb_id, t.name, t.overview, t.popularity, t.first_air_date
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Claims the TV shows whose credits are most needed.
+     *
+     * @param limit         maximum number of TV shows claimed
+     * @param claimDuration time other nodes skip the TV shows claimed
+     * @return the TV shows claimed, with the fields their summary is made of
+     */
+    public List<TvShow> claimPending(int limit, Duration claimDuration) {
+        return jdbcTemplate.query(
+                CLAIM_PENDING,
+                (rs, i) -> TvShow.builder()
+                        .id(rs.getLong("id"))
+                        .tmdbId(rs.getLong("tmdb_id"))
+                        .name(rs.getString("name"))
+                        .overview(rs.getString("overview"))
+                        .popularity(rs.getObject("popularity", Double.class))
+                        .firstAirDate(rs.getObject("first_air_date", LocalDate.class))
+                        .build(),
+                claimDuration.toSeconds(), limit
+        );
+    }
+
+    /**
+     * Moves a TV show ahead of the ones hydrated by popularity. Costs a single indexed update.
+     */
+    public void request(Long tvShowId) {
+        jdbcTemplate.update(
+                "UPDATE tv_shows SET credits_requested_at = now() WHERE id = ? AND credits_requested_at IS NULL",
+                tvShowId
+        );
+    }
+
+    /**
+     * Marks the credits of a TV show as fetched. Joins the transaction storing them, if any.
+     */
+    public void markHydrated(Long tvShowId) {
+        jdbcTemplate.update(
+                "UPDATE tv_shows SET credits_hydrated_at = now(), credits_claimed_until = NULL WHERE id = ?",
+                tvShowId
+        );
+    }
+}
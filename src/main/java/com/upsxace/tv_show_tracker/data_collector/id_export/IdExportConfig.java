@@ -0,0 +1,22 @@
+package com.upsxace.tv_show_tracker.data_collector.id_export;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.id-export")
+@Data
+public class IdExportConfig {
+    /** Whether the ID export is imported once the application is ready; meant to be set for a single run */
+    private boolean enabled = false;
+    /** TMDB daily ID export to import, gzip'd or not; nothing is imported when blank */
+    private String file = "";
+    /** IDs read, checked against the database and fetched at a time */
+    private int batchSize = 500;
+    /** Number of virtual-thread workers fetching TV show details and credits */
+    private int fetchWorkers = 16;
+    /** TV shows less popular than this are left to discovery */
+    private double minPopularity = 0;
+    private boolean includeAdult = false;
+}
@@ -0,0 +1,151 @@
+package com.upsxace.tv_show_tracker.data_collector.id_export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upsxace.tv_show_tracker.data_collector.discovery.DiscoveredTvShow;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbCacheMissException;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import com.upsxace.tv_show_tracker.data_collector.storage.StorageBudgetService;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkItemType;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkQueueService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Seeds the catalog from a TMDB daily ID export, set by {@code app.id-export.file}, once the application is ready.
+ * The import is opt-in through {@code app.id-export.enabled}, meant to be set for the run that seeds the catalog only,
+ * and runs on a virtual thread of its own, so it never holds up startup; errors stopping it are logged.
+ * <p>
+ * The export is streamed in batches of {@code app.id-export.batch-size} IDs. IDs already in the database are dropped,
+ * and the details and cast of the others are fetched by a pool of virtual-thread workers, while the previous batch
+ * is bulk written. At most two batches are held in memory, so seeding is bound by the TMDB rate limiter and the
+ * write speed only, not by the discovery schedule. An interrupted import is resumed by importing the same file again,
+ * as the TV shows already stored cost a single lookup per batch.
+ * <p>
+ * TV shows that fail to be fetched are queued to be retried later. The import stops when the storage budget
+ * has no room left, see {@link StorageBudgetService}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdExportImporter {
+
+    private final IdExportConfig idExportConfig;
+    private final TmdbService tmdbService;
+    private final WorkQueueService workQueueService;
+    private final StorageBudgetService storageBudgetService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private Counter importedCounter;
+    private Counter existingCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        importedCounter = meterRegistry.counter("catalog.import.tv-shows", "result", "imported");
+        existingCounter = meterRegistry.counter("catalog.import.tv-shows", "result", "existing");
+        failedCounter = meterRegistry.counter("catalog.import.tv-shows", "result", "failed");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        var file = idExportConfig.getFile();
+        if (!idExportConfig.isEnabled() || file == null || file.isBlank()) return;
+
+        Thread.ofVirtual().name("tmdb-id-export").start(() -> {
+            try {
+                importFile(Path.of(file));
+            } catch (Exception e) {
+                log.error("Failed to import tv shows from TMDB ID export {}", file, e);
+            }
+        });
+    }
+
+    /**
+     * Imports every TV show of an ID export that is not in the database yet.
+     *
+     * @return number of TV shows stored
+     */
+    public int importFile(Path file) throws IOException {
+        log.info("Importing tv shows from TMDB ID export {}...", file);
+        int stored = 0;
+
+        try (var reader = IdExportReader.open(objectMapper.getFactory(), file,
+                idExportConfig.getMinPopularity(), idExportConfig.isIncludeAdult());
+             var fetchExecutor = Executors.newFixedThreadPool(
+                     Math.max(1, idExportConfig.getFetchWorkers()),
+                     Thread.ofVirtual().name("tmdb-import-", 0).factory()
+             )) {
+            Batch previous = null;
+            List<Long> ids;
+            while (storageBudgetService.hasRoom()
+                    && !(ids = reader.nextBatch(Math.max(1, idExportConfig.getBatchSize()))).isEmpty()) {
+                var missingIds = tmdbService.findMissingTvShowIds(ids);
+                existingCounter.increment(ids.size() - missingIds.size());
+                var batch = fetch(missingIds, fetchExecutor);
+
+                if (previous != null) stored += persist(previous);
+                previous = batch;
+                log.info("Read {} entries of the ID export: {} tv shows stored", reader.getEntriesRead(), stored);
+            }
+            if (previous != null) stored += persist(previous);
+        }
+
+        log.info("Imported {} tv shows from TMDB ID export {}", stored, file);
+        return stored;
+    }
+
+    private Batch fetch(List<Long> tmdbIds, ExecutorService fetchExecutor) {
+        return new Batch(tmdbIds, tmdbIds.stream()
+                .map(id -> CompletableFuture.supplyAsync(() -> tmdbService.fetchTvShow(id), fetchExecutor))
+                .toList());
+    }
+
+    /**
+     * Waits for every TV show of a batch to be fetched and bulk writes them.
+     * TV shows that failed are queued, and TV shows missing from the cache being replayed are left out.
+     */
+    private int persist(Batch batch) {
+        List<DiscoveredTvShow> tvShows = new ArrayList<>(batch.getTmdbIds().size());
+        for (int i = 0; i < batch.getTmdbIds().size(); i++) {
+            try {
+                tvShows.add(batch.getTvShows().get(i).join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof TmdbCacheMissException) continue;
+                failedCounter.increment();
+                workQueueService.recordFailure(WorkItemType.TV_SHOW, batch.getTmdbIds().get(i),
+                        e.getCause() != null ? e.getCause() : e);
+            }
+        }
+        if (tvShows.isEmpty()) return 0;
+
+        int stored = tmdbService.persistTvShows(tvShows);
+        importedCounter.increment(stored);
+        return stored;
+    }
+
+    /**
+     * Batch of TV shows being fetched, in the order of their IDs.
+     */
+    @Data
+    private static class Batch {
+        private final List<Long> tmdbIds;
+        private final List<CompletableFuture<DiscoveredTvShow>> tvShows;
+    }
+}
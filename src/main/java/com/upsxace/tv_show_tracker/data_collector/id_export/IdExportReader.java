@@ -0,0 +1,101 @@
+package com.upsxace.tv_show_tracker.data_collector.id_export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams the TV show IDs of a TMDB daily ID export: one JSON object per line, such as
+ * {@code {"adult":false,"id":1399,"original_name":"Game of Thrones","popularity":369.6}}.
+ * <p>
+ * The file is read token by token, so only the batch being returned is held in memory, whatever the size of the export.
+ */
+public class IdExportReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JsonParser parser;
+    private final double minPopularity;
+    private final boolean includeAdult;
+
+    private long entriesRead;
+
+    public IdExportReader(JsonFactory jsonFactory, InputStream input, double minPopularity, boolean includeAdult)
+            throws IOException {
+        this.parser = jsonFactory.createParser(input);
+        this.minPopularity = minPopularity;
+        this.includeAdult = includeAdult;
+    }
+
+    /**
+     * Opens an export file, decompressing it if its name ends with {@code .gz}.
+     */
+    public static IdExportReader open(JsonFactory jsonFactory, Path file, double minPopularity, boolean includeAdult)
+            throws IOException {
+        InputStream input = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+        try {
+            if (file.getFileName().toString().endsWith(".gz")) input = new GZIPInputStream(input, BUFFER_SIZE);
+            return new IdExportReader(jsonFactory, input, minPopularity, includeAdult);
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the IDs of the next entries that pass the filters.
+     *
+     * @param size maximum number of IDs to read
+     * @return the IDs read, empty once the end of the export was reached
+     */
+    public List<Long> nextBatch(int size) throws IOException {
+        List<Long> ids = new ArrayList<>(size);
+        JsonToken token;
+        while (ids.size() < size && (token = parser.nextToken()) != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            Long id = null;
+            double popularity = 0;
+            boolean adult = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id" -> id = parser.getLongValue();
+                    case "popularity" -> popularity = parser.getDoubleValue();
+                    case "adult" -> adult = parser.getBooleanValue();
+                    default -> parser.skipChildren();
+                }
+            }
+
+            entriesRead++;
+            if (id != null && popularity >= minPopularity && (includeAdult || !adult)) ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * Number of entries read so far, including the ones filtered out.
+     */
+    public long getEntriesRead() {
+        return entriesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
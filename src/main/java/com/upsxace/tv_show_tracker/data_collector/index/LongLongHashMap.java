@@ -0,0 +1,136 @@
+package com.upsxace.tv_show_tracker.data_collector.index;
+
+/**
+ * Map from positive {@code long} keys to {@code long} values, stored in two flat primitive arrays
+ * with open addressing and linear probing. Costs 16 bytes per slot, with at most {@value #LOAD_FACTOR}
+ * of the slots in use, and no object per entry.
+ * <p>
+ * Key {@code 0} marks empty slots, so it cannot be stored. Not thread-safe.
+ */
+public final class LongLongHashMap {
+
+    private static final long EMPTY = 0;
+    private static final double LOAD_FACTOR = 0.6;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int resizeAt;
+    private int size;
+
+    public LongLongHashMap() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize number of entries the map can hold before growing
+     */
+    public LongLongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR);
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed) {
+            if (capacity >= 1 << 30) throw new IllegalStateException("Too many entries: " + expectedSize);
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Heap used by the arrays of the map, in bytes.
+     */
+    public long getMemoryBytes() {
+        return 16L * keys.length;
+    }
+
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @return the value of the key, or {@code missing} if the key is not in the map
+     */
+    public long get(long key, long missing) {
+        int i = indexOf(key);
+        return i >= 0 ? values[i] : missing;
+    }
+
+    private int indexOf(long key) {
+        if (key == EMPTY) return -1;
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) return i;
+            if (keys[i] == EMPTY) return -1;
+        }
+    }
+
+    public void put(long key, long value) {
+        if (key == EMPTY) throw new IllegalArgumentException("Key 0 cannot be stored");
+
+        int i = slot(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > resizeAt) grow();
+    }
+
+    /**
+     * Removes a key, shifting back the entries probed after it so lookups need no tombstones.
+     *
+     * @return whether the key was in the map
+     */
+    public boolean remove(long key) {
+        int i = indexOf(key);
+        if (i < 0) return false;
+
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            // An entry stays if its home slot lies cyclically within (i, j]
+            boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (stays) continue;
+
+            keys[i] = keys[j];
+            values[i] = values[j];
+            i = j;
+        }
+        keys[i] = EMPTY;
+        values[i] = 0;
+        size--;
+        return true;
+    }
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(keys.length << 1);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
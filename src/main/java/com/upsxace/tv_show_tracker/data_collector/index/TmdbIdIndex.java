@@ -0,0 +1,202 @@
+package com.upsxace.tv_show_tracker.data_collector.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory index from the TMDB IDs of the TV shows and actors stored to their database IDs,
+ * so ingestion can tell what is already stored without querying the database.
+ * <p>
+ * The index is loaded at startup, updated when the transactions inserting or evicting rows commit,
+ * and reloaded every {@code app.tmdb-id-index.reload-interval} to pick up the rows stored by other nodes.
+ * Until then, a row stored by another node may be fetched again from TMDB, and is skipped when written.
+ * Updates made while a reload reads the database are applied again to the rows read, so none is lost.
+ * <p>
+ * Foreign keys are not resolved through the index: the bulk writer resolves them by TMDB ID in its SQL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TmdbIdIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Index tvShows = new Index("tv_shows");
+    private final Index actors = new Index("actors");
+
+    @PostConstruct
+    public void init() {
+        for (var index : List.of(tvShows, actors)) {
+            Gauge.builder("catalog.tmdb-id-index.entries", index, Index::size)
+                    .tag("table", index.table)
+                    .register(meterRegistry);
+            Gauge.builder("catalog.tmdb-id-index.bytes", index, Index::memoryBytes)
+                    .tag("table", index.table)
+                    .register(meterRegistry);
+        }
+        reload();
+    }
+
+    /**
+     * Replaces both indexes with the rows currently in the database.
+     */
+    @Scheduled(initialDelayString = "${app.tmdb-id-index.reload-interval:PT30M}",
+            fixedDelayString = "${app.tmdb-id-index.reload-interval:PT30M}")
+    public synchronized void reload() {
+        for (var index : List.of(tvShows, actors)) {
+            index.startReload();
+            index.replace(load(index.table));
+        }
+        log.info("Loaded TMDB ID index: {} tv shows, {} actors ({} KB)",
+                tvShows.size(), actors.size(), (tvShows.memoryBytes() + actors.memoryBytes()) / 1024);
+    }
+
+    private LongLongHashMap load(String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+        var map = new LongLongHashMap(count == null ? 0 : count);
+        jdbcTemplate.query("SELECT tmdb_id, id FROM " + table + " WHERE tmdb_id > 0",
+                (RowCallbackHandler) rs -> map.put(rs.getLong(1), rs.getLong(2)));
+        return map;
+    }
+
+    /**
+     * @return the TMDB IDs given whose TV show is not stored, in the same order
+     */
+    public List<Long> findMissingTvShowIds(List<Long> tmdbIds) {
+        return tvShows.read(map -> tmdbIds.stream().filter(id -> !map.containsKey(id)).toList());
+    }
+
+    public boolean hasActor(long tmdbId) {
+        return actors.read(map -> map.containsKey(tmdbId));
+    }
+
+    /**
+     * Adds TV shows once the transaction inserting them commits, or right away outside a transaction.
+     *
+     * @param ids database IDs by TMDB ID
+     */
+    public void recordTvShows(Map<Long, Long> ids) {
+        afterCommit(() -> tvShows.write(map -> ids.forEach(map::put)));
+    }
+
+    /**
+     * Adds actors once the transaction inserting them commits, or right away outside a transaction.
+     *
+     * @param ids database IDs by TMDB ID
+     */
+    public void recordActors(Map<Long, Long> ids) {
+        afterCommit(() -> actors.write(map -> ids.forEach(map::put)));
+    }
+
+    /**
+     * Removes TV shows once the transaction deleting them commits, or right away outside a transaction.
+     */
+    public void removeTvShows(Collection<Long> tmdbIds) {
+        afterCommit(() -> tvShows.write(map -> tmdbIds.forEach(map::remove)));
+    }
+
+    /**
+     * Removes actors once the transaction deleting them commits, or right away outside a transaction.
+     */
+    public void removeActors(Collection<Long> tmdbIds) {
+        afterCommit(() -> actors.write(map -> tmdbIds.forEach(map::remove)));
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * Map of one table, read by the ingestion threads and written after commits.
+     */
+    private static class Index {
+        private final String table;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private LongLongHashMap map = new LongLongHashMap();
+        /** Updates made since the reload in progress started reading the database, null when not reloading */
+        private List<Consumer<LongLongHashMap>> pendingWrites;
+
+        Index(String table) {
+            this.table = table;
+        }
+
+        <T> T read(Function<LongLongHashMap, T> reader) {
+            lock.readLock().lock();
+            try {
+                return reader.apply(map);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void write(Consumer<LongLongHashMap> writer) {
+            lock.writeLock().lock();
+            try {
+                writer.accept(map);
+                if (pendingWrites != null) pendingWrites.add(writer);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void startReload() {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Swaps in the rows read by a reload, with the updates made while they were read.
+         * Updates are puts and removes of single keys, so applying one the rows read already include is harmless.
+         */
+        void replace(LongLongHashMap loaded) {
+            lock.writeLock().lock();
+            try {
+                pendingWrites.forEach(writer -> writer.accept(loaded));
+                pendingWrites = null;
+                map = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            return read(LongLongHashMap::size);
+        }
+
+        long memoryBytes() {
+            return read(LongLongHashMap::getMemoryBytes);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.upsxace.tv_show_tracker.data_collector.ingest;
+
+import com.upsxace.tv_show_tracker.actor.entity.Actor;
+import com.upsxace.tv_show_tracker.data_collector.discovery.DiscoveredTvShow;
+import com.upsxace.tv_show_tracker.data_collector.index.TmdbIdIndex;
+import com.upsxace.tv_show_tracker.data_collector.dto.GenreDto;
+import com.upsxace.tv_show_tracker.data_collector.refresh.TvShowContentHash;
+import com.upsxace.tv_show_tracker.data_collector.storage.StorageBudgetService;
+import com.upsxace.tv_show_tracker.genre.GenreService;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk writer for TV shows fetched from TMDB, together with their seasons, genres, cast and credits.
+ * <p>
+ * Rows are streamed with {@code COPY} into session-local staging tables, then merged into the real tables
+ * with one set-based {@code INSERT ... SELECT} per table. A batch therefore costs a fixed number of round trips,
+ * whatever its size. Rows already stored (by TMDB ID) are left untouched through the unique TMDB ID constraints,
+ * so concurrent writers never insert the same row twice, and every credit stored before its TV show
+ * (discovered through an actor) is linked to it in one statement.
+ * <p>
+ * Must run inside a transaction, as staging tables are emptied on commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkIngestWriter {
+
+    private static final String CREATE_STAGING_TABLES = """
+            CREATE TEMP TABLE IF NOT EXISTS ingest_tv_shows (
+                tmdb_id bigint, name varchar, overview varchar, poster_url varchar, popularity double precision,
+                vote_average double precision, number_of_seasons int, number_of_episodes int,
+                first_air_date date, last_air_date date, in_production boolean, content_hash varchar
+            ) ON COMMIT DELETE ROWS;
+            CREATE TEMP TABLE IF NOT EXISTS ingest_seasons (
+                tv_show_tmdb_id bigint, tmdb_id bigint, season_number int, name varchar, episode_count int, air_date date
+            ) ON COMMIT DELETE ROWS;
+            CREATE TEMP TABLE IF NOT EXISTS ingest_genres (
+                tv_show_tmdb_id bigint, tmdb_id bigint, name varchar
+            ) ON COMMIT DELETE ROWS;
+            CREATE TEMP TABLE IF NOT EXISTS ingest_actors (
+                tmdb_id bigint, name varchar, popularity double precision, profile_url varchar
+            ) ON COMMIT DELETE ROWS;
+            CREATE TEMP TABLE IF NOT EXISTS ingest_actor_credits (
+                tmdb_id varchar, actor_tmdb_id bigint, tv_show_tmdb_id bigint, "character" varchar
+            ) ON COMMIT DELETE ROWS;
+            """;
+
+    private static final String MERGE_GENRES = """
+            INSERT INTO genres (tmdb_id, name)
+            SELECT DISTINCT ON (s.tmdb_id) s.tmdb_id, s.name
+            FROM ingest_genres s
+            ON CONFLICT (tmdb_id) DO NOTHING
+            """;
+
+    private static final String MERGE_TV_SHOWS = """
+            INSERT INTO tv_shows (tmdb_id, name, overview, poster_url, popularity, vote_average,
+                                  number_of_seasons, number_of_episodes, first_air_date, last_air_date, in_production,
+                                  content_hash)
+            SELECT DISTINCT ON (s.tmdb_id) s.tmdb_id, s.name, s.overview, s.poster_url, s.popularity, s.vote_average,
+                   s.number_of_seasons, s.number_of_episodes, s.first_air_date, s.last_air_date, s.in_production,
+                   s.content_hash
+            FROM ingest_tv_shows s
+            WHERE COALESCE(s.popularity, 0) >= ?
+            ON CONFLICT (tmdb_id) DO NOTHING
+            RETURNING tmdb_id, id
+            """;
+
+    private static final String MERGE_SEASONS = """
+            INSERT INTO seasons (tmdb_id, season_number, name, episode_count, air_date, tv_show_id)
+            SELECT s.tmdb_id, s.season_number, s.name, s.episode_count, s.air_date, t.id
+            FROM ingest_seasons s
+            JOIN tv_shows t ON t.tmdb_id = s.tv_show_tmdb_id
+            WHERE NOT EXISTS (
+                SELECT 1 FROM seasons x WHERE x.tv_show_id = t.id AND x.season_number = s.season_number
+            )
+            """;
+
+    private static final String MERGE_TV_SHOW_GENRES = """
+            INSERT INTO tv_show_genres (tv_show_id, genre_id)
+            SELECT DISTINCT t.id, g.id
+            FROM ingest_genres s
+            JOIN tv_shows t ON t.tmdb_id = s.tv_show_tmdb_id
+            JOIN genres g ON g.tmdb_id = s.tmdb_id
+            ON CONFLICT DO NOTHING
+            """;
+
+    /*
+     * Only the cast of TV shows stored is inserted, so TV shows left out under the popularity floor
+     * leave no orphan actors behind.
+     */
+    private static final String MERGE_ACTORS = """
+            INSERT INTO actors (tmdb_id, name, popularity, profile_url)
+            SELECT DISTINCT ON (s.tmdb_id) s.tmdb_id, s.name, s.popularity, s.profile_url
+            FROM ingest_actors s
+            WHERE EXISTS (
+                SELECT 1 FROM ingest_actor_credits c
+                JOIN tv_shows t ON t.tmdb_id = c.tv_show_tmdb_id
+                WHERE c.actor_tmdb_id = s.tmdb_id
+            )
+            ON CONFLICT (tmdb_id) DO NOTHING
+            RETURNING tmdb_id, id
+            """;
+
+    /*
+     * Links every credit stored before its TV show, e.g. through an actor's credits, to the TV shows of the batch.
+     * Matching by TV show rather than by the staged credits also covers actors outside the main cast.
+     */
+    private static final String LINK_DANGLING_CREDITS = """
+            UPDATE actor_credits c
+            SET tv_show_id = t.id
+            FROM (SELECT DISTINCT tmdb_id FROM ingest_tv_shows) s
+            JOIN tv_shows t ON t.tmdb_id = s.tmdb_id
+            WHERE c.tv_show_tmdb_id = s.tmdb_id AND c.tv_show_id IS NULL
+            """;
+
+    private static final String MERGE_ACTOR_CREDITS = """
+            INSERT INTO actor_credits (tmdb_id, actor_id, tv_show_id, tv_show_tmdb_id, "character")
+            SELECT DISTINCT ON (s.tmdb_id) s.tmdb_id, a.id, t.id, s.tv_show_tmdb_id, s."character"
+            FROM ingest_actor_credits s
+            JOIN actors a ON a.tmdb_id = s.actor_tmdb_id
+            JOIN tv_shows t ON t.tmdb_id = s.tv_show_tmdb_id
+            ON CONFLICT (tmdb_id) DO NOTHING
+            """;
+
+    /*
+     * Summaries of the TV shows stored, which their credits are shown with.
+     * A summary stored from an actor's credits is replaced by the fresher details of the TV show.
+     */
+    private static final String MERGE_TV_SHOW_SUMMARIES = """
+            INSERT INTO tv_show_summaries (tv_show_tmdb_id, name, overview, popularity, first_air_date)
+            SELECT DISTINCT ON (s.tmdb_id) s.tmdb_id, COALESCE(s.name, ''), s.overview, COALESCE(s.popularity, 0),
+                   s.first_air_date
+            FROM ingest_tv_shows s
+            WHERE EXISTS (SELECT 1 FROM tv_shows t WHERE t.tmdb_id = s.tmdb_id)
+            ON CONFLICT (tv_show_tmdb_id) DO UPDATE
+            SET name = excluded.name, overview = excluded.overview, popularity = excluded.popularity,
+                first_air_date = excluded.first_air_date
+            WHERE (tv_show_summaries.name, tv_show_summaries.overview, tv_show_summaries.popularity,
+                   tv_show_summaries.first_air_date)
+                  IS DISTINCT FROM (excluded.name, excluded.overview, excluded.popularity, excluded.first_air_date)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StorageBudgetService storageBudgetService;
+    private final GenreService genreService;
+    private final TmdbIdIndex tmdbIdIndex;
+
+    /**
+     * Stores TV shows that are not in the database yet, with their seasons, genres, cast and credits.
+     *
+     * TV shows less popular than the ones evicted to stay within the storage budget are left out,
+     * and the rows inserted are counted towards that budget.
+     *
+     * @param tvShows TV shows fetched from TMDB
+     * @return number of TV shows inserted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int write(List<DiscoveredTvShow> tvShows) {
+        if (tvShows.isEmpty()) return 0;
+
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (var statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLES);
+            }
+            copyToStaging(connection, tvShows);
+
+            int insertedGenres = jdbcTemplate.update(MERGE_GENRES);
+            var insertedTvShowIds = insertReturningIds(MERGE_TV_SHOWS, storageBudgetService.getPopularityFloor());
+            int insertedTvShows = insertedTvShowIds.size();
+            int insertedSeasons = jdbcTemplate.update(MERGE_SEASONS);
+            int insertedTvShowGenres = jdbcTemplate.update(MERGE_TV_SHOW_GENRES);
+            int mergedSummaries = jdbcTemplate.update(MERGE_TV_SHOW_SUMMARIES);
+            var insertedActorIds = insertReturningIds(MERGE_ACTORS);
+            int insertedActors = insertedActorIds.size();
+            int linkedCredits = jdbcTemplate.update(LINK_DANGLING_CREDITS);
+            int insertedCredits = jdbcTemplate.update(MERGE_ACTOR_CREDITS);
+
+            log.debug("Bulk ingested {} tv shows, {} seasons, {} genres, {} actors, {} credits ({} linked)",
+                    insertedTvShows, insertedSeasons, insertedGenres, insertedActors, insertedCredits, linkedCredits);
+            if (insertedGenres > 0) genreService.reloadAfterCommit();
+            tmdbIdIndex.recordTvShows(insertedTvShowIds);
+            tmdbIdIndex.recordActors(insertedActorIds);
+            storageBudgetService.recordInserted(Map.of(
+                    "tv_shows", insertedTvShows, "seasons", insertedSeasons, "tv_show_genres", insertedTvShowGenres,
+                    "actors", insertedActors, "actor_credits", insertedCredits, "tv_show_summaries", mergedSummaries
+            ));
+            return insertedTvShows;
+        });
+    }
+
+    /**
+     * Runs an insert returning the TMDB ID and database ID of each row inserted.
+     */
+    private Map<Long, Long> insertReturningIds(String sql, Object... args) {
+        Map<Long, Long> ids = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> ids.put(rs.getLong("tmdb_id"), rs.getLong("id")), args);
+        return ids;
+    }
+
+    private void copyToStaging(Connection connection, List<DiscoveredTvShow> tvShows) throws SQLException {
+        var copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        // Genres are linked by TMDB ID while merging, so the models are built without them
+        List<TvShow> models = tvShows.stream().map(t -> t.getDetails().toModel(List.of())).toList();
+
+        copy(copyManager.copyIn("COPY ingest_tv_shows FROM STDIN"), rows -> {
+            for (var model : models) {
+                rows.add(model.getTmdbId()).add(model.getName()).add(model.getOverview()).add(model.getPosterUrl())
+                        .add(model.getPopularity()).add(model.getVoteAverage()).add(model.getNumberOfSeasons())
+                        .add(model.getNumberOfEpisodes()).add(model.getFirstAirDate()).add(model.getLastAirDate())
+                        .add(model.getInProduction()).add(TvShowContentHash.of(model))
+                        .endRow();
+            }
+        });
+
+        copy(copyManager.copyIn("COPY ingest_seasons FROM STDIN"), rows -> {
+            for (var model : models) {
+                for (var season : model.getSeasons()) {
+                    rows.add(model.getTmdbId()).add(season.getTmdbId()).add(season.getSeasonNumber())
+                            .add(season.getName()).add(season.getEpisodeCount()).add(season.getAirDate())
+                            .endRow();
+                }
+            }
+        });
+
+        copy(copyManager.copyIn("COPY ingest_genres FROM STDIN"), rows -> {
+            for (var tvShow : tvShows) {
+                for (GenreDto genre : tvShow.getDetails().getGenres()) {
+                    rows.add(tvShow.getDetails().getId()).add(genre.getId()).add(genre.getName()).endRow();
+                }
+            }
+        });
+
+        copy(copyManager.copyIn("COPY ingest_actors FROM STDIN"), rows -> {
+            for (var tvShow : tvShows) {
+                for (var actorInCast : tvShow.getCast()) {
+                    Actor actor = actorInCast.toActorModel();
+                    rows.add(actor.getTmdbId()).add(actor.getName()).add(actor.getPopularity())
+                            .add(actor.getProfileUrl())
+                            .endRow();
+                }
+            }
+        });
+
+        copy(copyManager.copyIn("COPY ingest_actor_credits FROM STDIN"), rows -> {
+            for (int i = 0; i < tvShows.size(); i++) {
+                var model = models.get(i);
+                for (var actorInCast : tvShows.get(i).getCast()) {
+                    var credit = actorInCast.toActorCreditModel(model, null);
+                    rows.add(credit.getTmdbId()).add(actorInCast.getId()).add(credit.getTvShowTmdbId())
+                            .add(credit.getCharacter())
+                            .endRow();
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowsWriter {
+        void write(CopyRows rows) throws SQLException;
+    }
+
+    private static void copy(CopyIn copyIn, RowsWriter writer) throws SQLException {
+        try {
+            var rows = new CopyRows(copyIn);
+            writer.write(rows);
+            rows.finish();
+        } finally {
+            if (copyIn.isActive()) copyIn.cancelCopy();
+        }
+    }
+}
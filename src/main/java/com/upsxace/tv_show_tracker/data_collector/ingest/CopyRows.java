@@ -0,0 +1,78 @@
+package com.upsxace.tv_show_tracker.data_collector.ingest;
+
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Encodes rows in the text format of PostgreSQL's {@code COPY ... FROM STDIN}, streaming them
+ * to the server in chunks instead of building the whole table in memory.
+ */
+class CopyRows {
+
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder();
+    private boolean rowStarted;
+    private long rows;
+
+    CopyRows(CopyIn copyIn) {
+        this.copyIn = copyIn;
+    }
+
+    /**
+     * Appends a column to the current row. Null values are written as {@code \N}.
+     */
+    CopyRows add(Object value) {
+        if (rowStarted) buffer.append('\t');
+        rowStarted = true;
+
+        if (value == null) {
+            buffer.append("\\N");
+            return this;
+        }
+
+        var text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Ends the current row.
+     */
+    void endRow() throws SQLException {
+        buffer.append('\n');
+        rowStarted = false;
+        rows++;
+        if (buffer.length() >= FLUSH_THRESHOLD) flush();
+    }
+
+    /**
+     * Sends the remaining rows and completes the copy.
+     *
+     * @return number of rows copied
+     */
+    long finish() throws SQLException {
+        flush();
+        copyIn.endCopy();
+        return rows;
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.isEmpty()) return;
+        var bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
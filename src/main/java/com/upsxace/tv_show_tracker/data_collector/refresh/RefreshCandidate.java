@@ -0,0 +1,15 @@
+package com.upsxace.tv_show_tracker.data_collector.refresh;
+
+import lombok.Data;
+
+/**
+ * TV show claimed to be refreshed, with the hash of its content and its metrics as stored.
+ */
+@Data
+public class RefreshCandidate {
+    private final Long id;
+    private final Long tmdbId;
+    private final String contentHash;
+    private final Double popularity;
+    private final Double voteAverage;
+}
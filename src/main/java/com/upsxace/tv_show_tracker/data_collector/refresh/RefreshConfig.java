@@ -0,0 +1,22 @@
+package com.upsxace.tv_show_tracker.data_collector.refresh;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.refresh")
+@Data
+public class RefreshConfig {
+    private boolean enabled = true;
+    /** TV shows re-fetched on every run of the refresh */
+    private int batchSize = 100;
+    /** Age after which a TV show is refreshed even if the changes feed did not report it */
+    private Duration staleAfter = Duration.ofDays(7);
+    /** Weight of each user favorite in the staleness score of a TV show */
+    private double favoriteWeight = 1.0;
+    /** Time a node holds the TV shows it claimed before other nodes may take them over */
+    private Duration claimDuration = Duration.ofMinutes(10);
+}
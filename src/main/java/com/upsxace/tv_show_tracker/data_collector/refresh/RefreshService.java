@@ -0,0 +1,161 @@
+package com.upsxace.tv_show_tracker.data_collector.refresh;
+
+import com.upsxace.tv_show_tracker.common.app_property.AppPropertyService;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvChangeDto;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvShowDetailsDto;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbClient;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkQueueService;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Keeps the TV shows already in the database up to date with TMDB.
+ * <p>
+ * Once a day, TMDB's {@code /tv/changes} feed marks the TV shows changed since the last check, which are refreshed
+ * first. Then the stalest TV shows are refreshed, weighted by popularity and user favorites, so the catalog stays
+ * fresh without re-crawling it. Refreshed payloads are hashed and compared with the stored hash:
+ * TV shows whose content did not change cost a single batched update of their refresh time, or of their popularity
+ * and vote average when only those changed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshService {
+
+    /** TMDB serves changes of at most the last 14 days */
+    private static final int MAX_CHANGES_DAYS = 14;
+
+    private final TmdbClient tmdbClient;
+    private final TvShowRefreshWriter tvShowRefreshWriter;
+    private final AppPropertyService appPropertyService;
+    private final RefreshConfig refreshConfig;
+    private final MeterRegistry meterRegistry;
+
+    private Counter changedCounter;
+    private Counter metricsCounter;
+    private Counter unchangedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        changedCounter = meterRegistry.counter("catalog.refresh.tv-shows", "result", "changed");
+        metricsCounter = meterRegistry.counter("catalog.refresh.tv-shows", "result", "metrics-changed");
+        unchangedCounter = meterRegistry.counter("catalog.refresh.tv-shows", "result", "unchanged");
+        failedCounter = meterRegistry.counter("catalog.refresh.tv-shows", "result", "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${app.refresh.interval:PT1M}")
+    public void backgroundTasks() {
+        if (!refreshConfig.isEnabled()) return;
+
+        try {
+            pollChanges();
+            refreshStale();
+        } catch (Exception e) {
+            log.error("An error occurred while refreshing the catalog", e);
+        }
+    }
+
+    /**
+     * Marks the TV shows reported by the TMDB changes feed since the last check, if not checked today yet.
+     *
+     * @return number of TV shows in the database marked for refresh
+     */
+    public int pollChanges() {
+        var today = LocalDate.now();
+        var lastChecked = appPropertyService.readProperty("tmdb:changes-checked-at").map(LocalDate::parse);
+        if (lastChecked.isPresent() && !lastChecked.get().isBefore(today)) return 0;
+
+        var oldest = today.minusDays(MAX_CHANGES_DAYS - 1);
+        // The first check only covers today, older changes are caught up by staleness
+        var startDate = lastChecked.map(d -> d.isBefore(oldest) ? oldest : d).orElse(today);
+
+        var changedIds = new HashSet<Long>();
+        int totalPages = 1;
+        for (int page = 1; page <= totalPages; page++) {
+            var response = tmdbClient.getTvChanges(startDate, today, page);
+            if (response == null || response.getResults() == null) break;
+            response.getResults().stream().map(TvChangeDto::getId).filter(Objects::nonNull).forEach(changedIds::add);
+            totalPages = response.getTotal_pages() == null ? 1 : response.getTotal_pages();
+        }
+
+        int requested = tvShowRefreshWriter.requestRefresh(changedIds);
+        appPropertyService.upsertProperty("tmdb:changes-checked-at", today.toString());
+        log.info("TMDB reported {} tv shows changed since {}: {} to refresh", changedIds.size(), startDate, requested);
+        return requested;
+    }
+
+    /**
+     * Re-fetches a batch of the TV shows most in need of a refresh, and writes the ones that changed.
+     * TV shows that failed stay claimed until the claim expires, then they are retried, unless the failure is permanent
+     * (see {@link WorkQueueService#isPermanent}): those are marked refreshed, so they are retried once stale again.
+     *
+     * @return number of TV shows written
+     */
+    public int refreshStale() {
+        var candidates = tvShowRefreshWriter.claimStale(
+                refreshConfig.getBatchSize(), refreshConfig.getStaleAfter(), refreshConfig.getFavoriteWeight(),
+                refreshConfig.getClaimDuration()
+        );
+        if (candidates.isEmpty()) return 0;
+
+        var details = candidates.stream()
+                .map(c -> tmdbClient.revalidateTvShowDetailsAsync(c.getTmdbId()))
+                .toList();
+
+        List<TvShow> changed = new ArrayList<>();
+        List<TvShow> metricsChanged = new ArrayList<>();
+        List<Long> unchanged = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            var candidate = candidates.get(i);
+            try {
+                var tvShow = toModel(candidate, details.get(i).join());
+                if (!tvShow.getContentHash().equals(candidate.getContentHash())) {
+                    changed.add(tvShow);
+                } else if (!Objects.equals(tvShow.getPopularity(), candidate.getPopularity())
+                        || !Objects.equals(tvShow.getVoteAverage(), candidate.getVoteAverage())) {
+                    metricsChanged.add(tvShow);
+                    metricsCounter.increment();
+                } else {
+                    unchanged.add(candidate.getId());
+                    unchangedCounter.increment();
+                }
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                log.warn("Failed to refresh tv show {}", candidate.getTmdbId(), e);
+                var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                // Failures that no retry can fix, e.g. a show removed from TMDB, wait until the show is stale again
+                if (WorkQueueService.isPermanent(cause)) unchanged.add(candidate.getId());
+            }
+        }
+
+        tvShowRefreshWriter.write(changed);
+        tvShowRefreshWriter.writeMetrics(metricsChanged);
+        tvShowRefreshWriter.markRefreshed(unchanged);
+        changedCounter.increment(changed.size());
+        log.info("Refreshed {} tv shows: {} changed, {} with new metrics only",
+                candidates.size(), changed.size(), metricsChanged.size());
+        return changed.size();
+    }
+
+    private static TvShow toModel(RefreshCandidate candidate, TvShowDetailsDto details) {
+        if (details == null) throw new IllegalArgumentException("TMDB returned no details");
+        var tvShow = details.toModel(List.of());
+        tvShow.setId(candidate.getId());
+        tvShow.setContentHash(TvShowContentHash.of(tvShow));
+        return tvShow;
+    }
+}
@@ -0,0 +1,53 @@
+package com.upsxace.tv_show_tracker.data_collector.refresh;
+
+import com.upsxace.tv_show_tracker.tv_show.entity.Season;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 hash of the TV show fields kept up to date by the catalog refresh, seasons included.
+ * Fields TMDB returns but the database does not store are left out, so they never cause a write.
+ * Popularity and vote average change on almost every fetch, so they are left out too and compared on their own.
+ */
+public class TvShowContentHash {
+
+    private TvShowContentHash() {
+    }
+
+    public static String of(TvShow tvShow) {
+        var content = new StringBuilder();
+        append(content, tvShow.getName(), tvShow.getOverview(), tvShow.getPosterUrl(), tvShow.getNumberOfSeasons(), tvShow.getNumberOfEpisodes(),
+                tvShow.getFirstAirDate(), tvShow.getLastAirDate(), tvShow.getInProduction());
+
+        var seasons = tvShow.getSeasons() == null ? List.<Season>of() : tvShow.getSeasons().stream()
+                .sorted(Comparator.comparing(Season::getSeasonNumber, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+        for (var season : seasons) {
+            append(content, season.getTmdbId(), season.getSeasonNumber(), season.getName(), season.getEpisodeCount(),
+                    season.getAirDate());
+        }
+
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Appends values separated by a character that cannot appear in them, so different values never collide.
+     */
+    private static void append(StringBuilder content, Object... values) {
+        for (var value : values) {
+            content.append(value == null ? "\u0000null" : value.toString()).append('\u001f');
+        }
+        content.append('\u001e');
+    }
+}
@@ -0,0 +1,180 @@
+package com.upsxace.tv_show_tracker.data_collector.refresh;
+
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Database side of the catalog refresh: picks the stalest TV shows and writes back the ones that changed.
+ */
+@Component
+@RequiredArgsConstructor
+public class TvShowRefreshWriter {
+
+    /*
+     * Shows reported by the changes feed come first, then the stalest ones by
+     * age in days * (1 + ln(1 + popularity)) * (1 + favorites * favorite weight).
+     * Claimed shows are skipped by other nodes until the claim expires, so a failed refresh is retried later.
+     */
+    private static final String CLAIM_STALE = """
+            UPDATE tv_shows t
+            SET refresh_claimed_until = now() + make_interval(secs => ?)
+            FROM (
+                SELECT s.id
+                FROM tv_shows s
+                LEFT JOIN (
+                    SELECT tv_show_id, count(*) AS favorites FROM user_favorite_tv_shows GROUP BY tv_show_id
+                ) f ON f.tv_show_id = s.id
+                WHERE (s.refreshed_at < now() - make_interval(secs => ?) OR s.refresh_requested_at > s.refreshed_at)
+                  AND (s.refresh_claimed_until IS NULL OR s.refresh_claimed_until < now())
+                ORDER BY (s.refresh_requested_at > s.refreshed_at) IS TRUE DESC,
+                         EXTRACT(EPOCH FROM now() - s.refreshed_at) / 86400
+                             * (1 + ln(1 + GREATEST(COALESCE(s.popularity, 0), 0)))
+                             * (1 + COALESCE(f.favorites, 0) * ?) DESC
+                LIMIT ?
+                FOR UPDATE OF s SKIP LOCKED
+            ) c
+            WHERE t.id = c.id
+            RETURNING t.id, t.tmdb_id, t.content_hash, t.popularity, t.vote_average
+            """;
+
+    private static final String UPDATE_TV_SHOW = """
+            UPDATE tv_shows
+            SET name = ?, overview = ?, poster_url = ?, popularity = ?, vote_average = ?, number_of_seasons = ?,
+                number_of_episodes = ?, first_air_date = ?, last_air_date = ?, in_production = ?, content_hash = ?,
+                refreshed_at = now(), refresh_claimed_until = NULL
+            WHERE id = ?
+            """;
+
+    private static final String UPDATE_METRICS = """
+            UPDATE tv_shows SET popularity = ?, vote_average = ?, refreshed_at = now(), refresh_claimed_until = NULL
+            WHERE id = ?
+            """;
+
+    private static final String UPDATE_SUMMARY_POPULARITY =
+            "UPDATE tv_show_summaries SET popularity = COALESCE(?, 0) WHERE tv_show_tmdb_id = ?";
+
+    private static final String UPDATE_SEASON = """
+            UPDATE seasons SET tmdb_id = ?, name = ?, episode_count = ?, air_date = ?
+            WHERE tv_show_id = ? AND season_number = ?
+            """;
+
+    private static final String INSERT_SEASON = """
+            INSERT INTO seasons (tmdb_id, season_number, name, episode_count, air_date, tv_show_id)
+            SELECT ?, ?, ?, ?, ?, ?
+            WHERE NOT EXISTS (SELECT 1 FROM seasons WHERE tv_show_id = ? AND season_number = ?)
+            """;
+
+    private static final String UPDATE_SUMMARY = """
+            UPDATE tv_show_summaries SET name = COALESCE(?, ''), overview = ?, popularity = COALESCE(?, 0), first_air_date = ?
+            WHERE tv_show_tmdb_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Claims the TV shows most in need of a refresh.
+     *
+     * @param limit          maximum number of TV shows claimed
+     * @param staleAfter     age after which a TV show is stale
+     * @param favoriteWeight weight of each user favorite in the staleness score
+     * @param claimDuration  time other nodes skip the TV shows claimed
+     */
+    public List<RefreshCandidate> claimStale(int limit, Duration staleAfter, double favoriteWeight,
+                                             Duration claimDuration) {
+        return jdbcTemplate.query(
+                CLAIM_STALE,
+                (rs, i) -> new RefreshCandidate(
+                        rs.getLong("id"), rs.getLong("tmdb_id"), rs.getString("content_hash"),
+                        rs.getObject("popularity", Double.class), rs.getObject("vote_average", Double.class)
+                ),
+                claimDuration.toSeconds(), staleAfter.toSeconds(), favoriteWeight, limit
+        );
+    }
+
+    /**
+     * Marks the TV shows reported as changed by TMDB, so they are refreshed first.
+     *
+     * @return number of TV shows in the database among them
+     */
+    public int requestRefresh(Collection<Long> tmdbIds) {
+        if (tmdbIds.isEmpty()) return 0;
+        return jdbcTemplate.update(
+                "UPDATE tv_shows SET refresh_requested_at = now() WHERE tmdb_id = ANY(?)",
+                (Object) tmdbIds.toArray(Long[]::new)
+        );
+    }
+
+    /**
+     * Marks TV shows refreshed without writing their content, which did not change, and ends their claim.
+     */
+    public void markRefreshed(Collection<Long> tvShowIds) {
+        if (tvShowIds.isEmpty()) return;
+        jdbcTemplate.update(
+                "UPDATE tv_shows SET refreshed_at = now(), refresh_claimed_until = NULL WHERE id = ANY(?)",
+                (Object) tvShowIds.toArray(Long[]::new)
+        );
+    }
+
+    /**
+     * Writes the popularity and vote average of TV shows whose content did not change but whose metrics did,
+     * and the popularity of their summary. Marks them refreshed and ends their claim.
+     *
+     * @param tvShows refreshed TV shows, with the database ID set
+     */
+    @Transactional
+    public void writeMetrics(List<TvShow> tvShows) {
+        if (tvShows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(UPDATE_METRICS, tvShows.stream().map(t -> new Object[]{
+                t.getPopularity(), t.getVoteAverage(), t.getId()
+        }).toList());
+        jdbcTemplate.batchUpdate(UPDATE_SUMMARY_POPULARITY, tvShows.stream().map(t -> new Object[]{
+                t.getPopularity(), t.getTmdbId()
+        }).toList());
+    }
+
+    /**
+     * Writes the refreshed fields and seasons of TV shows whose content changed, and the summary
+     * their credits are shown with. Marks them refreshed and ends their claim.
+     *
+     * @param tvShows refreshed TV shows, with the database ID set and the content hash computed
+     */
+    @Transactional
+    public void write(List<TvShow> tvShows) {
+        if (tvShows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(UPDATE_TV_SHOW, tvShows.stream().map(t -> new Object[]{
+                t.getName(), t.getOverview(), t.getPosterUrl(), t.getPopularity(), t.getVoteAverage(),
+                t.getNumberOfSeasons(), t.getNumberOfEpisodes(), t.getFirstAirDate(), t.getLastAirDate(),
+                t.getInProduction(), t.getContentHash(), t.getId()
+        }).toList());
+        jdbcTemplate.batchUpdate(UPDATE_SUMMARY, tvShows.stream().map(t -> new Object[]{
+                t.getName(), t.getOverview(), t.getPopularity(), t.getFirstAirDate(), t.getTmdbId()
+        }).toList());
+
+        List<Object[]> seasonUpdates = new ArrayList<>();
+        List<Object[]> seasonInserts = new ArrayList<>();
+        for (var tvShow : tvShows) {
+            for (var season : tvShow.getSeasons()) {
+                seasonUpdates.add(new Object[]{
+                        season.getTmdbId(), season.getName(), season.getEpisodeCount(), season.getAirDate(),
+                        tvShow.getId(), season.getSeasonNumber()
+                });
+                seasonInserts.add(new Object[]{
+                        season.getTmdbId(), season.getSeasonNumber(), season.getName(), season.getEpisodeCount(),
+                        season.getAirDate(), tvShow.getId(), tvShow.getId(), season.getSeasonNumber()
+                });
+            }
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SEASON, seasonUpdates);
+        jdbcTemplate.batchUpdate(INSERT_SEASON, seasonInserts);
+    }
+}
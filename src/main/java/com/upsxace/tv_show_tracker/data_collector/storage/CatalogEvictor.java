@@ -0,0 +1,106 @@
+package com.upsxace.tv_show_tracker.data_collector.storage;
+
+import com.upsxace.tv_show_tracker.data_collector.index.TmdbIdIndex;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deletes the coldest TV shows of the catalog, together with their seasons, genres, credits and summary.
+ * TV shows favorited by a user are never evicted.
+ * <p>
+ * Actors left without credits are evicted with them. The others lose the credits in the TV shows evicted,
+ * so their credits are marked undiscovered and fetched again the next time they are read.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogEvictor {
+
+    private static final String SELECT_COLDEST = """
+            SELECT t.id, t.tmdb_id, t.popularity
+            FROM tv_shows t
+            WHERE NOT EXISTS (SELECT 1 FROM user_favorite_tv_shows f WHERE f.tv_show_id = t.id)
+            ORDER BY t.popularity, t.id
+            LIMIT ?
+            FOR UPDATE OF t SKIP LOCKED
+            """;
+
+    private static final String DELETE_UNUSED_SUMMARIES = """
+            DELETE FROM tv_show_summaries s
+            WHERE s.tv_show_tmdb_id = ANY(?)
+              AND NOT EXISTS (SELECT 1 FROM actor_credits c WHERE c.tv_show_tmdb_id = s.tv_show_tmdb_id)
+            """;
+
+    private static final String DELETE_UNCREDITED_ACTORS = """
+            DELETE FROM actors a
+            WHERE a.id = ANY(?)
+              AND NOT EXISTS (SELECT 1 FROM actor_credits c WHERE c.actor_id = a.id)
+            RETURNING a.tmdb_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TmdbIdIndex tmdbIdIndex;
+
+    /**
+     * Evicts the least popular TV shows that no user favorited.
+     *
+     * @param limit maximum number of TV shows evicted
+     * @return the rows deleted, and the popularity of the most popular TV show evicted
+     */
+    @Transactional
+    public Eviction evictColdest(int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        List<Long> tmdbIds = new ArrayList<>(limit);
+        double maxPopularity = 0;
+        for (var row : jdbcTemplate.queryForList(SELECT_COLDEST, limit)) {
+            ids.add(((Number) row.get("id")).longValue());
+            tmdbIds.add(((Number) row.get("tmdb_id")).longValue());
+            if (row.get("popularity") instanceof Number popularity) {
+                maxPopularity = Math.max(maxPopularity, popularity.doubleValue());
+            }
+        }
+        if (ids.isEmpty()) return new Eviction(Map.of(), 0);
+
+        Object idArray = ids.toArray(Long[]::new);
+        Object actorIdArray = jdbcTemplate.queryForList(
+                "SELECT DISTINCT actor_id FROM actor_credits WHERE tv_show_id = ANY(?)", Long.class, idArray
+        ).toArray(Long[]::new);
+
+        Map<String, Integer> deletedRows = new LinkedHashMap<>();
+        deletedRows.put("actor_credits", jdbcTemplate.update("DELETE FROM actor_credits WHERE tv_show_id = ANY(?)", idArray));
+        var actorTmdbIds = jdbcTemplate.queryForList(DELETE_UNCREDITED_ACTORS, Long.class, actorIdArray);
+        deletedRows.put("actors", actorTmdbIds.size());
+        jdbcTemplate.update(
+                "UPDATE actors SET credits_discovered = false WHERE id = ANY(?) AND credits_discovered", actorIdArray
+        );
+        deletedRows.put("seasons", jdbcTemplate.update("DELETE FROM seasons WHERE tv_show_id = ANY(?)", idArray));
+        deletedRows.put("tv_show_genres", jdbcTemplate.update("DELETE FROM tv_show_genres WHERE tv_show_id = ANY(?)", idArray));
+        deletedRows.put("tv_shows", jdbcTemplate.update("DELETE FROM tv_shows WHERE id = ANY(?)", idArray));
+        // Summaries still shown with credits of other actors, not linked to the TV show, are kept
+        deletedRows.put("tv_show_summaries", jdbcTemplate.update(DELETE_UNUSED_SUMMARIES, (Object) tmdbIds.toArray(Long[]::new)));
+        tmdbIdIndex.removeTvShows(tmdbIds);
+        tmdbIdIndex.removeActors(actorTmdbIds);
+        return new Eviction(deletedRows, maxPopularity);
+    }
+
+    /**
+     * Outcome of an eviction batch.
+     */
+    @Data
+    public static class Eviction {
+        /** Rows deleted per table */
+        private final Map<String, Integer> deletedRows;
+        private final double maxPopularity;
+
+        public int getTvShowsEvicted() {
+            return deletedRows.getOrDefault("tv_shows", 0);
+        }
+    }
+}
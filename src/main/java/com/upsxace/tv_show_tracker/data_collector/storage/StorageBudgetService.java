@@ -0,0 +1,242 @@
+package com.upsxace.tv_show_tracker.data_collector.storage;
+
+import com.upsxace.tv_show_tracker.common.app_property.AppPropertyService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the database within its maximum size ({@code app.db.max-size}) by holding the most valuable part
+ * of the catalog, instead of freezing it at whatever was collected first.
+ * <p>
+ * The footprint of every catalog table is measured every {@code app.storage.sample-interval}, and kept up to date
+ * in between with the rows the bulk writer inserts and the rows evicted, so checking the budget costs no query.
+ * Once the budget is reached, the least popular TV shows no user favorited are evicted in batches, down to
+ * {@code app.storage.low-water-mark} of the budget. From then on, TV shows less popular than the ones evicted
+ * are not stored, so collection does not keep storing TV shows that would be evicted right away. The floor is
+ * released once the database falls under {@code app.storage.floor-release-mark} of the budget, e.g. as the budget
+ * was raised.
+ * <p>
+ * Deleting rows does not shrink a table: their space is reused by later inserts. The rows evicted are therefore
+ * counted as reusable space of their table until inserts fill it again, so measuring a vacuumed table does not
+ * spread its whole size over the rows left. The reusable rows and the popularity floor are stored as
+ * application properties, so they survive restarts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageBudgetService {
+
+    static final List<String> CATALOG_TABLES = List.of(
+            "tv_shows", "seasons", "tv_show_genres", "actors", "actor_credits", "tv_show_summaries"
+    );
+
+    /*
+     * Dead rows are counted with the live ones, as their space is reused by later inserts.
+     * Rows deleted and already vacuumed are added from the reusable rows tracked.
+     */
+    private static final String MEASURE_TABLES = """
+            SELECT c.relname AS table_name, pg_total_relation_size(c.oid) AS bytes,
+                   COALESCE(s.n_live_tup, 0) AS live_rows, COALESCE(s.n_live_tup + s.n_dead_tup, 0) AS all_rows
+            FROM pg_class c
+            LEFT JOIN pg_stat_user_tables s ON s.relid = c.oid
+            WHERE c.relnamespace = 'public'::regnamespace AND c.relkind = 'r' AND c.relname = ANY(?)
+            """;
+
+    static final String POPULARITY_FLOOR_PROPERTY = "storage:popularity-floor";
+    static final String REUSABLE_ROWS_PROPERTY = "storage:reusable-rows";
+
+    @Value("${app.db.max-size}")
+    private Integer dbMaxSizeMb;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogEvictor catalogEvictor;
+    private final StorageConfig storageConfig;
+    private final AppPropertyService appPropertyService;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TableFootprint> footprints = new ConcurrentHashMap<>();
+    private Counter evictedCounter;
+    /** Bytes used by everything but the catalog tables, including the space they do not use anymore */
+    private volatile long otherBytes;
+    private volatile long sampledAt;
+    private volatile boolean sampled;
+    private volatile double popularityFloor;
+
+    @PostConstruct
+    public void init() {
+        evictedCounter = meterRegistry.counter("catalog.storage.evicted.tv-shows");
+    }
+
+    /**
+     * Measures the footprint of every catalog table, and of the rest of the database.
+     */
+    public synchronized void sample() {
+        Map<String, Long> reusableRows = sampled ? currentReusableRows() : restoreState();
+
+        long catalogBytes = 0;
+        for (var row : jdbcTemplate.queryForList(MEASURE_TABLES, (Object) CATALOG_TABLES.toArray(String[]::new))) {
+            var table = (String) row.get("table_name");
+            long bytes = ((Number) row.get("bytes")).longValue();
+            long liveRows = ((Number) row.get("live_rows")).longValue();
+            long deadRows = ((Number) row.get("all_rows")).longValue() - liveRows;
+            long reusable = reusableRows.getOrDefault(table, 0L);
+            long slots = liveRows + Math.max(deadRows, reusable);
+
+            var footprint = new TableFootprint(table, slots == 0 ? 0 : (double) bytes / slots);
+            footprint.setRows(liveRows);
+            footprint.setReusableRows(reusable);
+            if (footprints.put(table, footprint) == null) {
+                Gauge.builder("catalog.storage.bytes", () -> footprints.get(table).getBytes())
+                        .description("Estimated storage used by a catalog table")
+                        .tag("table", table)
+                        .register(meterRegistry);
+            }
+            catalogBytes += bytes;
+        }
+
+        var databaseBytes = jdbcTemplate.queryForObject("SELECT pg_database_size(current_database())", Long.class);
+        otherBytes = Math.max(0, (databaseBytes == null ? 0 : databaseBytes) - catalogBytes);
+        sampledAt = System.nanoTime();
+        sampled = true;
+        storeReusableRows();
+    }
+
+    private Map<String, Long> currentReusableRows() {
+        Map<String, Long> reusableRows = new HashMap<>();
+        footprints.forEach((table, footprint) -> reusableRows.put(table, footprint.getReusableRows()));
+        return reusableRows;
+    }
+
+    /**
+     * Reads the popularity floor and the reusable rows stored before the last restart.
+     *
+     * @return reusable rows per table
+     */
+    private Map<String, Long> restoreState() {
+        popularityFloor = appPropertyService.readProperty(POPULARITY_FLOOR_PROPERTY).map(Double::parseDouble).orElse(0.0);
+
+        Map<String, Long> reusableRows = new HashMap<>();
+        appPropertyService.readProperty(REUSABLE_ROWS_PROPERTY).ifPresent(value -> {
+            for (var entry : value.split(",")) {
+                var parts = entry.split("=");
+                if (parts.length == 2) reusableRows.put(parts[0], Long.parseLong(parts[1]));
+            }
+        });
+        return reusableRows;
+    }
+
+    private void storeReusableRows() {
+        appPropertyService.upsertProperty(REUSABLE_ROWS_PROPERTY, footprints.values().stream()
+                .filter(f -> f.getReusableRows() > 0)
+                .map(f -> f.getTable() + "=" + f.getReusableRows())
+                .collect(Collectors.joining(",")));
+    }
+
+    /**
+     * Estimated storage used by the database, in bytes.
+     */
+    public long getEstimatedBytes() {
+        return otherBytes + footprints.values().stream().mapToLong(TableFootprint::getBytes).sum();
+    }
+
+    public long getBudgetBytes() {
+        return dbMaxSizeMb * 1024L * 1024L;
+    }
+
+    /**
+     * Popularity under which TV shows are not stored, as they are less popular than TV shows already evicted.
+     */
+    public double getPopularityFloor() {
+        return popularityFloor;
+    }
+
+    /**
+     * Counts rows inserted into catalog tables, once the transaction inserting them commits.
+     *
+     * @param insertedRows rows inserted per table
+     */
+    public void recordInserted(Map<String, Integer> insertedRows) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addRows(insertedRows, 1);
+                }
+            });
+        } else {
+            addRows(insertedRows, 1);
+        }
+    }
+
+    /**
+     * Counts rows inserted or deleted. Inserted rows fill the reusable space first, deleted rows leave some.
+     */
+    private void addRows(Map<String, Integer> rows, int sign) {
+        rows.forEach((table, count) -> {
+            var footprint = footprints.get(table);
+            if (footprint != null) {
+                synchronized (footprint) {
+                    footprint.setRows(Math.max(0, footprint.getRows() + sign * (long) count));
+                    footprint.setReusableRows(Math.max(0, footprint.getReusableRows() - sign * (long) count));
+                }
+            }
+        });
+    }
+
+    /**
+     * Whether collection can store more TV shows. Once the budget is reached, cold TV shows are evicted first.
+     *
+     * @return false if the budget is reached and nothing can be evicted, or eviction is disabled
+     */
+    public synchronized boolean hasRoom() {
+        boolean sampleDue = System.nanoTime() - sampledAt >= storageConfig.getSampleInterval().toNanos();
+        // An empty table cannot tell the size of its rows, so it is measured again once it has some
+        boolean rowSizeUnknown = footprints.values().stream().anyMatch(f -> f.getBytesPerRow() == 0 && f.getRows() > 0);
+        if (!sampled || sampleDue || rowSizeUnknown) sample();
+
+        long budget = getBudgetBytes();
+        if (popularityFloor > 0 && getEstimatedBytes() < budget * storageConfig.getFloorReleaseMark()) {
+            log.info("Storage is under {}% of its budget: storing tv shows of any popularity again",
+                    Math.round(storageConfig.getFloorReleaseMark() * 100));
+            popularityFloor = 0;
+            appPropertyService.upsertProperty(POPULARITY_FLOOR_PROPERTY, "0");
+        }
+        if (getEstimatedBytes() < budget) return true;
+        if (!storageConfig.isEvictionEnabled()) return false;
+
+        long target = Math.round(budget * storageConfig.getLowWaterMark());
+        int evicted = 0;
+        while (getEstimatedBytes() > target) {
+            var eviction = catalogEvictor.evictColdest(Math.max(1, storageConfig.getEvictionBatchSize()));
+            if (eviction.getTvShowsEvicted() == 0) break;
+
+            addRows(eviction.getDeletedRows(), -1);
+            popularityFloor = Math.max(popularityFloor, eviction.getMaxPopularity());
+            evicted += eviction.getTvShowsEvicted();
+        }
+        evictedCounter.increment(evicted);
+        if (evicted > 0) {
+            appPropertyService.upsertProperty(POPULARITY_FLOOR_PROPERTY, Double.toString(popularityFloor));
+            storeReusableRows();
+        }
+        log.info("Storage budget of {} MB reached: evicted {} tv shows, storing tv shows more popular than {}",
+                dbMaxSizeMb, evicted, popularityFloor);
+
+        return getEstimatedBytes() < budget;
+    }
+}
@@ -0,0 +1,23 @@
+package com.upsxace.tv_show_tracker.data_collector.storage;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.storage")
+@Data
+public class StorageConfig {
+    /** Whether to evict cold TV shows once the database reaches its maximum size, instead of stopping collection */
+    private boolean evictionEnabled = true;
+    /** TV shows deleted per eviction transaction */
+    private int evictionBatchSize = 200;
+    /** Share of the maximum size eviction brings the database down to, so it does not run on every page */
+    private double lowWaterMark = 0.95;
+    /** Share of the maximum size under which TV shows less popular than the ones evicted are stored again */
+    private double floorReleaseMark = 0.85;
+    /** Time after which table sizes are measured again, correcting the incremental estimate */
+    private Duration sampleInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,23 @@
+package com.upsxace.tv_show_tracker.data_collector.storage;
+
+import lombok.Data;
+
+/**
+ * Storage used by a catalog table: measured on every sample, then kept up to date with the rows written and evicted.
+ */
+@Data
+public class TableFootprint {
+    private final String table;
+    /** Bytes per row, indexes and TOAST included, when last measured; 0 if the table was empty */
+    private final double bytesPerRow;
+    private long rows;
+    /**
+     * Rows deleted whose space is left for inserts to reuse. It is still counted by the size of the table,
+     * even once vacuum stops reporting the rows as dead, so it is tracked until inserts fill it again.
+     */
+    private long reusableRows;
+
+    public long getBytes() {
+        return Math.round(rows * bytesPerRow);
+    }
+}
@@ -0,0 +1,58 @@
+package com.upsxace.tv_show_tracker.data_collector.work_queue;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Discovery work that failed and is waiting to be retried. Work that succeeds is deleted.
+ */
+@Entity
+@Table(name = "discovery_work_items")
+@Getter @Setter
+@Builder @NoArgsConstructor @AllArgsConstructor
+public class WorkItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "discovery_work_items_id_seq")
+    @SequenceGenerator(name = "discovery_work_items_id_seq", sequenceName = "discovery_work_items_id_seq", allocationSize = 50)
+    @Column
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column
+    private WorkItemType type;
+
+    /** Discover filter of the slice of a discover page, empty for other work */
+    @Column
+    @Builder.Default
+    private String slice = "";
+
+    /** TMDB ID of the TV show or actor, or the page number of a discover page */
+    @Column
+    private Long tmdbId;
+
+    @Enumerated(EnumType.STRING)
+    @Column
+    private WorkItemStatus status;
+
+    @Column
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column
+    private LocalDateTime nextAttemptAt;
+
+    @Column
+    private String lastError;
+
+    @CreationTimestamp
+    @Column
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.upsxace.tv_show_tracker.data_collector.work_queue;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface WorkItemRepository extends JpaRepository<WorkItem, Long> {
+    Optional<WorkItem> findByTypeAndSliceAndTmdbId(WorkItemType type, String slice, Long tmdbId);
+    // Skips the items locked by other nodes (-2 is Hibernate's SKIP LOCKED timeout)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<WorkItem> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+            WorkItemStatus status, LocalDateTime now, Pageable pageable
+    );
+    long countByStatus(WorkItemStatus status);
+}
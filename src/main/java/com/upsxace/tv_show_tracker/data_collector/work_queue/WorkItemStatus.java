@@ -0,0 +1,8 @@
+package com.upsxace.tv_show_tracker.data_collector.work_queue;
+
+public enum WorkItemStatus {
+    /** Waiting to be retried */
+    PENDING,
+    /** Failed permanently, or more times than allowed. Kept for inspection, never retried */
+    DEAD
+}
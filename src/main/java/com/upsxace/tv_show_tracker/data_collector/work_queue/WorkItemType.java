@@ -0,0 +1,10 @@
+package com.upsxace.tv_show_tracker.data_collector.work_queue;
+
+public enum WorkItemType {
+    /** A discover page, identified by its page number */
+    DISCOVER_PAGE,
+    /** The details and cast of a TV show */
+    TV_SHOW,
+    /** The TV show credits of an actor */
+    ACTOR_CREDITS
+}
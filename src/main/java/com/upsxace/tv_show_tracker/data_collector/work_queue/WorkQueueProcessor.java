@@ -0,0 +1,82 @@
+package com.upsxace.tv_show_tracker.data_collector.work_queue;
+
+import com.upsxace.tv_show_tracker.actor.repository.ActorRepository;
+import com.upsxace.tv_show_tracker.data_collector.discovery.DiscoveredTvShow;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvShowDto;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retries the discovery work queued after failing, one item at a time.
+ * Only the failed item is fetched again, so work that already succeeded costs no further TMDB calls.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkQueueProcessor {
+
+    private final WorkQueueService workQueueService;
+    private final TmdbService tmdbService;
+    private final ActorRepository actorRepository;
+
+    /**
+     * Retries every work item whose next attempt is due.
+     *
+     * @return number of work items that succeeded
+     */
+    public int processDueItems() {
+        var items = workQueueService.findDue();
+        if (items.isEmpty()) return 0;
+
+        int succeeded = 0;
+        for (var item : items) {
+            try {
+                process(item);
+                workQueueService.complete(item);
+                succeeded++;
+            } catch (Exception e) {
+                workQueueService.recordFailure(item.getType(), item.getSlice(), item.getTmdbId(), e);
+            }
+        }
+        log.info("Retried {} failed discovery work items: {} succeeded", items.size(), succeeded);
+        return succeeded;
+    }
+
+    private void process(WorkItem item) {
+        switch (item.getType()) {
+            case DISCOVER_PAGE -> processDiscoverPage(item.getSlice(), item.getTmdbId().intValue());
+            case TV_SHOW -> processTvShow(item.getTmdbId());
+            case ACTOR_CREDITS -> actorRepository.findByTmdbIdIn(List.of(item.getTmdbId()))
+                    .forEach(actor -> tmdbService.discoverActorCredits(actor, actor.getTmdbId()));
+        }
+    }
+
+    /**
+     * Fetches a discover page that was skipped. Its TV shows that fail are queued on their own.
+     */
+    private void processDiscoverPage(String slice, int page) {
+        var response = tmdbService.fetchDiscoverPage(slice, page);
+        var missingIds = tmdbService.findMissingTvShowIds(response.getResults().stream().map(TvShowDto::getId).toList());
+
+        List<DiscoveredTvShow> tvShows = new ArrayList<>();
+        for (var id : missingIds) {
+            try {
+                tvShows.add(tmdbService.fetchTvShow(id));
+            } catch (Exception e) {
+                workQueueService.recordFailure(WorkItemType.TV_SHOW, id, e);
+            }
+        }
+        tmdbService.persistTvShows(tvShows);
+    }
+
+    private void processTvShow(Long id) {
+        // The TV show may have been stored meanwhile, e.g. by a retried discover page
+        if (tmdbService.findMissingTvShowIds(List.of(id)).isEmpty()) return;
+        tmdbService.persistTvShows(List.of(tmdbService.fetchTvShow(id)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.upsxace.tv_show_tracker.data_collector.work_queue;
+
+import com.upsxace.tv_show_tracker.data_collector.discovery.DiscoveryConfig;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbCacheMissException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Persistent queue of discovery work that failed, retried with exponential backoff.
+ * Work that keeps failing, or fails with an error retrying cannot fix, is dead-lettered.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkQueueService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WorkItemRepository workItemRepository;
+    private final DiscoveryConfig discoveryConfig;
+
+    /**
+     * Records a failed attempt at some work, scheduling its next attempt or dead-lettering it.
+     *
+     * @param type   type of the work
+     * @param tmdbId TMDB ID the work is about
+     * @param error  cause of the failure
+     * @return the updated work item
+     */
+    @Transactional
+    public WorkItem recordFailure(WorkItemType type, Long tmdbId, Throwable error) {
+        return recordFailure(type, "", tmdbId, error);
+    }
+
+    /**
+     * Records a failed attempt at some work, scheduling its next attempt or dead-lettering it.
+     *
+     * @param type   type of the work
+     * @param slice  discover filter of the slice, for discover pages
+     * @param tmdbId TMDB ID (or page number) the work is about
+     * @param error  cause of the failure
+     * @return the updated work item
+     */
+    @Transactional
+    public WorkItem recordFailure(WorkItemType type, String slice, Long tmdbId, Throwable error) {
+        var retry = discoveryConfig.getRetry();
+        var item = workItemRepository.findByTypeAndSliceAndTmdbId(type, slice, tmdbId)
+                .orElseGet(() -> WorkItem.builder().type(type).slice(slice).tmdbId(tmdbId).build());
+
+        item.setAttempts(item.getAttempts() + 1);
+        item.setLastError(describe(error));
+        item.setNextAttemptAt(LocalDateTime.now().plus(getBackoff(item.getAttempts())));
+        if (isPermanent(error) || item.getAttempts() >= retry.getMaxAttempts()) {
+            item.setStatus(WorkItemStatus.DEAD);
+            log.warn("Dead-lettered {} {} after {} attempts: {}", type, tmdbId, item.getAttempts(), item.getLastError());
+        } else {
+            item.setStatus(WorkItemStatus.PENDING);
+            log.info("Scheduled retry of {} {} at {}", type, tmdbId, item.getNextAttemptAt());
+        }
+        return workItemRepository.save(item);
+    }
+
+    /**
+     * Claims the work items whose next attempt is due, oldest first.
+     * Their next attempt is postponed as if they had failed, so other nodes do not pick them up meanwhile.
+     */
+    @Transactional
+    public List<WorkItem> findDue() {
+        var now = LocalDateTime.now();
+        var items = workItemRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+                WorkItemStatus.PENDING,
+                now,
+                PageRequest.of(0, discoveryConfig.getRetry().getBatchSize())
+        );
+        items.forEach(item -> item.setNextAttemptAt(now.plus(getBackoff(item.getAttempts() + 1))));
+        return workItemRepository.saveAll(items);
+    }
+
+    /**
+     * Removes a work item once its work succeeded.
+     */
+    @Transactional
+    public void complete(WorkItem item) {
+        workItemRepository.delete(item);
+    }
+
+    /**
+     * Delay before the next attempt: the initial backoff, doubled for every attempt made, up to the maximum backoff.
+     */
+    Duration getBackoff(int attempts) {
+        var retry = discoveryConfig.getRetry();
+        var backoff = retry.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(retry.getMaxBackoff()) > 0 ? retry.getMaxBackoff() : backoff;
+    }
+
+    /**
+     * Client errors other than throttling (e.g. a TV show removed from TMDB) fail the same way on every attempt,
+     * and so do responses missing from the cache being replayed.
+     */
+    public static boolean isPermanent(Throwable error) {
+        if (error instanceof TmdbCacheMissException) return true;
+        return error instanceof RestClientResponseException e
+                && e.getStatusCode().is4xxClientError()
+                && e.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private static String describe(Throwable error) {
+        var description = error.getClass().getSimpleName() + ": " + error.getMessage();
+        return description.length() > MAX_ERROR_LENGTH ? description.substring(0, MAX_ERROR_LENGTH) : description;
+    }
+}
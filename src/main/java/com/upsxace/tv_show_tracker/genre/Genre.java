@@ -12,7 +12,8 @@ import java.util.Set;
 @Builder @AllArgsConstructor @NoArgsConstructor
 public class Genre {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "genres_id_seq")
+    @SequenceGenerator(name = "genres_id_seq", sequenceName = "genres_id_seq", allocationSize = 50)
     @Column
     private Long id;
 
@@ -0,0 +1,52 @@
+package com.upsxace.tv_show_tracker.genre;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of every genre in the database, indexed by TMDB ID.
+ * Genres are copied without their TV shows, so the snapshot holds no persistence state
+ * and can be shared between threads.
+ */
+public final class GenreDictionary {
+
+    public static final GenreDictionary EMPTY = new GenreDictionary(List.of());
+
+    private final List<Genre> all;
+    private final Map<Long, Genre> byTmdbId;
+
+    private GenreDictionary(List<Genre> genres) {
+        this.all = genres.stream()
+                .map(g -> Genre.builder().id(g.getId()).tmdbId(g.getTmdbId()).name(g.getName()).build())
+                .sorted(Comparator.comparing(Genre::getId))
+                .toList();
+        this.byTmdbId = all.stream()
+                .filter(g -> g.getTmdbId() != null)
+                .collect(Collectors.toUnmodifiableMap(Genre::getTmdbId, Function.identity()));
+    }
+
+    public static GenreDictionary of(List<Genre> genres) {
+        return new GenreDictionary(genres);
+    }
+
+    public List<Genre> getAll() {
+        return all;
+    }
+
+    public Optional<Genre> findByTmdbId(Long tmdbId) {
+        return Optional.ofNullable(byTmdbId.get(tmdbId));
+    }
+
+    /**
+     * Whether every genre given is known, by TMDB ID, with the same name.
+     */
+    public boolean containsAll(List<Genre> genres) {
+        return genres.stream().allMatch(g -> findByTmdbId(g.getTmdbId())
+                .filter(known -> known.getName().equals(g.getName()))
+                .isPresent());
+    }
+}
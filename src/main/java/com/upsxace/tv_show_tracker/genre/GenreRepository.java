@@ -5,7 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 import java.util.Optional;
 
-public interface GenreRepository extends JpaRepository<Genre, Long> {
+public interface GenreRepository extends JpaRepository<Genre, Long>, GenreRepositoryCustom {
     Optional<Genre> findByTmdbId(Long tmdbId);
     List<Genre> findByTmdbIdIn(List<Long> tmdbIds);
 }
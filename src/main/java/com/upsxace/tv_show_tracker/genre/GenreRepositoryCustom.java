@@ -0,0 +1,13 @@
+package com.upsxace.tv_show_tracker.genre;
+
+import java.util.Collection;
+
+public interface GenreRepositoryCustom {
+    /**
+     * Inserts the genres not stored yet and renames the others, matched by TMDB ID, in a single statement.
+     *
+     * @param genres genres to store, duplicated TMDB IDs are stored once
+     * @return number of genres inserted or renamed
+     */
+    int upsertAll(Collection<Genre> genres);
+}
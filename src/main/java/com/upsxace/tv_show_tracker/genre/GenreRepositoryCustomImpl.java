@@ -0,0 +1,36 @@
+package com.upsxace.tv_show_tracker.genre;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class GenreRepositoryCustomImpl implements GenreRepositoryCustom {
+
+    private static final String UPSERT_GENRES = """
+            INSERT INTO genres (tmdb_id, name)
+            SELECT * FROM unnest(?::bigint[], ?::varchar[])
+            ON CONFLICT (tmdb_id) DO UPDATE
+            SET name = excluded.name
+            WHERE genres.name IS DISTINCT FROM excluded.name
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int upsertAll(Collection<Genre> genres) {
+        // A row can only be updated once per statement
+        Map<Long, Genre> genresByTmdbId = new LinkedHashMap<>();
+        genres.forEach(g -> genresByTmdbId.putIfAbsent(g.getTmdbId(), g));
+        if (genresByTmdbId.isEmpty()) return 0;
+
+        var values = genresByTmdbId.values();
+        return jdbcTemplate.update(UPSERT_GENRES,
+                values.stream().map(Genre::getTmdbId).toArray(Long[]::new),
+                values.stream().map(Genre::getName).toArray(String[]::new)
+        );
+    }
+}
@@ -1,61 +1,78 @@
 package com.upsxace.tv_show_tracker.genre;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
- * Service for handling genre-related operations, including mapping external TMDB IDs to internal database IDs.
+ * Service for handling genre-related operations. The bulk writer links TV shows to their genres by TMDB ID
+ * in its SQL, so no TMDB ID is mapped to a database ID here.
+ * <p>
+ * Genres are served from an immutable {@link GenreDictionary}, loaded once at startup and replaced as a whole
+ * when new genres are stored. Readers never lock nor hit the database.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class GenreService {
 
     private final GenreRepository genreRepository;
 
-    /** Cache mapping TMDB IDs to database IDs to avoid repeated database lookups */
-    private final Map<Long, Long> tmdbToDbIdMap = new HashMap<>();
+    private volatile GenreDictionary dictionary = GenreDictionary.EMPTY;
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
 
     /**
-     * Retrieves the internal database ID for a given TMDB ID, caching the result.
-     *
-     * @param tmdbId The external TMDB genre ID
-     * @return The corresponding internal database ID
-     * @throws IllegalStateException if the TMDB ID does not exist in the database
+     * Replaces the dictionary with the genres currently in the database.
      */
-    private Long getDbId(Long tmdbId) {
-        if (tmdbToDbIdMap.containsKey(tmdbId)) {
-            return tmdbToDbIdMap.get(tmdbId);
-        }
-
-        var genre = genreRepository.findByTmdbId(tmdbId)
-                .orElseThrow(IllegalStateException::new);
+    public synchronized void reload() {
+        dictionary = GenreDictionary.of(genreRepository.findAll());
+        log.debug("Loaded {} genres", dictionary.getAll().size());
+    }
 
-        tmdbToDbIdMap.put(genre.getTmdbId(), genre.getId());
-        return genre.getId();
+    /**
+     * Reloads the dictionary once the current transaction commits, or right away outside a transaction.
+     * Called by writers that may have stored new genres.
+     */
+    public void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
     }
 
     /**
-     * Maps a list of TMDB genre IDs to their corresponding database IDs.
+     * Stores the genres that are new or renamed. Costs no database access when every genre is already known.
      *
-     * @param tmdbIds List of TMDB genre IDs
-     * @return List of internal database genre IDs
+     * @param genres genres fetched from TMDB
      */
-    public List<Long> mapToDbId(List<Long> tmdbIds) {
-        return tmdbIds.stream()
-                .map(this::getDbId)
-                .toList();
+    public void storeAll(List<Genre> genres) {
+        if (dictionary.containsAll(genres)) return;
+
+        genreRepository.upsertAll(genres);
+        reload();
     }
 
     /**
-     * Retrieves all genres from the database.
+     * Retrieves all genres.
      *
-     * @return List of all Genre entities
+     * @return List of all genres, ordered by ID
      */
     public List<Genre> getAll() {
-        return genreRepository.findAll();
+        return dictionary.getAll();
     }
 }
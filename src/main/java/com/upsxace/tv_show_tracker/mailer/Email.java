@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Builder @NoArgsConstructor @AllArgsConstructor
 public class Email {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "emails_id_seq")
+    @SequenceGenerator(name = "emails_id_seq", sequenceName = "emails_id_seq", allocationSize = 50)
     @Column
     private Long id;
 
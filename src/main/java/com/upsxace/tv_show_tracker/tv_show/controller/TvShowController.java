@@ -2,12 +2,16 @@ package com.upsxace.tv_show_tracker.tv_show.controller;
 
 import com.upsxace.tv_show_tracker.actor.entity.ActorCredit;
 import com.upsxace.tv_show_tracker.actor.service.ActorService;
+import com.upsxace.tv_show_tracker.common.graphql.Connection;
 import com.upsxace.tv_show_tracker.common.jwt.UserContext;
 import com.upsxace.tv_show_tracker.tv_show.service.TvShowService;
 import com.upsxace.tv_show_tracker.tv_show.graphql.AllTvShowsInput;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowConnectionInput;
 import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowDto;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowSelection;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.ContextValue;
@@ -35,19 +39,33 @@ public class TvShowController {
      * @return TV show DTO or null if not found
      */
     @QueryMapping
-    public TvShowDto getTvShow(@Argument Long id) {
-        return tvShowService.getById(id);
+    public TvShowDto getTvShow(@Argument Long id, DataFetchingFieldSelectionSet selection) {
+        return tvShowService.getById(id, TvShowSelection.of(selection, ""));
     }
 
     /**
      * Retrieves all TV shows with optional filtering, sorting, and pagination.
      *
+     * The total is only counted when the query selects it.
+     *
      * @param input Input containing filters, sorting, and pagination info
      * @return Page of TV show DTOs
      */
     @QueryMapping
-    public Page<TvShowDto> allTvShows(@Argument AllTvShowsInput input) {
-        return tvShowService.getAll(input);
+    public Slice<TvShowDto> allTvShows(@Argument AllTvShowsInput input, DataFetchingFieldSelectionSet selection) {
+        return tvShowService.getAll(input, TvShowSelection.of(selection, "content"), selection.contains("total"));
+    }
+
+    /**
+     * Retrieves a page of TV shows after a cursor, with optional filtering and sorting.
+     *
+     * @param input Input containing filters, sorting, page size and the cursor to start after
+     * @return Connection of TV show DTOs
+     */
+    @QueryMapping
+    public Connection<TvShowDto> allTvShowsConnection(@Argument TvShowConnectionInput input,
+                                                      DataFetchingFieldSelectionSet selection) {
+        return tvShowService.getConnection(input, TvShowSelection.of(selection, "edges/node"));
     }
 
     /**
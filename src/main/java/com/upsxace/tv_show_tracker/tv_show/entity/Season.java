@@ -11,7 +11,8 @@ import java.time.LocalDate;
 @Builder @NoArgsConstructor @AllArgsConstructor
 public class Season {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seasons_id_seq")
+    @SequenceGenerator(name = "seasons_id_seq", sequenceName = "seasons_id_seq", allocationSize = 50)
     @Column
     private Long id;
 
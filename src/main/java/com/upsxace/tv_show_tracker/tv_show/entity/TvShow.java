@@ -8,6 +8,7 @@ import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Set;
 
@@ -17,7 +18,8 @@ import java.util.Set;
 @Builder @NoArgsConstructor @AllArgsConstructor
 public class TvShow {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tv_shows_id_seq")
+    @SequenceGenerator(name = "tv_shows_id_seq", sequenceName = "tv_shows_id_seq", allocationSize = 50)
     @Column
     private Long id;
 
@@ -54,6 +56,21 @@ public class TvShow {
     @Column
     private Boolean inProduction;
 
+    /** Hash of the fields refreshed from TMDB, see {@code TvShowContentHash} */
+    @Column
+    private String contentHash;
+
+    @Column(insertable = false)
+    private OffsetDateTime refreshedAt;
+
+    /** Set when the TMDB changes feed reports the show as changed */
+    @Column
+    private OffsetDateTime refreshRequestedAt;
+
+    /** Set once the cast and credits of the show were fetched from TMDB, see {@code CreditHydrationService} */
+    @Column(insertable = false, updatable = false)
+    private OffsetDateTime creditsHydratedAt;
+
     @OneToMany(mappedBy = "tvShow", cascade = CascadeType.ALL)
     @Fetch(FetchMode.SUBSELECT)
     private List<Season> seasons;
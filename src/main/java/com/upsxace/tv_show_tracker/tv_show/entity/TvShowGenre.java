@@ -10,7 +10,8 @@ import lombok.*;
 @Builder @AllArgsConstructor @NoArgsConstructor
 public class TvShowGenre {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tv_show_genres_id_seq")
+    @SequenceGenerator(name = "tv_show_genres_id_seq", sequenceName = "tv_show_genres_id_seq", allocationSize = 50)
     @Column
     private Long id;
 
@@ -0,0 +1,60 @@
+package com.upsxace.tv_show_tracker.tv_show.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+
+/**
+ * Fields of a TV show shown with the actor credits in it, stored once per TV show instead of on every credit.
+ * Credits of TV shows not in the catalog have a summary too.
+ * <p>
+ * The ID is assigned, so summaries built here are new and get inserted without being looked up first.
+ */
+@Entity
+@Table(name = "tv_show_summaries")
+@Getter @Setter
+@Builder @NoArgsConstructor @AllArgsConstructor
+public class TvShowSummary implements Persistable<Long> {
+    @Id
+    @Column
+    private Long tvShowTmdbId;
+
+    @Column
+    private String name;
+
+    @Column
+    private String overview;
+
+    @Column
+    private Double popularity;
+
+    @Column
+    private LocalDate firstAirDate;
+
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public Long getId() {
+        return tvShowTmdbId;
+    }
+
+    public static TvShowSummary of(TvShow tvShow) {
+        return TvShowSummary.builder()
+                .tvShowTmdbId(tvShow.getTmdbId())
+                .name(tvShow.getName())
+                .overview(tvShow.getOverview())
+                .popularity(tvShow.getPopularity())
+                .firstAirDate(tvShow.getFirstAirDate())
+                .build();
+    }
+}
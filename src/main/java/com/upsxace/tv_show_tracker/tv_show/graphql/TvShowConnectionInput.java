@@ -0,0 +1,11 @@
+package com.upsxace.tv_show_tracker.tv_show.graphql;
+
+import com.upsxace.tv_show_tracker.common.graphql.CursorInput;
+import lombok.Data;
+
+@Data
+public class TvShowConnectionInput {
+    private final AllTvShowsFilterInput filter;
+    private final CursorInput page;
+    private final TvShowOrderInput order;
+}
@@ -23,4 +23,6 @@ public class TvShowDto {
     private final List<Season> seasons;
     private final List<Genre> genres;
     private final List<ActorCredit> actorCredits;
+    /** Whether the credits are still being fetched from TMDB, so actorCredits may be incomplete */
+    private final Boolean creditsPending;
 }
@@ -0,0 +1,28 @@
+package com.upsxace.tv_show_tracker.tv_show.graphql;
+
+import graphql.schema.DataFetchingFieldSelectionSet;
+import lombok.Data;
+
+/**
+ * Associations of the TV shows selected by a GraphQL query, so only those are loaded with them.
+ * Actor credits and favorites are resolved by batch mappings, so they are never loaded with the TV shows.
+ */
+@Data
+public class TvShowSelection {
+    private final boolean genres;
+    private final boolean seasons;
+
+    /**
+     * @param selectionSet fields selected by the query
+     * @param path         path of the TV shows in the selection, e.g. {@code content}, empty for the field itself
+     * @return the associations selected
+     */
+    public static TvShowSelection of(DataFetchingFieldSelectionSet selectionSet, String path) {
+        var prefix = path.isEmpty() ? "" : path + "/";
+        return new TvShowSelection(selectionSet.contains(prefix + "genres"), selectionSet.contains(prefix + "seasons"));
+    }
+
+    public boolean hasAssociations() {
+        return genres || seasons;
+    }
+}
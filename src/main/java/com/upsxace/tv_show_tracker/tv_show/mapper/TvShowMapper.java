@@ -4,19 +4,31 @@ import com.upsxace.tv_show_tracker.genre.Genre;
 import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
 import com.upsxace.tv_show_tracker.tv_show.entity.TvShowGenre;
 import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowDto;
+import org.hibernate.Hibernate;
+import org.mapstruct.Condition;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 @Mapper(componentModel = "spring")
 public interface TvShowMapper {
     @Mapping(source = "tvShowGenres", target = "genres", qualifiedByName = "flattenGenres")
+    @Mapping(target = "creditsPending", expression = "java(entity.getCreditsHydratedAt() == null)")
     TvShowDto toDto(TvShow entity);
     List<TvShowDto> toDtos(List<TvShow> entities);
 
+    /**
+     * Associations are only mapped if they were loaded, so mapping never loads the ones left out of a query.
+     */
+    @Condition
+    default boolean isLoaded(Collection<?> association){
+        return association != null && Hibernate.isInitialized(association);
+    }
+
     @Named("flattenGenres")
     default List<Genre> flattenGenres(Set<TvShowGenre> tvShowGenres){
         return tvShowGenres.stream().map(TvShowGenre::getGenre).toList();
@@ -2,9 +2,8 @@ package com.upsxace.tv_show_tracker.tv_show.repository;
 
 import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
 import org.jetbrains.annotations.NotNull;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -13,28 +12,40 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface TvShowRepository extends JpaRepository<TvShow, Long> {
+public interface TvShowRepository extends JpaRepository<TvShow, Long>, TvShowRepositoryCustom {
     @NotNull
     @EntityGraph(attributePaths = {"tvShowGenres", "tvShowGenres.genre", "actorCredits", "actorCredits.actor"})
     Optional<TvShow> findById(@NotNull Long id);
 
     @EntityGraph(attributePaths = {"tvShowGenres", "tvShowGenres.genre", "actorCredits", "actorCredits.actor"})
     List<TvShow> findAllByIdIn(List<Long> ids);
-    @EntityGraph(attributePaths = {"tvShowGenres", "tvShowGenres.genre", "actorCredits", "actorCredits.actor"})
-    List<TvShow> findAllByIdIn(List<Long> ids, Sort sort);
     @Query("""
         SELECT t.id
         FROM TvShow t
     """)
-    Page<Long> findAllIds(Pageable pageable);
+    Slice<Long> findAllIds(Pageable pageable);
     @Query("""
         SELECT t.id
         FROM TvShow t
         JOIN t.tvShowGenres tg
-        JOIN tg.genre g
-        WHERE g.id = :genreId
+        WHERE tg.genre.id = :genreId
+    """)
+    Slice<Long> findAllIdsByGenreId(Pageable pageable, Long genreId);
+    Slice<TvShow> findAllBy(Pageable pageable);
+    @Query("""
+        SELECT t
+        FROM TvShow t
+        JOIN t.tvShowGenres tg
+        WHERE tg.genre.id = :genreId
+    """)
+    Slice<TvShow> findAllByGenreId(Pageable pageable, Long genreId);
+    @Query("""
+        SELECT count(t)
+        FROM TvShow t
+        JOIN t.tvShowGenres tg
+        WHERE tg.genre.id = :genreId
     """)
-    Page<Long> findAllIdsByGenreId(Pageable pageable, Long genreId);
+    long countByGenreId(Long genreId);
     Optional<TvShow> findByTmdbId(Long tmdbId);
     List<TvShow> findByTmdbIdIn(List<Long> tmdbIds);
 
@@ -0,0 +1,34 @@
+package com.upsxace.tv_show_tracker.tv_show.repository;
+
+import com.upsxace.tv_show_tracker.common.graphql.Cursor;
+import com.upsxace.tv_show_tracker.common.graphql.SortDirection;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowSelection;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowSortableField;
+
+import java.util.List;
+
+public interface TvShowRepositoryCustom {
+    /**
+     * Finds the positions of the TV shows after a cursor, ordered by a field and then by ID.
+     * Seeks through the index of the field, so every page costs the same, and counts no rows.
+     *
+     * @param field     field to order by
+     * @param direction sort direction
+     * @param after     cursor to start after, null to start from the first TV show
+     * @param limit     maximum number of TV shows
+     * @param genreId   genre the TV shows must have, null for any
+     * @return the cursors of the TV shows found, in order
+     */
+    List<Cursor> findPage(TvShowSortableField field, SortDirection direction, Cursor after, int limit, Long genreId);
+
+    /**
+     * Finds TV shows by ID, joining only the associations selected. Seasons are left to be initialized
+     * afterwards, so they are fetched for every TV show at once without multiplying the rows.
+     *
+     * @param ids       IDs of the TV shows
+     * @param selection associations selected
+     * @return the TV shows found, in no particular order
+     */
+    List<TvShow> findAllForSelection(List<Long> ids, TvShowSelection selection);
+}
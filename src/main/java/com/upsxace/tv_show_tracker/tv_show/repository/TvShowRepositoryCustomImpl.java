@@ -0,0 +1,73 @@
+package com.upsxace.tv_show_tracker.tv_show.repository;
+
+import com.upsxace.tv_show_tracker.common.graphql.Cursor;
+import com.upsxace.tv_show_tracker.common.graphql.Keyset;
+import com.upsxace.tv_show_tracker.common.graphql.SortDirection;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowSelection;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowSortableField;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TvShowRepositoryCustomImpl implements TvShowRepositoryCustom {
+
+    private static final String FIND_PAGE = """
+            SELECT t.id, %s AS sort_key
+            FROM tv_shows t
+            WHERE %s AND %s
+            ORDER BY %s
+            LIMIT ?
+            """;
+
+    private static final String HAS_GENRE = """
+            EXISTS (SELECT 1 FROM tv_show_genres tg WHERE tg.tv_show_id = t.id AND tg.genre_id = ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Cursor> findPage(TvShowSortableField field, SortDirection direction, Cursor after, int limit,
+                                 Long genreId) {
+        var keyset = keyset(field, direction);
+        List<Object> args = new ArrayList<>();
+
+        String genreFilter = "TRUE";
+        if (genreId != null) {
+            genreFilter = HAS_GENRE;
+            args.add(genreId);
+        }
+        var sql = FIND_PAGE.formatted(keyset.getSortKey(), genreFilter, keyset.after(after, args), keyset.orderBy());
+        args.add(limit);
+
+        return jdbcTemplate.query(sql, keyset.cursorMapper(), args.toArray());
+    }
+
+    @Override
+    public List<TvShow> findAllForSelection(List<Long> ids, TvShowSelection selection) {
+        if (ids.isEmpty()) return List.of();
+
+        var query = entityManager.createQuery("SELECT t FROM TvShow t WHERE t.id IN :ids", TvShow.class)
+                .setParameter("ids", ids);
+        if (selection.isGenres()) {
+            var graph = entityManager.createEntityGraph(TvShow.class);
+            graph.addSubgraph("tvShowGenres").addAttributeNodes("genre");
+            query.setHint("jakarta.persistence.fetchgraph", graph);
+        }
+        return query.getResultList();
+    }
+
+    private static Keyset keyset(TvShowSortableField field, SortDirection direction) {
+        return switch (field) {
+            case id -> Keyset.byId(field.name(), "t.id", direction);
+            case name -> Keyset.by(field.name(), "t.name", "varchar", "t.id", direction);
+            case popularity -> Keyset.by(field.name(), "t.popularity", "double precision", "t.id", direction);
+            case voteAverage -> Keyset.by(field.name(), "t.vote_average", "double precision", "t.id", direction);
+            case firstAirDate -> Keyset.by(field.name(), "t.first_air_date", "date", "t.id", direction);
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.upsxace.tv_show_tracker.tv_show.repository;
+
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShowSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TvShowSummaryRepository extends JpaRepository<TvShowSummary, Long>, TvShowSummaryRepositoryCustom {
+    List<TvShowSummary> findByTvShowTmdbIdIn(Collection<Long> tvShowTmdbIds);
+}
@@ -0,0 +1,16 @@
+package com.upsxace.tv_show_tracker.tv_show.repository;
+
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShowSummary;
+
+import java.util.Collection;
+
+public interface TvShowSummaryRepositoryCustom {
+    /**
+     * Inserts the summaries of the TV shows that have none yet, in a single statement.
+     * Stored summaries are left untouched.
+     *
+     * @param summaries summaries to store, duplicated TV shows are stored once
+     * @return number of summaries inserted
+     */
+    int insertMissing(Collection<TvShowSummary> summaries);
+}
@@ -0,0 +1,37 @@
+package com.upsxace.tv_show_tracker.tv_show.repository;
+
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShowSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+
+@RequiredArgsConstructor
+public class TvShowSummaryRepositoryCustomImpl implements TvShowSummaryRepositoryCustom {
+
+    private static final String INSERT_MISSING_SUMMARIES = """
+            INSERT INTO tv_show_summaries (tv_show_tmdb_id, name, overview, popularity, first_air_date)
+            SELECT u.tv_show_tmdb_id, COALESCE(u.name, ''), u.overview, COALESCE(u.popularity, 0), u.first_air_date
+            FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::double precision[], ?::date[])
+                AS u (tv_show_tmdb_id, name, overview, popularity, first_air_date)
+            ON CONFLICT (tv_show_tmdb_id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertMissing(Collection<TvShowSummary> summaries) {
+        Map<Long, TvShowSummary> summariesByTmdbId = new LinkedHashMap<>();
+        summaries.forEach(s -> summariesByTmdbId.putIfAbsent(s.getTvShowTmdbId(), s));
+        if (summariesByTmdbId.isEmpty()) return 0;
+
+        var values = summariesByTmdbId.values();
+        return jdbcTemplate.update(INSERT_MISSING_SUMMARIES,
+                values.stream().map(TvShowSummary::getTvShowTmdbId).toArray(Long[]::new),
+                values.stream().map(TvShowSummary::getName).toArray(String[]::new),
+                values.stream().map(TvShowSummary::getOverview).toArray(String[]::new),
+                values.stream().map(TvShowSummary::getPopularity).toArray(Double[]::new),
+                values.stream().map(s -> Objects.toString(s.getFirstAirDate(), null)).toArray(String[]::new)
+        );
+    }
+}
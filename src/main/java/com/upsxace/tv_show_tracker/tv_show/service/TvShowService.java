@@ -1,9 +1,18 @@
 package com.upsxace.tv_show_tracker.tv_show.service;
 
+import com.upsxace.tv_show_tracker.common.graphql.Connection;
+import com.upsxace.tv_show_tracker.common.graphql.Cursor;
+import com.upsxace.tv_show_tracker.common.graphql.Keyset;
+import com.upsxace.tv_show_tracker.common.graphql.Pagination;
+import com.upsxace.tv_show_tracker.common.graphql.SortDirection;
 import com.upsxace.tv_show_tracker.common.jwt.UserContext;
-import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import com.upsxace.tv_show_tracker.data_collector.hydration.CreditHydrationService;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
 import com.upsxace.tv_show_tracker.tv_show.graphql.AllTvShowsInput;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowConnectionInput;
 import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowDto;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowSelection;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowSortableField;
 import com.upsxace.tv_show_tracker.tv_show.mapper.TvShowMapper;
 import com.upsxace.tv_show_tracker.tv_show.repository.TvShowRepository;
 import com.upsxace.tv_show_tracker.user.entity.UserFavoriteTvShow;
@@ -14,6 +23,10 @@ import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for managing TV shows, including fetching, mapping to DTOs,
@@ -25,7 +38,7 @@ public class TvShowService {
 
     private final TvShowRepository tvShowRepository;
     private final TvShowMapper tvShowMapper;
-    private final TmdbService tmdbService;
+    private final CreditHydrationService creditHydrationService;
     private final UserFavoriteTvShowRepository userFavoriteTvShowRepository;
 
     /**
@@ -36,70 +49,103 @@ public class TvShowService {
      * @return Pageable object to use for repository queries
      */
     private Pageable createPageable(AllTvShowsInput input) {
-        int page = 0;
-        if (input != null && input.getPage() != null && input.getPage().getPage() != null) {
-            page = input.getPage().getPage();
-        }
-
-        Sort sort = Sort.unsorted();
-        if (input != null && input.getOrder() != null) {
-            var orderInput = input.getOrder();
-            Sort.Direction direction = Sort.Direction.ASC;
-            if (orderInput.getDirection() != null) {
-                direction = Sort.Direction.valueOf(orderInput.getDirection().name());
-            }
-            String sortField = orderInput.getField().name();
-            sort = Sort.by(direction, sortField);
-        }
-
-        int pageSize = (input != null && input.getPage() != null && input.getPage().getSize() != null)
-                ? Math.max(1, Math.min(20, input.getPage().getSize()))
-                : 20;
-        return PageRequest.of(page, pageSize, sort);
+        if (input == null) return Pagination.pageable(null, null, null);
+        var order = input.getOrder();
+        return order == null
+                ? Pagination.pageable(input.getPage(), null, null)
+                : Pagination.pageable(input.getPage(), order.getField(), order.getDirection());
     }
 
     /**
-     * Retrieves all TV shows with optional filtering and pagination.
-     * Initializes the first show's seasons to prevent lazy loading issues.
+     * Retrieves all TV shows with optional filtering and pagination, loading only the associations selected.
+     * Without associations to fetch, the page of TV shows is read by a single query.
      *
-     * @param input Input containing filters, sorting, and pagination info
-     * @return Page of TV show DTOs
+     * @param input      Input containing filters, sorting, and pagination info
+     * @param selection  Associations selected by the query
+     * @param countTotal Whether to count the total of TV shows
+     * @return Page of TV show DTOs, or a {@link Slice} without a total when it is not counted
      */
-    public Page<TvShowDto> getAll(AllTvShowsInput input) {
+    public Slice<TvShowDto> getAll(AllTvShowsInput input, TvShowSelection selection, boolean countTotal) {
         Pageable pageable = createPageable(input);
-        Sort sort = pageable.getSort();
+        Long genreId = input != null && input.getFilter() != null ? input.getFilter().getGenreId() : null;
 
-        Page<Long> idsPage = (input != null && input.getFilter() != null && input.getFilter().getGenreId() != null)
-                ? tvShowRepository.findAllIdsByGenreId(pageable, input.getFilter().getGenreId())
-                : tvShowRepository.findAllIds(pageable);
+        Slice<TvShow> tvShows;
+        if (selection.hasAssociations()) {
+            // Paging a join fetch of collections would page in memory, so the IDs are paged first
+            var ids = genreId != null
+                    ? tvShowRepository.findAllIdsByGenreId(pageable, genreId)
+                    : tvShowRepository.findAllIds(pageable);
+            var content = inOrder(ids.getContent(), findAllForSelection(ids.getContent(), selection));
+            tvShows = new SliceImpl<>(content, pageable, ids.hasNext());
+        } else {
+            tvShows = genreId != null
+                    ? tvShowRepository.findAllByGenreId(pageable, genreId)
+                    : tvShowRepository.findAllBy(pageable);
+        }
 
-        var tvShows = tvShowRepository.findAllByIdIn(idsPage.getContent(), sort);
+        var dtos = tvShowMapper.toDtos(tvShows.getContent());
+        if (!countTotal) return new SliceImpl<>(dtos, pageable, tvShows.hasNext());
 
-        if (!tvShows.isEmpty()) Hibernate.initialize(tvShows.getFirst().getSeasons());
+        long total = genreId != null ? tvShowRepository.countByGenreId(genreId) : tvShowRepository.count();
+        return new PageImpl<>(dtos, pageable, total);
+    }
 
-        return new PageImpl<>(
-                tvShowMapper.toDtos(tvShows),
-                pageable,
-                idsPage.getTotalElements()
-        );
+    /**
+     * Retrieves a page of TV shows after a cursor, with optional filtering and sorting.
+     * Pages are sought through the index of the sort field, so any page costs the same as the first one,
+     * and no total is counted.
+     *
+     * @param input     Input containing filters, sorting, page size and the cursor to start after
+     * @param selection Associations selected by the query
+     * @return Connection of TV show DTOs
+     */
+    public Connection<TvShowDto> getConnection(TvShowConnectionInput input, TvShowSelection selection) {
+        var order = input != null ? input.getOrder() : null;
+        var field = order != null ? order.getField() : TvShowSortableField.id;
+        var direction = order != null && order.getDirection() != null ? order.getDirection() : SortDirection.ASC;
+        var page = input != null ? input.getPage() : null;
+        int first = Pagination.pageSize(page != null ? page.getFirst() : null);
+        var after = Cursor.decode(page != null ? page.getAfter() : null, Keyset.ordering(field.name(), direction));
+        Long genreId = input != null && input.getFilter() != null ? input.getFilter().getGenreId() : null;
+
+        var cursors = tvShowRepository.findPage(field, direction, after, first + 1, genreId);
+
+        return Connection.of(cursors, first, after != null, ids -> tvShowMapper.toDtos(findAllForSelection(ids, selection))
+                .stream()
+                .collect(Collectors.toMap(TvShowDto::getId, Function.identity())));
     }
 
     /**
-     * Retrieves a single TV show by its ID, initializing seasons and fetching
-     * actor credits if missing.
+     * Retrieves a single TV show by its ID, loading only the associations selected. A TV show whose credits
+     * were never fetched is returned right away, marked as pending, and its credits are requested in the background.
      *
-     * @param id ID of the TV show
+     * @param id        ID of the TV show
+     * @param selection Associations selected by the query
      * @return TV show DTO or null if not found
      */
-    public TvShowDto getById(Long id) {
-        var tvShow = tvShowRepository.findById(id).orElse(null);
-        if (tvShow != null) {
-            Hibernate.initialize(tvShow.getSeasons());
-            if (tvShow.getActorCredits().isEmpty()) tmdbService.fillTvShowCredits(tvShow);
+    public TvShowDto getById(Long id, TvShowSelection selection) {
+        var found = findAllForSelection(List.of(id), selection);
+        var tvShow = found.isEmpty() ? null : found.getFirst();
+        if (tvShow != null && tvShow.getCreditsHydratedAt() == null && tvShow.getActorCredits().isEmpty()) {
+            creditHydrationService.requestCredits(tvShow);
         }
         return tvShowMapper.toDto(tvShow);
     }
 
+    /**
+     * Loads TV shows with the associations selected. Seasons are initialized for all of them in one query.
+     */
+    private List<TvShow> findAllForSelection(List<Long> ids, TvShowSelection selection) {
+        var tvShows = tvShowRepository.findAllForSelection(ids, selection);
+        if (selection.isSeasons() && !tvShows.isEmpty()) Hibernate.initialize(tvShows.getFirst().getSeasons());
+        return tvShows;
+    }
+
+    private static List<TvShow> inOrder(List<Long> ids, List<TvShow> tvShows) {
+        Map<Long, TvShow> tvShowsById = tvShows.stream().collect(Collectors.toMap(TvShow::getId, Function.identity()));
+        return ids.stream().map(tvShowsById::get).filter(Objects::nonNull).toList();
+    }
+
     /**
      * Retrieves multiple TV shows by their IDs.
      *
@@ -1,5 +1,6 @@
 package com.upsxace.tv_show_tracker.user.controller;
 
+import com.upsxace.tv_show_tracker.common.graphql.Connection;
 import com.upsxace.tv_show_tracker.common.jwt.AuthService;
 import com.upsxace.tv_show_tracker.common.jwt.JwtConfig;
 import com.upsxace.tv_show_tracker.common.jwt.UserContext;
@@ -143,6 +144,19 @@ public class UserController {
         return userService.getFavoriteShows(input, userCtx);
     }
 
+    /**
+     * Retrieves a page of the current user's favorite TV shows after a cursor.
+     *
+     * @param input   page size, cursor to start after and sorting options
+     * @param userCtx the context of the current user
+     * @return a connection of favorite TV shows
+     */
+    @QueryMapping
+    @Secured("ROLE_USER")
+    public Connection<UserFavoriteTvShow> favoriteTvShowsConnection(@Argument FavoriteTvShowConnectionInput input, @ContextValue(required = false) UserContext userCtx) {
+        return userService.getFavoriteShowsConnection(input, userCtx);
+    }
+
     /**
      * Resolves the actual TV show details for a batch of UserFavoriteTvShow objects.
      *
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Builder @NoArgsConstructor @AllArgsConstructor
 public class UserFavoriteTvShow {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_favorite_tv_shows_id_seq")
+    @SequenceGenerator(name = "user_favorite_tv_shows_id_seq", sequenceName = "user_favorite_tv_shows_id_seq", allocationSize = 50)
     @Column
     private Long id;
 
@@ -0,0 +1,10 @@
+package com.upsxace.tv_show_tracker.user.graphql;
+
+import com.upsxace.tv_show_tracker.common.graphql.CursorInput;
+import lombok.Data;
+
+@Data
+public class FavoriteTvShowConnectionInput {
+    private final CursorInput page;
+    private final UserFavoriteTvShowOrderInput order;
+}
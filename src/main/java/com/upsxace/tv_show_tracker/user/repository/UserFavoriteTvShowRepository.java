@@ -6,13 +6,16 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
-public interface UserFavoriteTvShowRepository extends JpaRepository<UserFavoriteTvShow, Long> {
+public interface UserFavoriteTvShowRepository extends JpaRepository<UserFavoriteTvShow, Long>, UserFavoriteTvShowRepositoryCustom {
     @EntityGraph(attributePaths = "tvShow")
     Page<UserFavoriteTvShow> findAllByUserId(Pageable pageable, UUID userId);
     @EntityGraph(attributePaths = "tvShow")
+    List<UserFavoriteTvShow> findAllByIdIn(Collection<Long> ids);
+    @EntityGraph(attributePaths = "tvShow")
     List<UserFavoriteTvShow> findAllByTvShowIdInAndUserId(List<Long> tvShowIds, UUID userId);
     @EntityGraph(attributePaths = {"tvShow"})
     List<UserFavoriteTvShow> findFirst3ByUserIdOrderByFavoritedAtDesc(UUID userId);
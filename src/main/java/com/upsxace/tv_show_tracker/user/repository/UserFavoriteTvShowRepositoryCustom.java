@@ -0,0 +1,24 @@
+package com.upsxace.tv_show_tracker.user.repository;
+
+import com.upsxace.tv_show_tracker.common.graphql.Cursor;
+import com.upsxace.tv_show_tracker.common.graphql.SortDirection;
+import com.upsxace.tv_show_tracker.user.graphql.UserFavoriteTvShowSortableField;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface UserFavoriteTvShowRepositoryCustom {
+    /**
+     * Finds the positions of the favorites of a user after a cursor, ordered by a field and then by ID.
+     * Seeks through the index of the field, so every page costs the same, and counts no rows.
+     *
+     * @param userId    ID of the user
+     * @param field     field to order by
+     * @param direction sort direction
+     * @param after     cursor to start after, null to start from the first favorite
+     * @param limit     maximum number of favorites
+     * @return the cursors of the favorites found, in order
+     */
+    List<Cursor> findPage(UUID userId, UserFavoriteTvShowSortableField field, SortDirection direction, Cursor after,
+                          int limit);
+}
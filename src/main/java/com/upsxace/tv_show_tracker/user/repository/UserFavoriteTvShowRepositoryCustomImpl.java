@@ -0,0 +1,40 @@
+package com.upsxace.tv_show_tracker.user.repository;
+
+import com.upsxace.tv_show_tracker.common.graphql.Cursor;
+import com.upsxace.tv_show_tracker.common.graphql.Keyset;
+import com.upsxace.tv_show_tracker.common.graphql.SortDirection;
+import com.upsxace.tv_show_tracker.user.graphql.UserFavoriteTvShowSortableField;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class UserFavoriteTvShowRepositoryCustomImpl implements UserFavoriteTvShowRepositoryCustom {
+
+    private static final String FIND_PAGE = """
+            SELECT f.id, %s AS sort_key
+            FROM user_favorite_tv_shows f
+            WHERE f.user_id = ? AND %s
+            ORDER BY %s
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Cursor> findPage(UUID userId, UserFavoriteTvShowSortableField field, SortDirection direction,
+                                 Cursor after, int limit) {
+        var keyset = switch (field) {
+            case favoritedAt -> Keyset.by(field.name(), "f.favorited_at", "timestamp", "f.id", direction);
+        };
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        var sql = FIND_PAGE.formatted(keyset.getSortKey(), keyset.after(after, args), keyset.orderBy());
+        args.add(limit);
+
+        return jdbcTemplate.query(sql, keyset.cursorMapper(), args.toArray());
+    }
+}
@@ -1,14 +1,21 @@
 package com.upsxace.tv_show_tracker.user.service;
 
 import com.upsxace.tv_show_tracker.common.exceptions.NotFoundException;
+import com.upsxace.tv_show_tracker.common.graphql.Connection;
+import com.upsxace.tv_show_tracker.common.graphql.Cursor;
+import com.upsxace.tv_show_tracker.common.graphql.Keyset;
+import com.upsxace.tv_show_tracker.common.graphql.Pagination;
+import com.upsxace.tv_show_tracker.common.graphql.SortDirection;
 import com.upsxace.tv_show_tracker.common.jwt.UserContext;
 import com.upsxace.tv_show_tracker.experience.ExperienceService;
 import com.upsxace.tv_show_tracker.mailer.EmailRepository;
 import com.upsxace.tv_show_tracker.tv_show.repository.TvShowRepository;
 import com.upsxace.tv_show_tracker.user.entity.User;
 import com.upsxace.tv_show_tracker.user.entity.UserFavoriteTvShow;
+import com.upsxace.tv_show_tracker.user.graphql.FavoriteTvShowConnectionInput;
 import com.upsxace.tv_show_tracker.user.graphql.FavoriteTvShowsInput;
 import com.upsxace.tv_show_tracker.user.graphql.SessionInfo;
+import com.upsxace.tv_show_tracker.user.graphql.UserFavoriteTvShowSortableField;
 import com.upsxace.tv_show_tracker.user.repository.UserFavoriteTvShowRepository;
 import com.upsxace.tv_show_tracker.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +30,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing user-related operations such as authentication,
@@ -78,27 +87,11 @@ public class UserService implements UserDetailsService {
      * @return a {@link Pageable} object
      */
     private Pageable createPageable(FavoriteTvShowsInput input) {
-        int page = 0;
-        if (input != null && input.getPage() != null && input.getPage().getPage() != null) {
-            page = input.getPage().getPage();
-        }
-
-        Sort sort = Sort.unsorted();
-        if (input != null && input.getOrder() != null) {
-            var orderInput = input.getOrder();
-            Sort.Direction direction = Sort.Direction.ASC;
-            if (orderInput.getDirection() != null) {
-                direction = Sort.Direction.valueOf(orderInput.getDirection().name());
-            }
-            String sortField = orderInput.getField().name();
-            sort = Sort.by(direction, sortField);
-        }
-
-        int pageSize = (input != null && input.getPage() != null && input.getPage().getSize() != null)
-                ? Math.max(1, Math.min(20, input.getPage().getSize()))
-                : 20;
-
-        return PageRequest.of(page, pageSize, sort);
+        if (input == null) return Pagination.pageable(null, null, null);
+        var order = input.getOrder();
+        return order == null
+                ? Pagination.pageable(input.getPage(), null, null)
+                : Pagination.pageable(input.getPage(), order.getField(), order.getDirection());
     }
 
     /**
@@ -149,6 +142,29 @@ public class UserService implements UserDetailsService {
         return userFavoriteTvShowRepository.findAllByUserId(pageable, userCtx.getId());
     }
 
+    /**
+     * Retrieves a page of a user's favorite TV shows after a cursor. Any page costs the same as the first one.
+     *
+     * @param input   the input specifying page size, cursor to start after and sorting options
+     * @param userCtx the context of the user
+     * @return a {@link Connection} of {@link UserFavoriteTvShow} entities
+     */
+    public Connection<UserFavoriteTvShow> getFavoriteShowsConnection(FavoriteTvShowConnectionInput input,
+                                                                    UserContext userCtx) {
+        var order = input != null ? input.getOrder() : null;
+        var field = order != null ? order.getField() : UserFavoriteTvShowSortableField.favoritedAt;
+        var direction = order != null && order.getDirection() != null ? order.getDirection() : SortDirection.ASC;
+        var page = input != null ? input.getPage() : null;
+        int first = Pagination.pageSize(page != null ? page.getFirst() : null);
+        var after = Cursor.decode(page != null ? page.getAfter() : null, Keyset.ordering(field.name(), direction));
+
+        var cursors = userFavoriteTvShowRepository.findPage(userCtx.getId(), field, direction, after, first + 1);
+
+        return Connection.of(cursors, first, after != null, ids -> userFavoriteTvShowRepository.findAllByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(UserFavoriteTvShow::getId, Function.identity())));
+    }
+
     /**
      * Retrieves the session information for the given user context.
      *
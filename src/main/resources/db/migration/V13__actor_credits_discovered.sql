@@ -0,0 +1,3 @@
+ALTER TABLE public.actors ADD credits_discovered boolean DEFAULT false NOT NULL;
+UPDATE public.actors a SET credits_discovered = true
+WHERE EXISTS (SELECT 1 FROM public.actor_credits ac WHERE ac.actor_id = a.id);
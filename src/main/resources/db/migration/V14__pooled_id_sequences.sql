@@ -0,0 +1,17 @@
+-- Entities allocate IDs from sequences in blocks of 50 (pooled optimizer), so inserts can be batched.
+-- Sequences keep the name of the table they were created for, so they are renamed after the current tables.
+DO $$
+DECLARE
+	t text;
+	seq text;
+BEGIN
+	FOREACH t IN ARRAY ARRAY['app_properties', 'genres', 'tv_shows', 'seasons', 'tv_show_genres', 'actors',
+		'actor_credits', 'user_favorite_tv_shows', 'emails']
+	LOOP
+		seq := pg_get_serial_sequence('public.' || t, 'id');
+		IF seq <> 'public.' || t || '_id_seq' THEN
+			EXECUTE format('ALTER SEQUENCE %s RENAME TO %I', seq, t || '_id_seq');
+		END IF;
+		EXECUTE format('ALTER SEQUENCE public.%I INCREMENT BY 50', t || '_id_seq');
+	END LOOP;
+END $$;
@@ -0,0 +1,15 @@
+CREATE TABLE public.discovery_work_items (
+	id bigserial NOT NULL,
+	"type" varchar NOT NULL,
+	tmdb_id bigint NOT NULL,
+	status varchar NOT NULL,
+	attempts int DEFAULT 0 NOT NULL,
+	next_attempt_at timestamp NOT NULL,
+	last_error varchar NULL,
+	created_at timestamp NOT NULL,
+	updated_at timestamp NOT NULL,
+	CONSTRAINT discovery_work_items_pk PRIMARY KEY (id),
+	CONSTRAINT discovery_work_items_unique UNIQUE ("type", tmdb_id)
+);
+CREATE INDEX discovery_work_items_status_next_attempt_at_idx ON public.discovery_work_items (status, next_attempt_at);
+ALTER SEQUENCE public.discovery_work_items_id_seq INCREMENT BY 50;
@@ -0,0 +1,17 @@
+CREATE TABLE public.discovery_page_leases (
+	page int NOT NULL,
+	"owner" varchar NULL,
+	leased_until timestamptz NOT NULL,
+	attempts int DEFAULT 0 NOT NULL,
+	completed boolean DEFAULT false NOT NULL,
+	CONSTRAINT discovery_page_leases_pk PRIMARY KEY (page)
+);
+CREATE INDEX discovery_page_leases_pending_idx ON public.discovery_page_leases (leased_until) WHERE NOT completed;
+
+-- Pages explored before leases were introduced count as completed
+INSERT INTO public.discovery_page_leases (page, leased_until, completed)
+SELECT generate_series(1, value::int), now(), true
+FROM public.app_properties
+WHERE "key" = 'tmdb:pages-explored';
+
+DELETE FROM public.app_properties WHERE "key" = 'tmdb:pages-explored';
@@ -0,0 +1,8 @@
+-- Shows stored before refreshing existed are the stalest of all
+ALTER TABLE public.tv_shows ADD content_hash varchar NULL;
+ALTER TABLE public.tv_shows ADD refreshed_at timestamptz DEFAULT 'epoch' NOT NULL;
+ALTER TABLE public.tv_shows ALTER COLUMN refreshed_at SET DEFAULT now();
+ALTER TABLE public.tv_shows ADD refresh_requested_at timestamptz NULL;
+CREATE INDEX tv_shows_refreshed_at_idx ON public.tv_shows (refreshed_at);
+CREATE INDEX tv_shows_refresh_requested_at_idx ON public.tv_shows (refresh_requested_at)
+	WHERE refresh_requested_at IS NOT NULL;
@@ -0,0 +1,21 @@
+CREATE TABLE public.discovery_slices (
+	slice varchar NOT NULL,
+	total_pages int NULL,
+	split boolean DEFAULT false NOT NULL,
+	CONSTRAINT discovery_slices_pk PRIMARY KEY (slice)
+);
+
+-- The popularity walk explored so far becomes the unfiltered slice
+INSERT INTO public.discovery_slices (slice, total_pages)
+SELECT '', (SELECT value::int FROM public.app_properties WHERE "key" = 'tmdb:total-pages');
+DELETE FROM public.app_properties WHERE "key" = 'tmdb:total-pages';
+
+ALTER TABLE public.discovery_page_leases ADD slice varchar DEFAULT '' NOT NULL;
+ALTER TABLE public.discovery_page_leases DROP CONSTRAINT discovery_page_leases_pk;
+ALTER TABLE public.discovery_page_leases ADD CONSTRAINT discovery_page_leases_pk PRIMARY KEY (slice, page);
+ALTER TABLE public.discovery_page_leases ADD CONSTRAINT discovery_page_leases_discovery_slices_fk
+	FOREIGN KEY (slice) REFERENCES public.discovery_slices(slice);
+
+ALTER TABLE public.discovery_work_items ADD slice varchar DEFAULT '' NOT NULL;
+ALTER TABLE public.discovery_work_items DROP CONSTRAINT discovery_work_items_unique;
+ALTER TABLE public.discovery_work_items ADD CONSTRAINT discovery_work_items_unique UNIQUE ("type", slice, tmdb_id);
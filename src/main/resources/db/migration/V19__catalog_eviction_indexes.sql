@@ -0,0 +1,3 @@
+-- Evicting a tv show deletes its seasons and credits by tv_show_id
+CREATE INDEX seasons_tv_show_id_idx ON public.seasons (tv_show_id);
+CREATE INDEX actor_credits_tv_show_id_idx ON public.actor_credits (tv_show_id);
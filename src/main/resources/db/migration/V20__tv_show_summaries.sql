@@ -0,0 +1,28 @@
+-- Show fields repeated on every credit move to one row per tv show
+CREATE TABLE public.tv_show_summaries (
+	tv_show_tmdb_id bigint NOT NULL,
+	"name" varchar NOT NULL,
+	overview varchar NULL,
+	popularity double precision NOT NULL,
+	first_air_date date NULL,
+	CONSTRAINT tv_show_summaries_pk PRIMARY KEY (tv_show_tmdb_id)
+);
+
+-- Stored tv shows are the freshest source, the credits of the others are deduplicated
+INSERT INTO public.tv_show_summaries (tv_show_tmdb_id, "name", overview, popularity, first_air_date)
+SELECT DISTINCT ON (t.tmdb_id) t.tmdb_id, COALESCE(t."name", ''), t.overview, COALESCE(t.popularity, 0), t.first_air_date
+FROM public.tv_shows t
+WHERE EXISTS (SELECT 1 FROM public.actor_credits c WHERE c.tv_show_tmdb_id = t.tmdb_id);
+
+INSERT INTO public.tv_show_summaries (tv_show_tmdb_id, "name", overview, popularity, first_air_date)
+SELECT DISTINCT ON (c.tv_show_tmdb_id) c.tv_show_tmdb_id, c."name", c.overview, c.popularity, c.first_air_date
+FROM public.actor_credits c
+ORDER BY c.tv_show_tmdb_id, c.id DESC
+ON CONFLICT (tv_show_tmdb_id) DO NOTHING;
+
+DROP INDEX IF EXISTS public.actor_credit_popularity_idx;
+ALTER TABLE public.actor_credits
+	DROP COLUMN "name",
+	DROP COLUMN overview,
+	DROP COLUMN popularity,
+	DROP COLUMN first_air_date;
@@ -0,0 +1,5 @@
+-- Credits stored before their tv show only got linked when discovered through the cast of that show
+UPDATE public.actor_credits c
+SET tv_show_id = t.id
+FROM public.tv_shows t
+WHERE c.tv_show_id IS NULL AND c.tv_show_tmdb_id = t.tmdb_id;
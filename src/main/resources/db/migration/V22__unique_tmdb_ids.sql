@@ -0,0 +1,64 @@
+-- Concurrent collection could store the same TMDB entity twice. Duplicates are merged into their oldest row,
+-- then TMDB IDs are made unique so writers can upsert instead of reading before writing.
+
+-- Tv shows: the duplicates' credits and favorites move to the oldest row, their seasons and genres are dropped
+CREATE TEMP TABLE tv_show_keepers ON COMMIT DROP AS
+SELECT id, min(id) OVER (PARTITION BY tmdb_id) AS keeper FROM public.tv_shows;
+DELETE FROM tv_show_keepers WHERE id = keeper;
+
+DELETE FROM public.seasons s USING tv_show_keepers k WHERE s.tv_show_id = k.id;
+DELETE FROM public.tv_show_genres tg USING tv_show_keepers k WHERE tg.tv_show_id = k.id;
+UPDATE public.actor_credits c SET tv_show_id = k.keeper FROM tv_show_keepers k WHERE c.tv_show_id = k.id;
+DELETE FROM public.user_favorite_tv_shows f
+USING (
+	SELECT f2.id, row_number() OVER (PARTITION BY f2.user_id, COALESCE(k.keeper, f2.tv_show_id) ORDER BY f2.id) AS n
+	FROM public.user_favorite_tv_shows f2
+	LEFT JOIN tv_show_keepers k ON k.id = f2.tv_show_id
+) d
+WHERE f.id = d.id AND d.n > 1;
+UPDATE public.user_favorite_tv_shows f SET tv_show_id = k.keeper FROM tv_show_keepers k WHERE f.tv_show_id = k.id;
+DELETE FROM public.tv_shows t USING tv_show_keepers k WHERE t.id = k.id;
+
+-- Actors: the duplicates' credits move to the oldest row
+CREATE TEMP TABLE actor_keepers ON COMMIT DROP AS
+SELECT id, min(id) OVER (PARTITION BY tmdb_id) AS keeper, credits_discovered FROM public.actors;
+DELETE FROM actor_keepers WHERE id = keeper;
+
+UPDATE public.actors a SET credits_discovered = true
+FROM actor_keepers k WHERE a.id = k.keeper AND k.credits_discovered;
+UPDATE public.actor_credits c SET actor_id = k.keeper FROM actor_keepers k WHERE c.actor_id = k.id;
+DELETE FROM public.actors a USING actor_keepers k WHERE a.id = k.id;
+
+-- Actor credits: the credit linked to its tv show is kept, otherwise the oldest
+DELETE FROM public.actor_credits c
+USING (
+	SELECT id, row_number() OVER (PARTITION BY tmdb_id ORDER BY tv_show_id IS NULL, id) AS n
+	FROM public.actor_credits
+) d
+WHERE c.id = d.id AND d.n > 1;
+
+-- Genres: the duplicates' tv shows move to the oldest row
+CREATE TEMP TABLE genre_keepers ON COMMIT DROP AS
+SELECT id, min(id) OVER (PARTITION BY tmdb_id) AS keeper FROM public.genres;
+DELETE FROM genre_keepers WHERE id = keeper;
+
+DELETE FROM public.tv_show_genres tg
+USING (
+	SELECT tg2.id, row_number() OVER (PARTITION BY tg2.tv_show_id, COALESCE(k.keeper, tg2.genre_id) ORDER BY tg2.id) AS n
+	FROM public.tv_show_genres tg2
+	LEFT JOIN genre_keepers k ON k.id = tg2.genre_id
+) d
+WHERE tg.id = d.id AND d.n > 1;
+UPDATE public.tv_show_genres tg SET genre_id = k.keeper FROM genre_keepers k WHERE tg.genre_id = k.id;
+DELETE FROM public.genres g USING genre_keepers k WHERE g.id = k.id;
+
+-- The unique constraints replace the plain indexes on the same columns
+DROP INDEX IF EXISTS public.tv_show_tmdb_id_idx;
+DROP INDEX IF EXISTS public.actor_tmdb_id_idx;
+DROP INDEX IF EXISTS public.actor_credit_tmdb_id_idx;
+DROP INDEX IF EXISTS public.genres_tmdb_id_idx;
+
+ALTER TABLE public.tv_shows ADD CONSTRAINT tv_shows_tmdb_id_unique UNIQUE (tmdb_id);
+ALTER TABLE public.actors ADD CONSTRAINT actors_tmdb_id_unique UNIQUE (tmdb_id);
+ALTER TABLE public.actor_credits ADD CONSTRAINT actor_credits_tmdb_id_unique UNIQUE (tmdb_id);
+ALTER TABLE public.genres ADD CONSTRAINT genres_tmdb_id_unique UNIQUE (tmdb_id);
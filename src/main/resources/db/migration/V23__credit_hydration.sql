@@ -0,0 +1,10 @@
+-- Shows stored with credits before background hydration existed count as hydrated
+ALTER TABLE public.tv_shows ADD credits_hydrated_at timestamptz NULL;
+ALTER TABLE public.tv_shows ADD credits_requested_at timestamptz NULL;
+ALTER TABLE public.tv_shows ADD credits_claimed_until timestamptz NULL;
+
+UPDATE public.tv_shows t SET credits_hydrated_at = now()
+WHERE EXISTS (SELECT 1 FROM public.actor_credits c WHERE c.tv_show_id = t.id);
+
+CREATE INDEX tv_shows_credits_pending_idx ON public.tv_shows (credits_requested_at, popularity DESC)
+	WHERE credits_hydrated_at IS NULL;
@@ -0,0 +1,18 @@
+-- Keyset pagination seeks by (sort key, id), so every sortable column is indexed together with the id.
+-- The single-column indexes they replace are prefixes of the new ones.
+DROP INDEX IF EXISTS public.tv_show_popularity_idx;
+DROP INDEX IF EXISTS public.tv_show_vote_average_idx;
+DROP INDEX IF EXISTS public.tv_shows_name_idx;
+DROP INDEX IF EXISTS public.tv_shows_first_air_date_idx;
+CREATE INDEX tv_shows_popularity_id_idx ON public.tv_shows (popularity, id);
+CREATE INDEX tv_shows_vote_average_id_idx ON public.tv_shows (vote_average, id);
+CREATE INDEX tv_shows_name_id_idx ON public.tv_shows ("name", id);
+CREATE INDEX tv_shows_first_air_date_id_idx ON public.tv_shows (first_air_date, id);
+
+DROP INDEX IF EXISTS public.actor_popularity_idx;
+DROP INDEX IF EXISTS public.actors_name_idx;
+CREATE INDEX actors_popularity_id_idx ON public.actors (popularity, id);
+CREATE INDEX actors_name_id_idx ON public.actors ("name", id);
+
+DROP INDEX IF EXISTS public.user_favorite_tv_shows_favorited_at_idx;
+CREATE INDEX user_favorite_tv_shows_user_favorited_at_idx ON public.user_favorite_tv_shows (user_id, favorited_at, id);
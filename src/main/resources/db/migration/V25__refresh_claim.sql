@@ -0,0 +1,2 @@
+-- Shows being refreshed are claimed until then, refreshed_at is only set once the refresh succeeded
+ALTER TABLE public.tv_shows ADD refresh_claimed_until timestamptz NULL;
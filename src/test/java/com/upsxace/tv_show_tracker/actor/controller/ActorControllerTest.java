@@ -0,0 +1,69 @@
+package com.upsxace.tv_show_tracker.actor.controller;
+
+import com.upsxace.tv_show_tracker.actor.entity.ActorCredit;
+import com.upsxace.tv_show_tracker.actor.service.ActorService;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShowSummary;
+import graphql.GraphQLContext;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+
+class ActorControllerTest {
+
+    private ActorService actorService;
+    private ActorController controller;
+    private DataLoader<Long, TvShowSummary> summaries;
+
+    @BeforeEach
+    void setUp() {
+        actorService = mock(ActorService.class);
+        var batchLoaderRegistry = new DefaultBatchLoaderRegistry();
+        controller = new ActorController(actorService, batchLoaderRegistry);
+        controller.registerLoaders();
+
+        var dataLoaderRegistry = new DataLoaderRegistry();
+        batchLoaderRegistry.registerDataLoaders(dataLoaderRegistry, GraphQLContext.newContext().build());
+        summaries = dataLoaderRegistry.getDataLoader(TvShowSummary.class.getName());
+    }
+
+    private ActorCredit credit(long tvShowTmdbId) {
+        return ActorCredit.builder().tvShowTmdbId(tvShowTmdbId).build();
+    }
+
+    @Test
+    void summaryFields_loadedOncePerTvShowForAllCredits() {
+        when(actorService.getTvShowSummaries(anySet())).thenReturn(Map.of(
+                100L, TvShowSummary.builder().tvShowTmdbId(100L).name("Show").popularity(4.5).build(),
+                101L, TvShowSummary.builder().tvShowTmdbId(101L).name("Other").popularity(1.0).build()
+        ));
+
+        var name = controller.name(credit(100L), summaries);
+        var popularity = controller.popularity(credit(100L), summaries);
+        var otherName = controller.name(credit(101L), summaries);
+        summaries.dispatchAndJoin();
+
+        assertEquals("Show", name.join());
+        assertEquals(4.5, popularity.join());
+        assertEquals("Other", otherName.join());
+        verify(actorService, times(1)).getTvShowSummaries(Set.of(100L, 101L));
+    }
+
+    @Test
+    void summaryFields_missingSummary_resolvesNull() {
+        when(actorService.getTvShowSummaries(anySet())).thenReturn(Map.of());
+
+        var overview = controller.overview(credit(100L), summaries);
+        summaries.dispatchAndJoin();
+
+        assertNull(overview.join());
+    }
+}
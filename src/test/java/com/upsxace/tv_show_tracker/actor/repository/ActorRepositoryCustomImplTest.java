@@ -0,0 +1,56 @@
+package com.upsxace.tv_show_tracker.actor.repository;
+
+import com.upsxace.tv_show_tracker.actor.entity.Actor;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ActorRepositoryCustomImplTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ActorRepositoryCustomImpl repository = new ActorRepositoryCustomImpl(jdbcTemplate);
+
+    @Test
+    void upsertAll_storesEachTmdbIdOnceAndSetsStoredState() throws Exception {
+        var first = Actor.builder().tmdbId(1L).name("First").build();
+        var duplicate = Actor.builder().tmdbId(1L).name("Duplicate").build();
+        var second = Actor.builder().tmdbId(2L).name("Second").build();
+
+        var rs = mock(ResultSet.class);
+        when(rs.getLong("tmdb_id")).thenReturn(1L, 2L);
+        when(rs.getLong("id")).thenReturn(50L, 51L);
+        when(rs.getBoolean("credits_discovered")).thenReturn(true, false);
+        doAnswer(inv -> {
+            Long[] tmdbIds = inv.getArgument(2);
+            String[] names = inv.getArgument(3);
+            assertArrayEquals(new Long[]{1L, 2L}, tmdbIds);
+            assertArrayEquals(new String[]{"First", "Second"}, names);
+            RowCallbackHandler handler = inv.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(contains("ON CONFLICT (tmdb_id)"), any(RowCallbackHandler.class), any(), any(), any(), any());
+
+        var stored = repository.upsertAll(List.of(first, duplicate, second));
+
+        assertEquals(List.of(first, second), stored);
+        assertEquals(50L, first.getId());
+        assertTrue(first.getCreditsDiscovered());
+        assertEquals(51L, second.getId());
+        assertFalse(second.getCreditsDiscovered());
+        assertNull(duplicate.getId());
+    }
+
+    @Test
+    void upsertAll_nothingToStore_skipsTheDatabase() {
+        assertTrue(repository.upsertAll(List.of()).isEmpty());
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
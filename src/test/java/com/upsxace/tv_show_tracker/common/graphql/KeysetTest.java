@@ -0,0 +1,52 @@
+package com.upsxace.tv_show_tracker.common.graphql;
+
+import com.upsxace.tv_show_tracker.common.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetTest {
+
+    @Test
+    void after_comparesSortKeyAndIdInSortDirection() {
+        var keyset = Keyset.by("popularity", "t.popularity", "double precision", "t.id", SortDirection.DESC);
+        List<Object> args = new ArrayList<>();
+
+        var predicate = keyset.after(new Cursor("popularity:DESC", "12.5", 7L), args);
+
+        assertEquals("(t.popularity, t.id) < (?::double precision, ?)", predicate);
+        assertEquals(List.of("12.5", 7L), args);
+        assertEquals("t.popularity DESC, t.id DESC", keyset.orderBy());
+        assertEquals("TRUE", keyset.after(null, new ArrayList<>()));
+    }
+
+    @Test
+    void after_orderedById_comparesIdOnly() {
+        var keyset = Keyset.byId("id", "a.id", SortDirection.ASC);
+        List<Object> args = new ArrayList<>();
+
+        assertEquals("a.id > ?", keyset.after(new Cursor("id:ASC", null, 3L), args));
+        assertEquals(List.of(3L), args);
+        assertEquals("a.id ASC", keyset.orderBy());
+    }
+
+    @Test
+    void cursor_roundTripsThroughItsEncoding() {
+        var cursor = new Cursor("name:ASC", "Line\nbreak | name", 42L);
+
+        assertEquals(cursor, Cursor.decode(cursor.encode(), "name:ASC"));
+        assertEquals(new Cursor("id:DESC", null, 9L), Cursor.decode(new Cursor("id:DESC", null, 9L).encode(), "id:DESC"));
+        assertNull(Cursor.decode(null, "name:ASC"));
+    }
+
+    @Test
+    void cursor_malformedOrOfAnotherOrdering_isRejected() {
+        var cursor = new Cursor("name:ASC", "Dark", 42L).encode();
+
+        assertThrows(BadRequestException.class, () -> Cursor.decode(cursor, "name:DESC"));
+        assertThrows(BadRequestException.class, () -> Cursor.decode("not a cursor", "name:ASC"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.upsxace.tv_show_tracker.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_concurrentCallsForSameKey_runOnce() throws Exception {
+        var calls = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        var entered = new CountDownLatch(8);
+        var results = new ArrayList<CompletableFuture<String>>();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    entered.countDown();
+                    return singleFlight.execute(1L, () -> {
+                        calls.incrementAndGet();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        return "credits";
+                    });
+                }, executor));
+            }
+            entered.await();
+            // Lets the callers reach the flight in progress
+            Thread.sleep(100);
+            release.countDown();
+
+            for (var result : results) assertEquals("credits", result.get());
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    void execute_afterCallEnds_runsAgain() {
+        var calls = new AtomicInteger();
+
+        singleFlight.execute(1L, () -> "first " + calls.incrementAndGet());
+        var second = singleFlight.execute(1L, () -> "second " + calls.incrementAndGet());
+
+        assertEquals("second 2", second);
+    }
+
+    @Test
+    void execute_failure_isThrownAndNotKept() {
+        var error = new IllegalStateException("TMDB down");
+
+        assertSame(error, assertThrows(IllegalStateException.class, () -> singleFlight.execute(1L, () -> {
+            throw error;
+        })));
+        assertEquals("ok", singleFlight.execute(1L, () -> "ok"));
+    }
+}
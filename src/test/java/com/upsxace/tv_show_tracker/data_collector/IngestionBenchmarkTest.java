@@ -0,0 +1,183 @@
+package com.upsxace.tv_show_tracker.data_collector;
+
+import com.upsxace.tv_show_tracker.data_collector.discovery.DiscoveryPipeline;
+import com.upsxace.tv_show_tracker.data_collector.http.FakeTmdbServer;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import com.upsxace.tv_show_tracker.tv_show.repository.TvShowRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the throughput of the whole ingestion path against a {@link FakeTmdbServer}:
+ * discovery of new TV shows, then filling the credits of some of them.
+ * <p>
+ * Reports TV shows per second, TMDB calls per TV show, database statements per TV show and transactions.
+ * Statements are counted by the database through {@code pg_stat_statements}, so the ones run by
+ * {@code JdbcTemplate} and {@code COPY} are counted too. Without the extension, they are reported as n/a.
+ * Needs a database, so it only runs with the {@code benchmark} profile:
+ * <pre>
+ * DATABASE_NAME=tv_tracker_bench mvn test -Pbenchmark -Dbenchmark.pages=20 -Dbenchmark.latency-ms=20
+ * </pre>
+ * Other settings: {@code benchmark.credit-fills}, {@code benchmark.error-rate} and {@code benchmark.throttle-rate}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "app.discovery.enabled=false",
+        // The stand-in server ignores discover filters, so only the unfiltered slice is crawled
+        "app.discovery.slices.enabled=false",
+        "app.refresh.enabled=false",
+        "tmdb.cache.enabled=false",
+        "tmdb.rate-limit.initial-rate=200",
+        "tmdb.rate-limit.max-rate=500",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class IngestionBenchmarkTest {
+
+    private static final int PAGES = Integer.getInteger("benchmark.pages", 20);
+    private static final int CREDIT_FILLS = Integer.getInteger("benchmark.credit-fills", 50);
+
+    private static final FakeTmdbServer tmdbServer = startTmdbServer();
+
+    @Autowired
+    private TmdbService tmdbService;
+    @Autowired
+    private DiscoveryPipeline discoveryPipeline;
+    @Autowired
+    private TvShowRepository tvShowRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static FakeTmdbServer startTmdbServer() {
+        try {
+            var server = new FakeTmdbServer();
+            server.setLatency(Duration.ofMillis(Long.getLong("benchmark.latency-ms", 20)));
+            server.setErrorRate(Double.parseDouble(System.getProperty("benchmark.error-rate", "0")));
+            server.setThrottleRate(Double.parseDouble(System.getProperty("benchmark.throttle-rate", "0")));
+            return server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void tmdbProperties(DynamicPropertyRegistry registry) {
+        registry.add("tmdb.base-url", tmdbServer::getBaseUrl);
+        registry.add("tmdb.api-key", () -> "benchmark");
+    }
+
+    @AfterAll
+    static void stopTmdbServer() {
+        tmdbServer.close();
+    }
+
+    @FunctionalInterface
+    private interface Phase {
+        void run() throws InterruptedException;
+    }
+
+    /**
+     * Statements run in this database so far, counted by {@code pg_stat_statements}.
+     *
+     * @return the count, or -1 if the extension is not installed
+     */
+    private long statementCount() {
+        try {
+            Long calls = jdbcTemplate.queryForObject("""
+                    SELECT COALESCE(sum(calls), 0)::bigint FROM pg_stat_statements
+                    WHERE dbid = (SELECT oid FROM pg_database WHERE datname = current_database())
+                    """, Long.class);
+            return calls == null ? -1 : calls;
+        } catch (DataAccessException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Runs a phase of the ingestion and logs its throughput.
+     *
+     * @param tvShows number of TV shows processed by the phase, computed after it ran
+     */
+    private void measure(String name, Phase phase, LongSupplier tvShows) throws InterruptedException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        tmdbServer.resetCounters();
+        long statementsBefore = statementCount();
+
+        long start = System.nanoTime();
+        phase.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long statementsAfter = statementCount();
+        long count = Math.max(1, tvShows.getAsLong());
+        // The query counting the statements is counted once
+        String statements = statementsBefore < 0 || statementsAfter < 0 ? "n/a"
+                : String.format("%.2f", (double) (statementsAfter - statementsBefore - 1) / count);
+        log.info("""
+
+                        == {} ==
+                        tv shows:              {}
+                        elapsed:               {} s
+                        tv shows/s:            {}
+                        tmdb calls/tv show:    {} ({} throttled, {} errors)
+                        db statements/tv show: {} ({} transactions)
+                        tmdb calls by endpoint: {}""",
+                name,
+                count,
+                String.format("%.2f", seconds),
+                String.format("%.1f", count / seconds),
+                String.format("%.2f", (double) tmdbServer.getRequestCount() / count),
+                tmdbServer.getThrottledCount(),
+                tmdbServer.getErrorCount(),
+                statements,
+                statistics.getTransactionCount(),
+                tmdbServer.getRequestsByEndpoint()
+        );
+    }
+
+    @Test
+    void ingestion() throws InterruptedException {
+        int firstPage = tmdbService.getPagesExplored() + 1;
+        long tvShowsBefore = tvShowRepository.count();
+
+        var pagesStarted = new AtomicInteger();
+        measure(
+                "discovery",
+                () -> discoveryPipeline.run(() -> pagesStarted.getAndIncrement() < PAGES),
+                () -> tvShowRepository.count() - tvShowsBefore
+        );
+        assertTrue(tmdbService.getPagesExplored() >= firstPage);
+
+        var tvShows = tvShowRepository.findByTmdbIdIn(
+                LongStream.range((firstPage - 1) * 20L + 1, (firstPage - 1) * 20L + 1 + CREDIT_FILLS).boxed().toList()
+        );
+        measure(
+                "fill tv show credits",
+                () -> tvShows.forEach(tmdbService::fillTvShowCredits),
+                tvShows::size
+        );
+    }
+}
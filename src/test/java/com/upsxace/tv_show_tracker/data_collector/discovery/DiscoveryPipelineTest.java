@@ -0,0 +1,140 @@
+package com.upsxace.tv_show_tracker.data_collector.discovery;
+
+import com.upsxace.tv_show_tracker.data_collector.dto.TvShowDto;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvShowsResponse;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkItemType;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkQueueService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DiscoveryPipelineTest {
+
+    private TmdbService tmdbService;
+    private WorkQueueService workQueueService;
+    private PageLeaseService pageLeaseService;
+    private DiscoveryPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        tmdbService = mock(TmdbService.class);
+        workQueueService = mock(WorkQueueService.class);
+        pageLeaseService = mock(PageLeaseService.class);
+        var config = new DiscoveryConfig();
+        config.setPagesInFlight(2);
+        config.setFetchWorkers(4);
+        pipeline = new DiscoveryPipeline(tmdbService, config, workQueueService, pageLeaseService,
+                new SimpleMeterRegistry());
+        pipeline.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    private TvShowsResponse page(int page, int totalPages, Long... ids) {
+        var results = Arrays.stream(ids)
+                .map(id -> new TvShowDto(id, null, null, null, null, null, null, null, null))
+                .toList();
+        return new TvShowsResponse(page, totalPages, (long) ids.length, results);
+    }
+
+    /**
+     * Leases the pages from {@code first} to {@code last}, then no more.
+     */
+    private void leasePages(int first, int last) {
+        var next = new AtomicInteger(first);
+        when(pageLeaseService.acquire()).thenAnswer(inv -> {
+            int page = next.getAndIncrement();
+            return page <= last ? Optional.of(new PageLease("", page)) : Optional.empty();
+        });
+    }
+
+    @Test
+    void run_persistsEveryLeasedPageInOrder() throws InterruptedException {
+        leasePages(1, 3);
+        when(tmdbService.fetchDiscoverPage("", 1)).thenReturn(page(1, 3, 1L, 2L));
+        when(tmdbService.fetchDiscoverPage("", 2)).thenReturn(page(2, 3, 3L));
+        when(tmdbService.fetchDiscoverPage("", 3)).thenReturn(page(3, 3, 4L));
+        when(tmdbService.findMissingTvShowIds(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(tmdbService.fetchTvShow(anyLong())).thenReturn(new DiscoveredTvShow(null, List.of()));
+
+        pipeline.run(() -> true);
+
+        InOrder inOrder = inOrder(tmdbService);
+        ArgumentCaptor<List<DiscoveredTvShow>> captor = ArgumentCaptor.captor();
+        inOrder.verify(tmdbService).persistDiscoveredPage(eq(new PageLease("", 1)), any(), captor.capture());
+        inOrder.verify(tmdbService).persistDiscoveredPage(eq(new PageLease("", 2)), any(), anyList());
+        inOrder.verify(tmdbService).persistDiscoveredPage(eq(new PageLease("", 3)), any(), anyList());
+        assertEquals(2, captor.getValue().size());
+        verify(tmdbService, never()).fetchDiscoverPage("", 4);
+        verify(tmdbService, times(4)).fetchTvShow(anyLong());
+        verify(pageLeaseService).releaseAll();
+        verify(pageLeaseService, never()).fail(any());
+    }
+
+    @Test
+    void run_everyFetchFailed_givesUpLeaseBeforePersistingPage() {
+        leasePages(5, 10);
+        when(tmdbService.fetchDiscoverPage("", 5)).thenReturn(page(5, 10, 1L));
+        when(tmdbService.findMissingTvShowIds(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(tmdbService.fetchTvShow(anyLong())).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(RuntimeException.class, () -> pipeline.run(() -> true));
+        verify(tmdbService, never()).persistDiscoveredPage(any(), any(), anyList());
+        verifyNoInteractions(workQueueService);
+        InOrder inOrder = inOrder(pageLeaseService);
+        inOrder.verify(pageLeaseService).fail(new PageLease("", 5));
+        inOrder.verify(pageLeaseService).releaseAll();
+    }
+
+    @Test
+    void run_prefetchFailed_givesUpLease() {
+        leasePages(7, 10);
+        when(tmdbService.fetchDiscoverPage("", 7)).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> pipeline.run(() -> true));
+        verify(pageLeaseService).fail(new PageLease("", 7));
+        verify(tmdbService, never()).persistDiscoveredPage(any(), any(), anyList());
+    }
+
+    @Test
+    void run_someFetchesFailed_persistsPageAndQueuesFailedShows() throws InterruptedException {
+        leasePages(5, 5);
+        when(tmdbService.fetchDiscoverPage("", 5)).thenReturn(page(5, 5, 1L, 2L, 3L));
+        when(tmdbService.findMissingTvShowIds(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(tmdbService.fetchTvShow(anyLong())).thenReturn(new DiscoveredTvShow(null, List.of()));
+        var error = new IllegalStateException("boom");
+        when(tmdbService.fetchTvShow(2L)).thenThrow(error);
+
+        pipeline.run(() -> true);
+
+        ArgumentCaptor<List<DiscoveredTvShow>> captor = ArgumentCaptor.captor();
+        verify(tmdbService).persistDiscoveredPage(eq(new PageLease("", 5)), any(), captor.capture());
+        assertEquals(2, captor.getValue().size());
+        verify(workQueueService).recordFailure(WorkItemType.TV_SHOW, 2L, error);
+        verifyNoMoreInteractions(workQueueService);
+    }
+
+    @Test
+    void run_conditionFalse_fetchesNothing() throws InterruptedException {
+        pipeline.run(() -> false);
+
+        verify(tmdbService, never()).fetchDiscoverPage(any(), anyInt());
+        verify(tmdbService, never()).persistDiscoveredPage(any(), any(), anyList());
+    }
+}
@@ -0,0 +1,93 @@
+package com.upsxace.tv_show_tracker.data_collector.discovery;
+
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkItemType;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkQueueService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PageLeaseServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private WorkQueueService workQueueService;
+    private SlicePlanner slicePlanner;
+    private PageLeaseService pageLeaseService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        workQueueService = mock(WorkQueueService.class);
+        slicePlanner = mock(SlicePlanner.class);
+        var config = new DiscoveryConfig();
+        config.getLease().setNodeId("node-a");
+        config.getLease().setMaxAttempts(3);
+        pageLeaseService = new PageLeaseService(jdbcTemplate, config, workQueueService, slicePlanner);
+        pageLeaseService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pageLeaseService.shutdown();
+    }
+
+    private void reclaimable(List<Map.Entry<PageLease, Integer>> first) {
+        when(jdbcTemplate.<Map.Entry<PageLease, Integer>>query(startsWith("UPDATE"), any(RowMapper.class), any(), any()))
+                .thenReturn(first, List.of());
+    }
+
+    private void newPages(List<PageLease> leased) {
+        when(jdbcTemplate.<PageLease>query(startsWith("INSERT"), any(RowMapper.class), any(), any(), any()))
+                .thenReturn(leased);
+    }
+
+    @Test
+    void acquire_prefersReleasedOrExpiredPages() {
+        var released = new PageLease("first_air_date_year=2019", 3);
+        reclaimable(List.of(Map.entry(released, 1)));
+
+        assertEquals(Optional.of(released), pageLeaseService.acquire());
+        verify(jdbcTemplate, never()).query(startsWith("INSERT"), any(RowMapper.class), any(), any(), any());
+    }
+
+    @Test
+    void acquire_pageFailedTooManyTimes_skipsAndQueuesIt() {
+        var failing = new PageLease("first_air_date_year=2019", 3);
+        var next = new PageLease("", 8);
+        reclaimable(List.of(Map.entry(failing, 3)));
+        newPages(List.of(next));
+
+        assertEquals(Optional.of(next), pageLeaseService.acquire());
+        verify(jdbcTemplate).update(contains("completed = true"), eq("node-a"), eq("first_air_date_year=2019"), eq(3));
+        verify(workQueueService).recordFailure(eq(WorkItemType.DISCOVER_PAGE), eq("first_air_date_year=2019"), eq(3L), any());
+    }
+
+    @Test
+    void acquire_noPagesLeft_returnsEmpty() {
+        reclaimable(List.of());
+        newPages(List.of());
+        when(jdbcTemplate.queryForObject(contains("EXISTS"), eq(Boolean.class), any())).thenReturn(false);
+
+        assertTrue(pageLeaseService.acquire().isEmpty());
+        verify(jdbcTemplate, times(1)).query(startsWith("INSERT"), any(RowMapper.class), any(), any(), any());
+    }
+
+    @Test
+    void complete_recordsTotalPagesOfSlice() {
+        var lease = new PageLease("first_air_date_year=2019", 1);
+
+        pageLeaseService.complete(lease, 620);
+
+        verify(jdbcTemplate).update(contains("completed = true"), eq("node-a"), eq("first_air_date_year=2019"), eq(1));
+        verify(slicePlanner).recordTotalPages("first_air_date_year=2019", 620);
+    }
+}
@@ -0,0 +1,75 @@
+package com.upsxace.tv_show_tracker.data_collector.discovery;
+
+import com.upsxace.tv_show_tracker.genre.Genre;
+import com.upsxace.tv_show_tracker.genre.GenreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Year;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SlicePlannerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private GenreRepository genreRepository;
+    private DiscoveryConfig config;
+    private SlicePlanner slicePlanner;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        genreRepository = mock(GenreRepository.class);
+        config = new DiscoveryConfig();
+        config.getSlices().setFromYear(2000);
+        slicePlanner = new SlicePlanner(jdbcTemplate, config, genreRepository);
+    }
+
+    @Test
+    void getInitialSlices_unfilteredWalkThenYearsNewestFirst() {
+        var slices = slicePlanner.getInitialSlices();
+
+        int nextYear = Year.now().getValue() + 1;
+        assertEquals("", slices.getFirst());
+        assertEquals("first_air_date_year=" + nextYear, slices.get(1));
+        assertEquals("first_air_date_year=2000", slices.getLast());
+        assertEquals(nextYear - 2000 + 2, slices.size());
+    }
+
+    @Test
+    void getInitialSlices_disabled_onlyUnfilteredWalk() {
+        config.getSlices().setEnabled(false);
+
+        assertEquals(List.of(""), slicePlanner.getInitialSlices());
+    }
+
+    @Test
+    void recordTotalPages_deepYearSlice_splitsByGenre() {
+        when(genreRepository.findAll()).thenReturn(List.of(
+                Genre.builder().tmdbId(18L).build(), Genre.builder().tmdbId(35L).build()
+        ));
+
+        slicePlanner.recordTotalPages("first_air_date_year=2019", 620);
+
+        ArgumentCaptor<List<Object[]>> children = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), children.capture());
+        assertEquals(List.of("first_air_date_year=2019&with_genres=18", "first_air_date_year=2019&with_genres=35"),
+                children.getValue().stream().map(row -> row[0]).toList());
+        verify(jdbcTemplate).update(contains("split = true"), eq("first_air_date_year=2019"));
+    }
+
+    @Test
+    void recordTotalPages_unfilteredOrShallowSlice_isNotSplit() {
+        slicePlanner.recordTotalPages("", 9000);
+        slicePlanner.recordTotalPages("first_air_date_year=2019", 300);
+        slicePlanner.recordTotalPages("first_air_date_year=2019&with_genres=18", 700);
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verifyNoInteractions(genreRepository);
+    }
+}
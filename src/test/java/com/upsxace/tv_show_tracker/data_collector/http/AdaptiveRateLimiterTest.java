@@ -0,0 +1,140 @@
+package com.upsxace.tv_show_tracker.data_collector.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveRateLimiterTest {
+
+    private AdaptiveRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        var config = new TmdbConfig();
+        config.getRateLimit().setInitialRate(100);
+        config.getRateLimit().setMaxRate(200);
+        config.getRateLimit().setAdditiveIncrease(10);
+        rateLimiter = new AdaptiveRateLimiter(config, new SimpleMeterRegistry());
+        rateLimiter.init();
+    }
+
+    private HttpClientErrorException tooManyRequests(String retryAfter) {
+        var headers = new HttpHeaders();
+        if (retryAfter != null) headers.add(HttpHeaders.RETRY_AFTER, retryAfter);
+        return HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "", headers, new byte[0], null);
+    }
+
+    @Test
+    void execute_success_increasesRate() {
+        assertEquals("ok", rateLimiter.execute(() -> "ok"));
+        assertEquals(100.1, rateLimiter.getCurrentRate(), 1e-9);
+    }
+
+    @Test
+    void execute_throttled_halvesRateAndRetries() {
+        var attempts = new AtomicInteger();
+
+        var result = rateLimiter.execute(() -> {
+            if (attempts.getAndIncrement() == 0) throw tooManyRequests("0");
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, attempts.get());
+        assertEquals(1, rateLimiter.getThrottledCount());
+        assertTrue(rateLimiter.getCurrentRate() < 51);
+    }
+
+    @Test
+    void execute_serverErrorOnEveryAttempt_givesUpAfterMaxRetries() {
+        var attempts = new AtomicInteger();
+
+        assertThrows(HttpServerErrorException.class, () -> rateLimiter.execute(() -> {
+            attempts.incrementAndGet();
+            throw HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "", new HttpHeaders(), new byte[0], null);
+        }));
+
+        assertEquals(4, attempts.get());
+        assertEquals(4, rateLimiter.getServerErrorCount());
+    }
+
+    @Test
+    void execute_clientError_isNotRetried() {
+        var attempts = new AtomicInteger();
+
+        assertThrows(HttpClientErrorException.class, () -> rateLimiter.execute(() -> {
+            attempts.incrementAndGet();
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "", new HttpHeaders(), new byte[0], null);
+        }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(100, rateLimiter.getCurrentRate());
+    }
+
+    @Test
+    void executeAsync_throttled_retries() {
+        var attempts = new AtomicInteger();
+
+        var result = rateLimiter.executeAsync(() -> attempts.getAndIncrement() == 0
+                ? CompletableFuture.failedFuture(tooManyRequests(null))
+                : CompletableFuture.completedFuture("ok")
+        ).join();
+
+        assertEquals("ok", result);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void executeAsync_throttled_schedulesRetryWithoutBlockingTheCompletingThread() {
+        var firstAttempt = new CompletableFuture<String>();
+        var attempts = new AtomicInteger();
+
+        var result = rateLimiter.executeAsync(() -> attempts.getAndIncrement() == 0
+                ? firstAttempt
+                : CompletableFuture.completedFuture("ok")
+        );
+        long start = System.nanoTime();
+        firstAttempt.completeExceptionally(tooManyRequests("1"));
+
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(500).toNanos());
+        assertFalse(result.isDone());
+        assertEquals("ok", result.join());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void executeAsync_permitNotDue_returnsWithoutBlockingTheCaller() {
+        var config = new TmdbConfig();
+        config.getRateLimit().setInitialRate(1);
+        var slowLimiter = new AdaptiveRateLimiter(config, new SimpleMeterRegistry());
+        slowLimiter.init();
+        slowLimiter.executeAsync(() -> CompletableFuture.completedFuture("first")).join();
+
+        long start = System.nanoTime();
+        var second = slowLimiter.executeAsync(() -> CompletableFuture.completedFuture("second"));
+
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(500).toNanos());
+        assertFalse(second.isDone());
+        assertEquals("second", second.join());
+    }
+
+    @Test
+    void parseRetryAfter_acceptsSecondsAndFallsBackOnGarbage() {
+        var headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, "7");
+        assertEquals(Duration.ofSeconds(7), AdaptiveRateLimiter.parseRetryAfter(headers));
+
+        headers.set(HttpHeaders.RETRY_AFTER, "soon");
+        assertEquals(Duration.ofSeconds(1), AdaptiveRateLimiter.parseRetryAfter(headers));
+    }
+}
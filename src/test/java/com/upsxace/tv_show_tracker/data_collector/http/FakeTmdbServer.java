@@ -0,0 +1,326 @@
+package com.upsxace.tv_show_tracker.data_collector.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.upsxace.tv_show_tracker.data_collector.dto.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Embeddable stand-in for the TMDB API, serving deterministic generated data.
+ * <p>
+ * Serves {@code /3/genre/tv/list}, {@code /3/discover/tv}, {@code /3/tv/{id}} (with
+ * {@code append_to_response=credits}), {@code /3/tv/{id}/credits} and {@code /3/person/{id}/tv_credits}.
+ * Every response only depends on the request and the catalog size, so runs are comparable.
+ * Latency, server errors and throttling (429 with {@code Retry-After}) can be injected and changed while running.
+ */
+public class FakeTmdbServer implements AutoCloseable {
+
+    private static final Pattern TV_SHOW = Pattern.compile("^/3/tv/(\\d+)$");
+    private static final Pattern TV_SHOW_CREDITS = Pattern.compile("^/3/tv/(\\d+)/credits$");
+    private static final Pattern PERSON_CREDITS = Pattern.compile("^/3/person/(\\d+)/tv_credits$");
+    private static final int GENRE_COUNT = 16;
+    private static final int CREDITS_PER_PERSON = 8;
+
+    private final int totalPages;
+    private final int showsPerPage;
+    private final int castPerShow;
+    private final int actorCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer server;
+
+    @Getter @Setter
+    private volatile Duration latency = Duration.ZERO;
+    /** Fraction of requests answered with 500 */
+    @Getter @Setter
+    private volatile double errorRate;
+    /** Fraction of requests answered with 429 */
+    @Getter @Setter
+    private volatile double throttleRate;
+    @Getter @Setter
+    private volatile Duration retryAfter = Duration.ofSeconds(1);
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+    private final Map<String, AtomicLong> requestsByEndpoint = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a server for a catalog of {@code totalPages * showsPerPage} TV shows.
+     *
+     * @param totalPages   number of discover pages
+     * @param showsPerPage TV shows per discover page
+     * @param castPerShow  cast members of each TV show
+     * @param actorCount   number of distinct actors the cast is drawn from
+     */
+    public FakeTmdbServer(int totalPages, int showsPerPage, int castPerShow, int actorCount) throws IOException {
+        this.totalPages = totalPages;
+        this.showsPerPage = showsPerPage;
+        this.castPerShow = castPerShow;
+        this.actorCount = actorCount;
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/3/", this::handle);
+    }
+
+    /**
+     * Creates a server with 500 pages of 20 TV shows, casts of 10 drawn from 20000 actors.
+     */
+    public FakeTmdbServer() throws IOException {
+        this(500, 20, 10, 20000);
+    }
+
+    public FakeTmdbServer start() {
+        server.start();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    public long getThrottledCount() {
+        return throttledCount.get();
+    }
+
+    /**
+     * Requests received by endpoint, e.g. {@code /3/tv/{id}}.
+     */
+    public Map<String, Long> getRequestsByEndpoint() {
+        var result = new TreeMap<String, Long>();
+        requestsByEndpoint.forEach((k, v) -> result.put(k, v.get()));
+        return result;
+    }
+
+    public void resetCounters() {
+        requestCount.set(0);
+        errorCount.set(0);
+        throttledCount.set(0);
+        requestsByEndpoint.clear();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requestCount.incrementAndGet();
+            if (!latency.isZero()) Thread.sleep(latency);
+
+            var random = ThreadLocalRandom.current().nextDouble();
+            if (random < throttleRate) {
+                throttledCount.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(retryAfter.toSeconds()));
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+            if (random < throttleRate + errorRate) {
+                errorCount.incrementAndGet();
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+
+            var path = exchange.getRequestURI().getPath();
+            var query = parseQuery(exchange.getRequestURI().getRawQuery());
+            Object body = route(path, query);
+            if (body == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            var bytes = objectMapper.writeValueAsBytes(body);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Object route(String path, Map<String, String> query) {
+        if (path.equals("/3/genre/tv/list")) {
+            count("/3/genre/tv/list");
+            return new TvGenreListResponse(LongStream.rangeClosed(1, GENRE_COUNT).mapToObj(this::genre).toList());
+        }
+        if (path.equals("/3/discover/tv")) {
+            count("/3/discover/tv");
+            return discoverPage(Integer.parseInt(query.getOrDefault("page", "1")));
+        }
+
+        var matcher = TV_SHOW.matcher(path);
+        if (matcher.matches()) {
+            count("/3/tv/{id}");
+            var id = Long.parseLong(matcher.group(1));
+            var withCredits = query.getOrDefault("append_to_response", "").contains("credits");
+            return isTvShow(id) ? tvShowDetails(id, withCredits) : null;
+        }
+        matcher = TV_SHOW_CREDITS.matcher(path);
+        if (matcher.matches()) {
+            count("/3/tv/{id}/credits");
+            var id = Long.parseLong(matcher.group(1));
+            return isTvShow(id) ? new TvShowCreditsResponse(cast(id)) : null;
+        }
+        matcher = PERSON_CREDITS.matcher(path);
+        if (matcher.matches()) {
+            count("/3/person/{id}/tv_credits");
+            var id = Long.parseLong(matcher.group(1));
+            return id >= 1 && id <= actorCount ? new TvShowPersonCreditsResponse(personCredits(id)) : null;
+        }
+        return null;
+    }
+
+    private void count(String endpoint) {
+        requestsByEndpoint.computeIfAbsent(endpoint, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> result = new HashMap<>();
+        if (query == null) return result;
+        for (var param : query.split("&")) {
+            var parts = param.split("=", 2);
+            result.put(parts[0], parts.length > 1 ? parts[1] : "");
+        }
+        return result;
+    }
+
+    private boolean isTvShow(long id) {
+        return id >= 1 && id <= (long) totalPages * showsPerPage;
+    }
+
+    private GenreDto genre(long id) {
+        return new GenreDto(id, "Genre " + id);
+    }
+
+    private List<Long> genreIds(long tvShowId) {
+        var random = new Random(tvShowId);
+        return random.longs(1 + random.nextInt(3), 1, GENRE_COUNT + 1).distinct().boxed().toList();
+    }
+
+    /**
+     * TV shows are numbered in order of popularity, starting at 1 on the first page.
+     */
+    private double popularity(long tvShowId) {
+        return 10000.0 / tvShowId;
+    }
+
+    private LocalDate firstAirDate(long tvShowId) {
+        return LocalDate.of(1990, 1, 1).plusDays(tvShowId % 12000);
+    }
+
+    private TvShowsResponse discoverPage(int page) {
+        var results = page < 1 || page > totalPages
+                ? List.<TvShowDto>of()
+                : LongStream.rangeClosed((long) (page - 1) * showsPerPage + 1, (long) page * showsPerPage)
+                .mapToObj(id -> new TvShowDto(
+                        id,
+                        "Show " + id,
+                        genreIds(id).stream().map(Long::intValue).toList(),
+                        "Overview of show " + id,
+                        (id % 100) / 10.0,
+                        firstAirDate(id).toString(),
+                        "/poster" + id + ".jpg",
+                        "/backdrop" + id + ".jpg",
+                        popularity(id)
+                ))
+                .toList();
+        return new TvShowsResponse(page, totalPages, (long) totalPages * showsPerPage, results);
+    }
+
+    private TvShowDetailsDto tvShowDetails(long id, boolean withCredits) {
+        int seasons = 1 + (int) (id % 5);
+        var firstAirDate = firstAirDate(id);
+        return new TvShowDetailsDto(
+                id,
+                "Show " + id,
+                genreIds(id).stream().map(this::genre).toList(),
+                "Overview of show " + id,
+                (id % 100) / 10.0,
+                firstAirDate.toString(),
+                firstAirDate.plusYears(seasons).toString(),
+                "/poster" + id + ".jpg",
+                "/backdrop" + id + ".jpg",
+                popularity(id),
+                seasons * 10,
+                seasons,
+                IntStream.rangeClosed(1, seasons)
+                        .mapToObj(s -> new TvShowSeasonDto(
+                                id * 100 + s, "Season " + s, s, 10, firstAirDate.plusYears(s - 1).toString()
+                        ))
+                        .toList(),
+                id % 3 == 0,
+                withCredits ? new TvShowCreditsResponse(cast(id)) : null
+        );
+    }
+
+    private List<Long> castIds(long tvShowId) {
+        return new Random(tvShowId * 31).longs(castPerShow, 1, actorCount + 1).distinct().boxed().toList();
+    }
+
+    private static String creditId(long tvShowId, long actorId) {
+        return "credit-" + tvShowId + "-" + actorId;
+    }
+
+    private List<CastPersonDto> cast(long tvShowId) {
+        return castIds(tvShowId).stream()
+                .map(actorId -> new CastPersonDto(
+                        actorId,
+                        actorId % 7 == 0 ? "Directing" : "Acting",
+                        "Actor " + actorId,
+                        1000.0 / actorId,
+                        "/profile" + actorId + ".jpg",
+                        "Character " + actorId,
+                        creditId(tvShowId, actorId)
+                ))
+                .toList();
+    }
+
+    /**
+     * The credits of an actor are drawn from the whole catalog, and are not required to match the casts.
+     */
+    private List<PersonCreditsCastDto> personCredits(long actorId) {
+        long catalogSize = (long) totalPages * showsPerPage;
+        return new Random(actorId * 17).longs(CREDITS_PER_PERSON, 1, catalogSize + 1).distinct()
+                .mapToObj(tvShowId -> new PersonCreditsCastDto(
+                        tvShowId,
+                        creditId(tvShowId, actorId),
+                        "Show " + tvShowId,
+                        "Overview of show " + tvShowId,
+                        popularity(tvShowId),
+                        "/poster" + tvShowId + ".jpg",
+                        "Character " + actorId,
+                        firstAirDate(tvShowId).toString(),
+                        firstAirDate(tvShowId).toString()
+                ))
+                .toList();
+    }
+}
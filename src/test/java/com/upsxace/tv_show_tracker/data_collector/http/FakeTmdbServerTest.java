@@ -0,0 +1,87 @@
+package com.upsxace.tv_show_tracker.data_collector.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FakeTmdbServerTest {
+
+    private FakeTmdbServer server;
+    private TmdbConfig config;
+    private TmdbClient tmdbClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeTmdbServer(5, 4, 3, 50).start();
+
+        config = new TmdbConfig();
+        config.setApiKey("key");
+        config.setBaseUrl(server.getBaseUrl());
+        config.getCache().setEnabled(false);
+        config.getRateLimit().setInitialRate(1000);
+        config.getRateLimit().setMaxRate(1000);
+        var rateLimiter = new AdaptiveRateLimiter(config, new SimpleMeterRegistry());
+        rateLimiter.init();
+        var responseCache = new TmdbResponseCache(config);
+        responseCache.init();
+        tmdbClient = new TmdbClient(config, Jackson2ObjectMapperBuilder.json().build(), rateLimiter, responseCache);
+        tmdbClient.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tmdbClient.close();
+        server.close();
+    }
+
+    @Test
+    void discoverAndDetails_areDeterministicAndConsistent() {
+        var page = tmdbClient.getTvShows(2);
+        var details = tmdbClient.getTvShowDetailsWithCredits(page.getResults().getFirst().getId());
+
+        assertEquals(5, page.getTotal_pages());
+        assertEquals(5L, page.getResults().getFirst().getId());
+        assertEquals(page, tmdbClient.getTvShowsAsync(2).join());
+        assertEquals(page.getResults().getFirst().getName(), details.getName());
+        assertEquals(details.getCredits().getCast(), tmdbClient.getTvShowCredits(5));
+        assertTrue(tmdbClient.getTvShows(6).getResults().isEmpty());
+        assertEquals(3, server.getRequestsByEndpoint().get("/3/discover/tv"));
+    }
+
+    @Test
+    void personCredits_referenceCatalogShows() {
+        var credits = tmdbClient.getPersonTvShowCredits(1);
+
+        assertFalse(credits.isEmpty());
+        credits.forEach(c -> assertTrue(c.getId() >= 1 && c.getId() <= 20));
+        assertThrows(HttpClientErrorException.NotFound.class, () -> tmdbClient.getPersonTvShowCredits(51));
+    }
+
+    @Test
+    void injectedFailures_areReturnedAsErrorStatuses() {
+        config.getRateLimit().setMaxRetries(0);
+        server.setRetryAfter(Duration.ZERO);
+
+        server.setThrottleRate(1);
+        var throttled = assertThrows(HttpClientErrorException.class, () -> tmdbClient.getTvGenreList());
+        assertEquals(429, throttled.getStatusCode().value());
+
+        server.setThrottleRate(0);
+        server.setErrorRate(1);
+        assertThrows(HttpServerErrorException.class, () -> tmdbClient.getTvGenreList());
+
+        server.setErrorRate(0);
+        assertEquals(16, tmdbClient.getTvGenreList().size());
+        assertEquals(1, server.getThrottledCount());
+        assertEquals(1, server.getErrorCount());
+    }
+}
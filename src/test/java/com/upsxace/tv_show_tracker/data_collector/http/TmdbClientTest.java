@@ -0,0 +1,186 @@
+package com.upsxace.tv_show_tracker.data_collector.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TmdbClientTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer server;
+    private TmdbConfig config;
+    private TmdbClient tmdbClient;
+    private final AtomicInteger genreRequests = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private final AtomicInteger changesRequests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/3/discover/tv", exchange -> {
+            var body = """
+                    {"page": 2, "total_pages": 7, "total_results": 140, "results": [
+                        {"id": 10, "name": "Show", "genre_ids": [1], "popularity": 3.5, "unknown": true}
+                    ]}
+                    """.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/3/tv/", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/3/tv/changes", exchange -> {
+            changesRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("ETag", "\"c1\"");
+            if ("\"c1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            var body = "{\"page\": 1, \"total_pages\": 1, \"results\": [{\"id\": 5, \"adult\": false}]}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/3/genre/tv/list", exchange -> {
+            genreRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            var body = "{\"genres\": [{\"id\": 1, \"name\": \"Drama\"}]}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        config = new TmdbConfig();
+        config.setApiKey("key");
+        config.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+        config.setReadTimeout(Duration.ofSeconds(5));
+        config.getCache().setEnabled(false);
+        config.getCache().setDirectory(cacheDir.toString());
+        tmdbClient = createClient();
+    }
+
+    private TmdbClient createClient() {
+        var rateLimiter = new AdaptiveRateLimiter(config, new SimpleMeterRegistry());
+        rateLimiter.init();
+        var responseCache = new TmdbResponseCache(config);
+        responseCache.init();
+        var client = new TmdbClient(config, Jackson2ObjectMapperBuilder.json().build(), rateLimiter, responseCache);
+        client.init();
+        return client;
+    }
+
+    private void enableCache(Duration freshFor, boolean replay) {
+        tmdbClient.close();
+        config.getCache().setEnabled(true);
+        config.getCache().setFreshFor(freshFor);
+        config.getCache().setReplay(replay);
+        tmdbClient = createClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tmdbClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void getTvShows_blockingAndAsyncReturnSamePage() {
+        var blocking = tmdbClient.getTvShows(2);
+        var async = tmdbClient.getTvShowsAsync(2).join();
+
+        assertEquals(blocking, async);
+        assertEquals(7, async.getTotal_pages());
+        assertEquals(10L, async.getResults().getFirst().getId());
+    }
+
+    @Test
+    void getTvShowDetailsAsync_errorStatus_completesExceptionally() {
+        var future = tmdbClient.getTvShowDetailsAsync(99);
+
+        var ex = assertThrows(CompletionException.class, future::join);
+        var cause = assertInstanceOf(HttpClientErrorException.class, ex.getCause());
+        assertEquals(404, cause.getStatusCode().value());
+    }
+
+    @Test
+    void getTvGenreList_freshCache_skipsRequest() {
+        enableCache(Duration.ofHours(1), false);
+
+        var first = tmdbClient.getTvGenreList();
+        var second = tmdbClient.getTvGenreList();
+
+        assertEquals(first, second);
+        assertEquals(1, genreRequests.get());
+    }
+
+    @Test
+    void getTvGenreListAsync_staleCache_revalidatesWithEtag() {
+        enableCache(Duration.ZERO, false);
+
+        tmdbClient.getTvGenreList();
+        var revalidated = tmdbClient.getTvGenreListAsync().join();
+
+        assertEquals("Drama", revalidated.getFirst().getName());
+        assertEquals(2, genreRequests.get());
+        assertEquals(1, notModifiedResponses.get());
+    }
+
+    @Test
+    void getTvChanges_freshCache_stillRevalidates() {
+        enableCache(Duration.ofHours(1), false);
+        var today = LocalDate.now();
+
+        tmdbClient.getTvChanges(today, today, 1);
+        var revalidated = tmdbClient.getTvChanges(today, today, 1);
+
+        assertEquals(5L, revalidated.getResults().getFirst().getId());
+        assertEquals(2, changesRequests.get());
+    }
+
+    @Test
+    void replay_servesRecordedResponsesOnly() {
+        enableCache(Duration.ZERO, false);
+        tmdbClient.getTvGenreList();
+
+        enableCache(Duration.ZERO, true);
+
+        assertEquals("Drama", tmdbClient.getTvGenreList().getFirst().getName());
+        assertThrows(TmdbCacheMissException.class, () -> tmdbClient.getTvShows(2));
+        var missing = tmdbClient.getTvShowsAsync(2);
+        var error = assertThrows(CompletionException.class, missing::join);
+        assertInstanceOf(TmdbCacheMissException.class, error.getCause());
+        assertEquals(1, genreRequests.get());
+    }
+}
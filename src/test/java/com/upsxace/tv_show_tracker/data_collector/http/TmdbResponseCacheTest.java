@@ -0,0 +1,116 @@
+package com.upsxace.tv_show_tracker.data_collector.http;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TmdbResponseCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private TmdbConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new TmdbConfig();
+        config.getCache().setEnabled(true);
+        config.getCache().setDirectory(cacheDir.toString());
+    }
+
+    private TmdbResponseCache createCache() {
+        var cache = new TmdbResponseCache(config);
+        cache.init();
+        return cache;
+    }
+
+    @Test
+    void putThenGet_roundTripsResponseAndHeaders() {
+        var cache = createCache();
+        var body = "{\"id\": 1}".getBytes(StandardCharsets.UTF_8);
+
+        cache.put("/3/tv/1", body, "\"abc\"", null);
+        var cached = cache.get("/3/tv/1").orElseThrow();
+
+        assertArrayEquals(body, cached.getBody());
+        assertEquals("\"abc\"", cached.getEtag());
+        assertNull(cached.getLastModified());
+        assertTrue(cache.isFresh(cached));
+        assertTrue(cache.get("/3/tv/2").isEmpty());
+    }
+
+    @Test
+    void init_deletesTemporaryFilesLeftByACrash() throws IOException {
+        var cache = createCache();
+        cache.put("/3/tv/1", new byte[100], null, null);
+        var leftover = Files.createDirectories(cacheDir.resolve("ab")).resolve("crashed.gz123.tmp");
+        Files.write(leftover, new byte[500]);
+
+        var reopened = createCache();
+
+        assertFalse(Files.exists(leftover));
+        assertEquals(cache.getCurrentSize(), reopened.getCurrentSize());
+    }
+
+    @Test
+    void init_restoresSizeOfExistingEntries() {
+        var cache = createCache();
+        cache.put("/3/tv/1", new byte[100], null, null);
+
+        var reopened = createCache();
+
+        assertEquals(cache.getCurrentSize(), reopened.getCurrentSize());
+        assertTrue(reopened.get("/3/tv/1").isPresent());
+    }
+
+    @Test
+    void put_overMaxSize_evictsLeastRecentlyUsed() throws InterruptedException {
+        config.getCache().setMaxSize(DataSize.ofKilobytes(10));
+        var cache = createCache();
+        var random = new Random(1);
+
+        for (int i = 0; i < 20; i++) {
+            var body = new byte[1024];
+            random.nextBytes(body); // incompressible
+            cache.put("/3/tv/" + i, body, null, null);
+            Thread.sleep(5);
+        }
+
+        assertTrue(cache.getCurrentSize() <= DataSize.ofKilobytes(10).toBytes());
+        assertTrue(cache.get("/3/tv/0").isEmpty());
+        assertTrue(cache.get("/3/tv/19").isPresent());
+    }
+
+    @Test
+    void isFresh_staleEntry_onlyFreshWhenReplaying() {
+        config.getCache().setFreshFor(Duration.ZERO);
+        var cache = createCache();
+        cache.put("/3/tv/1", new byte[1], null, null);
+        var cached = cache.get("/3/tv/1").orElseThrow();
+
+        assertFalse(cache.isFresh(cached));
+
+        config.getCache().setReplay(true);
+        assertTrue(createCache().isFresh(cached));
+    }
+
+    @Test
+    void disabled_storesNothing() {
+        config.getCache().setEnabled(false);
+        var cache = createCache();
+
+        cache.put("/3/tv/1", new byte[1], null, null);
+
+        assertTrue(cache.get("/3/tv/1").isEmpty());
+    }
+}
@@ -0,0 +1,260 @@
+package com.upsxace.tv_show_tracker.data_collector.http;
+
+import com.upsxace.tv_show_tracker.actor.entity.Actor;
+import com.upsxace.tv_show_tracker.actor.entity.ActorCredit;
+import com.upsxace.tv_show_tracker.actor.repository.ActorCreditRepository;
+import com.upsxace.tv_show_tracker.actor.repository.ActorRepository;
+import com.upsxace.tv_show_tracker.data_collector.discovery.DiscoveredTvShow;
+import com.upsxace.tv_show_tracker.data_collector.discovery.PageLease;
+import com.upsxace.tv_show_tracker.data_collector.discovery.PageLeaseService;
+import com.upsxace.tv_show_tracker.data_collector.dto.*;
+import com.upsxace.tv_show_tracker.data_collector.hydration.CreditHydrationWriter;
+import com.upsxace.tv_show_tracker.data_collector.index.TmdbIdIndex;
+import com.upsxace.tv_show_tracker.data_collector.ingest.BulkIngestWriter;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkItemType;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkQueueService;
+import com.upsxace.tv_show_tracker.genre.Genre;
+import com.upsxace.tv_show_tracker.genre.GenreService;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShowSummary;
+import com.upsxace.tv_show_tracker.tv_show.repository.TvShowSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TmdbServiceTest {
+
+    @InjectMocks
+    private TmdbService tmdbService;
+
+    @Mock
+    private TmdbClient tmdbClient;
+    @Mock
+    private GenreService genreService;
+    @Mock
+    private TmdbIdIndex tmdbIdIndex;
+    @Mock
+    private CreditHydrationWriter creditHydrationWriter;
+    @Mock
+    private ActorRepository actorRepository;
+    @Mock
+    private ActorCreditRepository actorCreditRepository;
+    @Mock
+    private TvShowSummaryRepository tvShowSummaryRepository;
+    @Mock
+    private BulkIngestWriter bulkIngestWriter;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private WorkQueueService workQueueService;
+    @Mock
+    private PageLeaseService pageLeaseService;
+
+    private boolean inTransaction;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        doAnswer(inv -> {
+            inTransaction = true;
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            inTransaction = false;
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> {
+            inTransaction = true;
+            try {
+                return inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            } finally {
+                inTransaction = false;
+            }
+        });
+    }
+
+    private CastPersonDto castPerson(long id) {
+        return new CastPersonDto(id, "Acting", "Actor " + id, 10.0 - id, null, "Character", "credit-100-" + id);
+    }
+
+    /**
+     * Stands for the credit upsert, which stores the first of duplicated credits.
+     */
+    private static List<ActorCredit> storedOncePerTmdbId(Collection<ActorCredit> credits) {
+        Map<String, ActorCredit> stored = new LinkedHashMap<>();
+        credits.forEach(c -> stored.putIfAbsent(c.getTmdbId(), c));
+        return List.copyOf(stored.values());
+    }
+
+    @Test
+    void fillTvShowCredits_fetchesEverythingBeforeWriteTransaction() {
+        var tvShow = TvShow.builder().id(5L).tmdbId(100L).build();
+        var details = mock(TvShowDetailsDto.class);
+        when(details.getCredits()).thenReturn(new TvShowCreditsResponse(List.of(castPerson(1), castPerson(2))));
+
+        when(tmdbIdIndex.hasActor(1L)).thenReturn(true);
+        when(tmdbClient.getPersonTvShowCreditsAsync(1L)).thenReturn(CompletableFuture.completedFuture(List.of(
+                new PersonCreditsCastDto(100L, "credit-100-1", "Show", null, 1.0, null, "Character", null, null)
+        )));
+        when(tmdbClient.getPersonTvShowCreditsAsync(2L)).thenThrow(new AssertionError("unknown actors have no credits fetched"));
+        when(actorRepository.upsertAll(anyCollection())).thenAnswer(inv -> {
+            assertTrue(inTransaction);
+            List<Actor> actors = List.copyOf(inv.getArgument(0));
+            actors.forEach(a -> a.setId(a.getTmdbId() + 6));
+            return actors;
+        });
+        when(actorCreditRepository.upsertAll(anyCollection())).thenAnswer(inv -> {
+            assertTrue(inTransaction);
+            return storedOncePerTmdbId(inv.getArgument(0));
+        });
+        when(tmdbClient.getTvShowDetailsWithCredits(anyLong())).thenAnswer(inv -> {
+            assertFalse(inTransaction);
+            return details;
+        });
+
+        tmdbService.fillTvShowCredits(tvShow);
+
+        InOrder inOrder = inOrder(tmdbClient, transactionTemplate);
+        inOrder.verify(tmdbClient).getTvShowDetailsWithCredits(100L);
+        inOrder.verify(tmdbClient).getPersonTvShowCreditsAsync(1L);
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verifyNoMoreInteractions();
+
+        assertEquals(2, tvShow.getActorCredits().size());
+        assertEquals(List.of(7L, 8L), tvShow.getActorCredits().stream().map(c -> c.getActor().getId()).toList());
+        verify(actorRepository).markCreditsDiscovered(List.of(7L));
+        ArgumentCaptor<Collection<Actor>> upserted = ArgumentCaptor.captor();
+        verify(actorRepository).upsertAll(upserted.capture());
+        assertEquals(List.of(1L, 2L), upserted.getValue().stream().map(Actor::getTmdbId).toList());
+        verify(actorRepository, never()).saveAll(anyIterable());
+        verify(actorRepository, never()).findByTmdbIdIn(anyList());
+        verify(tmdbIdIndex).recordActors(Map.of(1L, 7L, 2L, 8L));
+        verify(creditHydrationWriter).markHydrated(5L);
+    }
+
+    @Test
+    void fillTvShowCredits_fetchesKnownActorsConcurrentlyAndWritesCreditsOnce() {
+        var tvShow = TvShow.builder().id(5L).tmdbId(100L).build();
+        var details = mock(TvShowDetailsDto.class);
+        when(details.getCredits()).thenReturn(new TvShowCreditsResponse(List.of(castPerson(1), castPerson(2), castPerson(3))));
+        when(tmdbClient.getTvShowDetailsWithCredits(100L)).thenReturn(details);
+        when(tmdbIdIndex.hasActor(anyLong())).thenReturn(true);
+
+        var first = new CompletableFuture<List<PersonCreditsCastDto>>();
+        var second = new CompletableFuture<List<PersonCreditsCastDto>>();
+        when(tmdbClient.getPersonTvShowCreditsAsync(1L)).thenReturn(first);
+        when(tmdbClient.getPersonTvShowCreditsAsync(2L)).thenReturn(second);
+        when(tmdbClient.getPersonTvShowCreditsAsync(3L)).thenAnswer(inv -> {
+            // Every request is in flight before any response is awaited
+            verify(tmdbClient).getPersonTvShowCreditsAsync(1L);
+            verify(tmdbClient).getPersonTvShowCreditsAsync(2L);
+            first.complete(List.of(
+                    new PersonCreditsCastDto(100L, "credit-100-1", "Show", null, 1.0, null, "Character", "2020-01-01", null),
+                    new PersonCreditsCastDto(200L, "credit-200-1", "Other", null, 1.0, null, "Character", null, null)
+            ));
+            second.complete(List.of(
+                    new PersonCreditsCastDto(300L, "credit-300-2", "Third", null, 1.0, null, "Character", null, null)
+            ));
+            return CompletableFuture.failedFuture(new RestClientException("TMDB down"));
+        });
+        when(actorRepository.upsertAll(anyCollection())).thenAnswer(inv -> {
+            List<Actor> actors = List.copyOf(inv.getArgument(0));
+            actors.forEach(a -> a.setId(a.getTmdbId() + 6));
+            return actors;
+        });
+        when(actorCreditRepository.upsertAll(anyCollection())).thenAnswer(inv -> storedOncePerTmdbId(inv.getArgument(0)));
+
+        tmdbService.fillTvShowCredits(tvShow);
+
+        ArgumentCaptor<Collection<ActorCredit>> written = ArgumentCaptor.captor();
+        verify(actorCreditRepository, times(1)).upsertAll(written.capture());
+        assertEquals(
+                List.of("credit-100-1", "credit-200-1", "credit-300-2", "credit-100-1", "credit-100-2", "credit-100-3"),
+                written.getValue().stream().map(ActorCredit::getTmdbId).toList()
+        );
+        verify(tvShowSummaryRepository, times(1)).insertMissing(anyCollection());
+        verify(actorRepository).markCreditsDiscovered(List.of(7L, 8L));
+        verify(workQueueService).recordFailure(eq(WorkItemType.ACTOR_CREDITS), eq(3L), any(RestClientException.class));
+        assertEquals(3, tvShow.getActorCredits().size());
+    }
+
+    @Test
+    void discoverActorCredits_upsertsCreditsWithoutReadingFirst() {
+        var actor = Actor.builder().id(7L).tmdbId(1L).build();
+        when(tmdbClient.getPersonTvShowCredits(1L)).thenAnswer(inv -> {
+            assertFalse(inTransaction);
+            return List.of(
+                    new PersonCreditsCastDto(100L, "c1", "Show", null, 1.0, null, null, null, null),
+                    new PersonCreditsCastDto(101L, "c2", "Other", null, 1.0, null, null, null, null)
+            );
+        });
+        when(actorCreditRepository.upsertAll(anyCollection()))
+                .thenAnswer(inv -> List.copyOf(inv.<Collection<ActorCredit>>getArgument(0)));
+
+        var stored = tmdbService.discoverActorCredits(actor, 1L);
+
+        assertEquals(List.of("c1", "c2"), stored.stream().map(ActorCredit::getTmdbId).toList());
+        assertTrue(stored.stream().allMatch(c -> c.getActor() == actor));
+        ArgumentCaptor<Collection<TvShowSummary>> summaries = ArgumentCaptor.captor();
+        verify(tvShowSummaryRepository).insertMissing(summaries.capture());
+        assertEquals(List.of("Show", "Other"), summaries.getValue().stream().map(TvShowSummary::getName).toList());
+        verify(transactionTemplate).execute(any());
+        verify(actorRepository).markCreditsDiscovered(List.of(7L));
+        assertTrue(actor.getCreditsDiscovered());
+        verify(actorCreditRepository, never()).findByTmdbIdIn(anyList());
+        verify(tvShowSummaryRepository, never()).findByTvShowTmdbIdIn(anyCollection());
+    }
+
+    @Test
+    void discoverActorCredits_fetchFailed_leavesCreditsUndiscovered() {
+        var actor = Actor.builder().id(7L).tmdbId(1L).build();
+        when(tmdbClient.getPersonTvShowCredits(1L)).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> tmdbService.discoverActorCredits(actor, 1L));
+
+        assertNotEquals(Boolean.TRUE, actor.getCreditsDiscovered());
+        verify(actorRepository, never()).markCreditsDiscovered(anyList());
+    }
+
+    @Test
+    void collectGenres_storesEveryGenreThroughTheDictionary() {
+        when(tmdbClient.getTvGenreList()).thenReturn(List.of(new GenreDto(18L, "Drama"), new GenreDto(35L, "Comedy")));
+
+        tmdbService.collectGenres();
+
+        ArgumentCaptor<List<Genre>> genres = ArgumentCaptor.captor();
+        verify(genreService).storeAll(genres.capture());
+        assertEquals(List.of(18L, 35L), genres.getValue().stream().map(Genre::getTmdbId).toList());
+    }
+
+    @Test
+    void persistDiscoveredPage_bulkWritesShowsAndCompletesLease() {
+        var tvShows = List.of(new DiscoveredTvShow(null, List.of()));
+        var lease = new PageLease("first_air_date_year=2019", 4);
+
+        tmdbService.persistDiscoveredPage(lease, new TvShowsResponse(4, 10, 200L, List.of()), tvShows);
+
+        InOrder inOrder = inOrder(bulkIngestWriter, pageLeaseService);
+        inOrder.verify(bulkIngestWriter).write(tvShows);
+        inOrder.verify(pageLeaseService).complete(lease, 10);
+        verifyNoInteractions(tmdbIdIndex, actorRepository, actorCreditRepository);
+    }
+}
@@ -0,0 +1,72 @@
+package com.upsxace.tv_show_tracker.data_collector.hydration;
+
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CreditHydrationServiceTest {
+
+    private TmdbService tmdbService;
+    private CreditHydrationWriter creditHydrationWriter;
+    private CreditHydrationConfig config;
+    private CreditHydrationService creditHydrationService;
+
+    @BeforeEach
+    void setUp() {
+        tmdbService = mock(TmdbService.class);
+        creditHydrationWriter = mock(CreditHydrationWriter.class);
+        config = new CreditHydrationConfig();
+        creditHydrationService = new CreditHydrationService(tmdbService, creditHydrationWriter, config, new SimpleMeterRegistry());
+        creditHydrationService.init();
+    }
+
+    @Test
+    void requestCredits_backgroundEnabled_onlyQueuesTheTvShow() {
+        var tvShow = TvShow.builder().id(5L).tmdbId(100L).build();
+
+        creditHydrationService.requestCredits(tvShow);
+
+        verify(creditHydrationWriter).request(5L);
+        verifyNoInteractions(tmdbService);
+    }
+
+    @Test
+    void requestCredits_backgroundDisabled_fetchesRightAway() {
+        config.setEnabled(false);
+        var tvShow = TvShow.builder().id(5L).tmdbId(100L).build();
+
+        creditHydrationService.requestCredits(tvShow);
+
+        verify(tmdbService).fillTvShowCredits(tvShow);
+        verifyNoInteractions(creditHydrationWriter);
+    }
+
+    @Test
+    void hydratePending_failedTvShow_doesNotStopTheBatch() {
+        var failing = TvShow.builder().id(5L).tmdbId(100L).build();
+        var next = TvShow.builder().id(6L).tmdbId(101L).build();
+        when(creditHydrationWriter.claimPending(20, Duration.ofMinutes(10))).thenReturn(List.of(failing, next));
+        doThrow(new RestClientException("TMDB down")).when(tmdbService).fillTvShowCredits(failing);
+
+        assertEquals(1, creditHydrationService.hydratePending());
+        verify(tmdbService).fillTvShowCredits(next);
+    }
+
+    @Test
+    void hydratePending_nothingPending_fetchesNothing() {
+        when(creditHydrationWriter.claimPending(anyInt(), any())).thenReturn(List.of());
+
+        assertEquals(0, creditHydrationService.hydratePending());
+        verifyNoInteractions(tmdbService);
+    }
+}
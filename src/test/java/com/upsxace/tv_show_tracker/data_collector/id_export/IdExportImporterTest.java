@@ -0,0 +1,107 @@
+package com.upsxace.tv_show_tracker.data_collector.id_export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upsxace.tv_show_tracker.data_collector.discovery.DiscoveredTvShow;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import com.upsxace.tv_show_tracker.data_collector.storage.StorageBudgetService;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkItemType;
+import com.upsxace.tv_show_tracker.data_collector.work_queue.WorkQueueService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdExportImporterTest {
+
+    private TmdbService tmdbService;
+    private WorkQueueService workQueueService;
+    private StorageBudgetService storageBudgetService;
+    private IdExportConfig config;
+    private IdExportImporter importer;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        tmdbService = mock(TmdbService.class);
+        workQueueService = mock(WorkQueueService.class);
+        storageBudgetService = mock(StorageBudgetService.class);
+        when(storageBudgetService.hasRoom()).thenReturn(true);
+        config = new IdExportConfig();
+        config.setBatchSize(2);
+        importer = new IdExportImporter(config, tmdbService, workQueueService, storageBudgetService, new ObjectMapper(),
+                new SimpleMeterRegistry());
+        importer.init();
+    }
+
+    private Path export(long... ids) throws IOException {
+        var content = new StringBuilder();
+        for (var id : ids) content.append("{\"adult\":false,\"id\":").append(id).append(",\"popularity\":1.0}\n");
+        var file = tempDir.resolve("tv_series_ids.json");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    void importFile_fetchesOnlyMissingShowsAndWritesEveryBatch() throws IOException {
+        var tvShow1 = mock(DiscoveredTvShow.class);
+        var tvShow3 = mock(DiscoveredTvShow.class);
+        when(tmdbService.findMissingTvShowIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(tmdbService.findMissingTvShowIds(List.of(3L))).thenReturn(List.of(3L));
+        when(tmdbService.fetchTvShow(1L)).thenReturn(tvShow1);
+        when(tmdbService.fetchTvShow(3L)).thenReturn(tvShow3);
+        when(tmdbService.persistTvShows(anyList())).thenReturn(1);
+
+        assertEquals(2, importer.importFile(export(1, 2, 3)));
+
+        verify(tmdbService, never()).fetchTvShow(2L);
+        verify(tmdbService).persistTvShows(List.of(tvShow1));
+        verify(tmdbService).persistTvShows(List.of(tvShow3));
+    }
+
+    @Test
+    void importFile_failedShow_isQueuedAndOthersStored() throws IOException {
+        var tvShow = new DiscoveredTvShow(null, List.of());
+        var error = new IllegalStateException("boom");
+        when(tmdbService.findMissingTvShowIds(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(tmdbService.fetchTvShow(1L)).thenReturn(tvShow);
+        when(tmdbService.fetchTvShow(2L)).thenThrow(error);
+        when(tmdbService.persistTvShows(anyList())).thenReturn(1);
+
+        assertEquals(1, importer.importFile(export(1, 2)));
+
+        verify(tmdbService).persistTvShows(List.of(tvShow));
+        verify(workQueueService).recordFailure(WorkItemType.TV_SHOW, 2L, error);
+    }
+
+    @Test
+    void onApplicationReady_notEnabled_importsNothing() throws IOException {
+        config.setFile(export(1).toString());
+
+        importer.onApplicationReady();
+
+        verifyNoInteractions(tmdbService, workQueueService);
+    }
+
+    @Test
+    void onApplicationReady_enabled_importsInBackgroundAndLogsErrors() throws IOException {
+        config.setEnabled(true);
+        config.setFile(export(1).toString());
+        when(tmdbService.findMissingTvShowIds(anyList())).thenThrow(new IllegalStateException("boom"));
+
+        importer.onApplicationReady();
+
+        verify(tmdbService, timeout(5000)).findMissingTvShowIds(List.of(1L));
+        verify(tmdbService, never()).persistTvShows(anyList());
+    }
+}
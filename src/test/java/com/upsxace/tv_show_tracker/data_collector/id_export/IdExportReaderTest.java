@@ -0,0 +1,56 @@
+package com.upsxace.tv_show_tracker.data_collector.id_export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdExportReaderTest {
+
+    private static final String EXPORT = """
+            {"adult":false,"id":1399,"original_name":"Game of Thrones","popularity":369.6}
+            {"adult":true,"id":2,"original_name":"Adult","popularity":10.0}
+            {"adult":false,"id":3,"original_name":"Obscure","popularity":0.6}
+            {"adult":false,"id":4,"original_name":"Nested","origin_country":["US"],"popularity":12.5}
+            {"adult":false,"id":5,"original_name":"Last","popularity":1.0}
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private Path gzip(String content) throws IOException {
+        var file = tempDir.resolve("tv_series_ids.json.gz");
+        try (var out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    @Test
+    void nextBatch_gzipExport_streamsIdsInBatches() throws IOException {
+        try (var reader = IdExportReader.open(new JsonFactory(), gzip(EXPORT), 0, false)) {
+            assertEquals(List.of(1399L, 3L), reader.nextBatch(2));
+            assertEquals(List.of(4L, 5L), reader.nextBatch(2));
+            assertEquals(List.of(), reader.nextBatch(2));
+            assertEquals(5, reader.getEntriesRead());
+        }
+    }
+
+    @Test
+    void nextBatch_filtersByPopularityAndAdult() throws IOException {
+        var file = tempDir.resolve("tv_series_ids.json");
+        Files.writeString(file, EXPORT);
+
+        try (var reader = IdExportReader.open(new JsonFactory(), file, 1.0, true)) {
+            assertEquals(List.of(1399L, 2L, 4L, 5L), reader.nextBatch(10));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.upsxace.tv_show_tracker.data_collector.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongHashMapTest {
+
+    @Test
+    void putGetRemove_behaveLikeAHashMap() {
+        var map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        var random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // Small key range, so removals hit entries in the middle of probe sequences
+            long key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 1; key <= 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, -1L), map.get(key, -1));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+    }
+
+    @Test
+    void presized_doesNotGrowUpToExpectedSize() {
+        var map = new LongLongHashMap(1_000);
+        long bytes = map.getMemoryBytes();
+
+        for (long key = 1; key <= 1_000; key++) map.put(key * 7919, key);
+
+        assertEquals(bytes, map.getMemoryBytes());
+        assertEquals(1_000, map.size());
+        assertEquals(500, map.get(500 * 7919, -1));
+    }
+
+    @Test
+    void put_zeroKey_isRejected() {
+        var map = new LongLongHashMap();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, 1));
+        assertFalse(map.containsKey(0));
+    }
+}
@@ -0,0 +1,40 @@
+package com.upsxace.tv_show_tracker.data_collector.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TmdbIdIndexTest {
+
+    @Test
+    void reload_keepsUpdatesMadeWhileReadingTheDatabase() throws Exception {
+        var jdbcTemplate = mock(JdbcTemplate.class);
+        var index = new TmdbIdIndex(jdbcTemplate, new SimpleMeterRegistry());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(2);
+        doAnswer(inv -> {
+            // TV show 3 is stored and TV show 2 evicted after the rows were read
+            index.recordTvShows(Map.of(3L, 30L));
+            index.removeTvShows(List.of(2L));
+            var rs = mock(ResultSet.class);
+            when(rs.getLong(1)).thenReturn(1L, 2L);
+            when(rs.getLong(2)).thenReturn(10L, 20L);
+            RowCallbackHandler handler = inv.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT tmdb_id, id FROM tv_shows"), any(RowCallbackHandler.class));
+
+        index.reload();
+
+        assertEquals(List.of(2L, 4L), index.findMissingTvShowIds(List.of(1L, 2L, 3L, 4L)));
+    }
+}
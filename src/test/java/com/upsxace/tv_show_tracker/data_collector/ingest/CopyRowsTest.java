@@ -0,0 +1,58 @@
+package com.upsxace.tv_show_tracker.data_collector.ingest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.copy.CopyIn;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CopyRowsTest {
+
+    private CopyIn copyIn;
+    private ByteArrayOutputStream copied;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        copyIn = mock(CopyIn.class);
+        copied = new ByteArrayOutputStream();
+        doAnswer(inv -> {
+            copied.write(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+    }
+
+    @Test
+    void finish_writesRowsInCopyTextFormat() throws SQLException {
+        var rows = new CopyRows(copyIn);
+
+        rows.add(1L).add("Tab\there").add(null).add(LocalDate.of(2020, 1, 2)).endRow();
+        rows.add(2L).add("Line\nbreak \\ slash").add(true).add(3.5).endRow();
+        var count = rows.finish();
+
+        assertEquals(2, count);
+        assertEquals(
+                "1\tTab\\there\t\\N\t2020-01-02\n2\tLine\\nbreak \\\\ slash\ttrue\t3.5\n",
+                copied.toString(StandardCharsets.UTF_8)
+        );
+        verify(copyIn).endCopy();
+    }
+
+    @Test
+    void endRow_largeTables_areStreamedInChunks() throws SQLException {
+        var rows = new CopyRows(copyIn);
+        var value = "x".repeat(1000);
+
+        for (int i = 0; i < 200; i++) rows.add(value).endRow();
+        rows.finish();
+
+        verify(copyIn, atLeast(3)).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        assertEquals(200 * 1001, copied.size());
+    }
+}
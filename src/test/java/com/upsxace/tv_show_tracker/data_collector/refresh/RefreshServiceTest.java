@@ -0,0 +1,117 @@
+package com.upsxace.tv_show_tracker.data_collector.refresh;
+
+import com.upsxace.tv_show_tracker.common.app_property.AppPropertyService;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvChangeDto;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvChangesResponse;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvShowDetailsDto;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbClient;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RefreshServiceTest {
+
+    private TmdbClient tmdbClient;
+    private TvShowRefreshWriter tvShowRefreshWriter;
+    private AppPropertyService appPropertyService;
+    private RefreshService refreshService;
+
+    @BeforeEach
+    void setUp() {
+        tmdbClient = mock(TmdbClient.class);
+        tvShowRefreshWriter = mock(TvShowRefreshWriter.class);
+        appPropertyService = mock(AppPropertyService.class);
+        refreshService = new RefreshService(tmdbClient, tvShowRefreshWriter, appPropertyService, new RefreshConfig(),
+                new SimpleMeterRegistry());
+        refreshService.init();
+    }
+
+    private TvShowDetailsDto details(long id, double popularity) {
+        return new TvShowDetailsDto(id, "Show " + id, List.of(), null, 7.0, "2020-01-01", "2021-01-01",
+                "/p.jpg", null, popularity, 10, 1, List.of(), false, null);
+    }
+
+    private String storedHash(long id) {
+        return TvShowContentHash.of(details(id, 0).toModel(List.of()));
+    }
+
+    @Test
+    void refreshStale_writesOnlyChangedShows() {
+        when(tvShowRefreshWriter.claimStale(anyInt(), any(), anyDouble(), any())).thenReturn(List.of(
+                new RefreshCandidate(1L, 100L, storedHash(100L), 5.0, 7.0),
+                new RefreshCandidate(2L, 200L, "outdated", 5.0, 7.0),
+                new RefreshCandidate(3L, 300L, storedHash(300L), 5.0, 7.0),
+                new RefreshCandidate(4L, 400L, null, null, null),
+                new RefreshCandidate(5L, 500L, null, null, null)
+        ));
+        when(tmdbClient.revalidateTvShowDetailsAsync(100L)).thenReturn(CompletableFuture.completedFuture(details(100L, 5.0)));
+        when(tmdbClient.revalidateTvShowDetailsAsync(200L)).thenReturn(CompletableFuture.completedFuture(details(200L, 5.0)));
+        when(tmdbClient.revalidateTvShowDetailsAsync(300L)).thenReturn(CompletableFuture.completedFuture(details(300L, 9.0)));
+        when(tmdbClient.revalidateTvShowDetailsAsync(400L)).thenReturn(CompletableFuture.failedFuture(
+                HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null)
+        ));
+        when(tmdbClient.revalidateTvShowDetailsAsync(500L)).thenReturn(CompletableFuture.failedFuture(
+                HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", null, null, null)
+        ));
+
+        assertEquals(1, refreshService.refreshStale());
+
+        ArgumentCaptor<List<TvShow>> written = ArgumentCaptor.captor();
+        verify(tvShowRefreshWriter).write(written.capture());
+        assertEquals(1, written.getValue().size());
+        var tvShow = written.getValue().getFirst();
+        assertEquals(2L, tvShow.getId());
+        assertEquals(storedHash(200L), tvShow.getContentHash());
+
+        ArgumentCaptor<List<TvShow>> metrics = ArgumentCaptor.captor();
+        verify(tvShowRefreshWriter).writeMetrics(metrics.capture());
+        assertEquals(1, metrics.getValue().size());
+        assertEquals(3L, metrics.getValue().getFirst().getId());
+        assertEquals(9.0, metrics.getValue().getFirst().getPopularity());
+        // The show removed from TMDB waits until stale again, the other failed show is retried once its claim expires
+        verify(tvShowRefreshWriter).markRefreshed(List.of(1L, 4L));
+    }
+
+    @Test
+    void pollChanges_alreadyCheckedToday_skipsFeed() {
+        when(appPropertyService.readProperty("tmdb:changes-checked-at")).thenReturn(Optional.of(LocalDate.now().toString()));
+
+        assertEquals(0, refreshService.pollChanges());
+        verifyNoInteractions(tmdbClient, tvShowRefreshWriter);
+    }
+
+    @Test
+    void pollChanges_readsEveryPageSinceLastCheck() {
+        var today = LocalDate.now();
+        var lastChecked = today.minusDays(3);
+        when(appPropertyService.readProperty("tmdb:changes-checked-at")).thenReturn(Optional.of(lastChecked.toString()));
+        when(tmdbClient.getTvChanges(lastChecked, today, 1)).thenReturn(
+                new TvChangesResponse(1, 2, 3L, List.of(new TvChangeDto(1L, false), new TvChangeDto(2L, false))));
+        when(tmdbClient.getTvChanges(lastChecked, today, 2)).thenReturn(
+                new TvChangesResponse(2, 2, 3L, List.of(new TvChangeDto(2L, false), new TvChangeDto(3L, false))));
+        when(tvShowRefreshWriter.requestRefresh(any())).thenReturn(2);
+
+        assertEquals(2, refreshService.pollChanges());
+
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.captor();
+        verify(tvShowRefreshWriter).requestRefresh(ids.capture());
+        assertEquals(Set.of(1L, 2L, 3L), Set.copyOf(ids.getValue()));
+        verify(appPropertyService).upsertProperty("tmdb:changes-checked-at", today.toString());
+    }
+}
@@ -0,0 +1,50 @@
+package com.upsxace.tv_show_tracker.data_collector.refresh;
+
+import com.upsxace.tv_show_tracker.tv_show.entity.Season;
+import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TvShowContentHashTest {
+
+    private TvShow tvShow(List<Season> seasons) {
+        return TvShow.builder()
+                .id(1L).tmdbId(100L).name("Show").popularity(12.5).voteAverage(8.1)
+                .firstAirDate(LocalDate.of(2020, 1, 1)).inProduction(true)
+                .seasons(seasons)
+                .build();
+    }
+
+    @Test
+    void of_ignoresSeasonOrderUnstoredFieldsAndMetrics() {
+        var s1 = Season.builder().seasonNumber(1).episodeCount(10).build();
+        var s2 = Season.builder().seasonNumber(2).episodeCount(8).build();
+        var other = tvShow(List.of(s2, s1));
+        other.setId(2L);
+        other.setPopularity(13.0);
+        other.setVoteAverage(8.2);
+
+        assertEquals(TvShowContentHash.of(tvShow(List.of(s1, s2))), TvShowContentHash.of(other));
+    }
+
+    @Test
+    void of_changesWithRefreshedFields() {
+        var base = TvShowContentHash.of(tvShow(List.of()));
+
+        var renamed = tvShow(List.of());
+        renamed.setName("Other show");
+        var newSeason = tvShow(List.of(Season.builder().seasonNumber(1).episodeCount(10).build()));
+        var emptyName = tvShow(List.of());
+        emptyName.setName("");
+        var nullName = tvShow(List.of());
+        nullName.setName(null);
+
+        assertNotEquals(base, TvShowContentHash.of(renamed));
+        assertNotEquals(base, TvShowContentHash.of(newSeason));
+        assertNotEquals(TvShowContentHash.of(emptyName), TvShowContentHash.of(nullName));
+    }
+}
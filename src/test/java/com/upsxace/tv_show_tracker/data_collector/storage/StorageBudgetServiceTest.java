@@ -0,0 +1,140 @@
+package com.upsxace.tv_show_tracker.data_collector.storage;
+
+import com.upsxace.tv_show_tracker.common.app_property.AppPropertyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StorageBudgetServiceTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private JdbcTemplate jdbcTemplate;
+    private CatalogEvictor catalogEvictor;
+    private StorageConfig config;
+    private AppPropertyService appPropertyService;
+    private StorageBudgetService storageBudgetService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        catalogEvictor = mock(CatalogEvictor.class);
+        config = new StorageConfig();
+        config.setEvictionBatchSize(50);
+        appPropertyService = mock(AppPropertyService.class);
+        storageBudgetService = new StorageBudgetService(jdbcTemplate, catalogEvictor, config, appPropertyService,
+                new SimpleMeterRegistry());
+        storageBudgetService.init();
+        ReflectionTestUtils.setField(storageBudgetService, "dbMaxSizeMb", 1);
+    }
+
+    /**
+     * Database of 1.1 MB, of which 1 MB is 1000 tv shows of 1000 bytes each.
+     */
+    private void measured(long liveRows, long deadRows) {
+        when(jdbcTemplate.queryForList(contains("pg_total_relation_size"), (Object) any())).thenReturn(List.of(Map.of(
+                "table_name", "tv_shows", "bytes", 1_000_000L, "live_rows", liveRows, "all_rows", liveRows + deadRows
+        )));
+        when(jdbcTemplate.queryForObject(contains("pg_database_size"), eq(Long.class))).thenReturn(1_100_000L);
+    }
+
+    @Test
+    void hasRoom_underBudget_evictsNothing() {
+        measured(800, 200);
+
+        assertTrue(storageBudgetService.hasRoom());
+        assertEquals(900_000, storageBudgetService.getEstimatedBytes());
+        verifyNoInteractions(catalogEvictor);
+    }
+
+    @Test
+    void hasRoom_overBudget_evictsDownToLowWaterMark() {
+        measured(1000, 0);
+        when(catalogEvictor.evictColdest(50)).thenReturn(
+                new CatalogEvictor.Eviction(Map.of("tv_shows", 50), 1.0),
+                new CatalogEvictor.Eviction(Map.of("tv_shows", 50), 2.0),
+                new CatalogEvictor.Eviction(Map.of("tv_shows", 50), 3.0)
+        );
+
+        assertTrue(storageBudgetService.hasRoom());
+
+        verify(catalogEvictor, times(3)).evictColdest(50);
+        assertTrue(storageBudgetService.getEstimatedBytes() <= 0.95 * MB);
+        assertEquals(3.0, storageBudgetService.getPopularityFloor());
+    }
+
+    @Test
+    void hasRoom_afterEvictionAndVacuum_countsFreedSpaceAsReusable() {
+        measured(1000, 0);
+        when(catalogEvictor.evictColdest(50)).thenReturn(
+                new CatalogEvictor.Eviction(Map.of("tv_shows", 50), 1.0),
+                new CatalogEvictor.Eviction(Map.of("tv_shows", 50), 2.0),
+                new CatalogEvictor.Eviction(Map.of("tv_shows", 50), 3.0)
+        );
+        assertTrue(storageBudgetService.hasRoom());
+
+        // Vacuum reports no dead rows anymore, while the table kept its size
+        measured(850, 0);
+        storageBudgetService.sample();
+
+        assertTrue(storageBudgetService.hasRoom());
+        assertEquals(950_000, storageBudgetService.getEstimatedBytes());
+        verify(catalogEvictor, times(3)).evictColdest(50);
+        verify(appPropertyService).upsertProperty(StorageBudgetService.POPULARITY_FLOOR_PROPERTY, "3.0");
+        verify(appPropertyService, atLeastOnce()).upsertProperty(StorageBudgetService.REUSABLE_ROWS_PROPERTY, "tv_shows=150");
+    }
+
+    @Test
+    void sample_restoresStateStoredBeforeRestart() {
+        measured(850, 0);
+        when(appPropertyService.readProperty(StorageBudgetService.POPULARITY_FLOOR_PROPERTY)).thenReturn(Optional.of("3.0"));
+        when(appPropertyService.readProperty(StorageBudgetService.REUSABLE_ROWS_PROPERTY)).thenReturn(Optional.of("tv_shows=150"));
+
+        assertTrue(storageBudgetService.hasRoom());
+
+        assertEquals(3.0, storageBudgetService.getPopularityFloor());
+        assertEquals(950_000, storageBudgetService.getEstimatedBytes());
+        verifyNoInteractions(catalogEvictor);
+    }
+
+    @Test
+    void hasRoom_wellUnderBudget_releasesPopularityFloor() {
+        measured(600, 0);
+        when(appPropertyService.readProperty(StorageBudgetService.POPULARITY_FLOOR_PROPERTY)).thenReturn(Optional.of("3.0"));
+        when(appPropertyService.readProperty(StorageBudgetService.REUSABLE_ROWS_PROPERTY)).thenReturn(Optional.of("tv_shows=400"));
+
+        assertTrue(storageBudgetService.hasRoom());
+
+        assertEquals(0, storageBudgetService.getPopularityFloor());
+        verify(appPropertyService).upsertProperty(StorageBudgetService.POPULARITY_FLOOR_PROPERTY, "0");
+    }
+
+    @Test
+    void hasRoom_overBudgetAndNothingToEvict_stopsCollection() {
+        measured(1000, 0);
+        when(catalogEvictor.evictColdest(anyInt())).thenReturn(new CatalogEvictor.Eviction(Map.of(), 0));
+
+        assertFalse(storageBudgetService.hasRoom());
+    }
+
+    @Test
+    void recordInserted_growsEstimateWithoutMeasuring() {
+        measured(800, 200);
+        storageBudgetService.sample();
+
+        storageBudgetService.recordInserted(Map.of("tv_shows", 300, "seasons", 1000));
+
+        assertEquals(1_200_000, storageBudgetService.getEstimatedBytes());
+        verify(jdbcTemplate, times(1)).queryForObject(contains("pg_database_size"), eq(Long.class));
+    }
+}
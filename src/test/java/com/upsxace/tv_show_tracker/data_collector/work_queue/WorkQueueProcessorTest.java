@@ -0,0 +1,96 @@
+package com.upsxace.tv_show_tracker.data_collector.work_queue;
+
+import com.upsxace.tv_show_tracker.actor.repository.ActorRepository;
+import com.upsxace.tv_show_tracker.data_collector.discovery.DiscoveredTvShow;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvShowDto;
+import com.upsxace.tv_show_tracker.data_collector.dto.TvShowsResponse;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class WorkQueueProcessorTest {
+
+    @InjectMocks
+    private WorkQueueProcessor workQueueProcessor;
+
+    @Mock
+    private WorkQueueService workQueueService;
+    @Mock
+    private TmdbService tmdbService;
+    @Mock
+    private ActorRepository actorRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private WorkItem item(WorkItemType type, long tmdbId) {
+        return WorkItem.builder().type(type).tmdbId(tmdbId).status(WorkItemStatus.PENDING).build();
+    }
+
+    @Test
+    void processDueItems_success_completesItem() {
+        var item = item(WorkItemType.TV_SHOW, 1L);
+        var tvShow = new DiscoveredTvShow(null, List.of());
+        when(workQueueService.findDue()).thenReturn(List.of(item));
+        when(tmdbService.findMissingTvShowIds(List.of(1L))).thenReturn(List.of(1L));
+        when(tmdbService.fetchTvShow(1L)).thenReturn(tvShow);
+
+        assertEquals(1, workQueueProcessor.processDueItems());
+
+        verify(tmdbService).persistTvShows(List.of(tvShow));
+        verify(workQueueService).complete(item);
+        verify(workQueueService, never()).recordFailure(any(), any(), any(), any());
+    }
+
+    @Test
+    void processDueItems_failure_recordsAttemptAndContinues() {
+        var failing = item(WorkItemType.TV_SHOW, 1L);
+        var stored = item(WorkItemType.TV_SHOW, 2L);
+        var error = new IllegalStateException("boom");
+        when(workQueueService.findDue()).thenReturn(List.of(failing, stored));
+        when(tmdbService.findMissingTvShowIds(List.of(1L))).thenReturn(List.of(1L));
+        when(tmdbService.findMissingTvShowIds(List.of(2L))).thenReturn(List.of());
+        when(tmdbService.fetchTvShow(1L)).thenThrow(error);
+
+        assertEquals(1, workQueueProcessor.processDueItems());
+
+        verify(workQueueService).recordFailure(WorkItemType.TV_SHOW, "", 1L, error);
+        verify(workQueueService).complete(stored);
+        verify(workQueueService, never()).complete(failing);
+        verify(tmdbService, never()).fetchTvShow(2L);
+    }
+
+    @Test
+    void processDueItems_discoverPage_queuesFailedShowsSeparately() {
+        var item = item(WorkItemType.DISCOVER_PAGE, 7L);
+        item.setSlice("first_air_date_year=2019");
+        var error = new IllegalStateException("boom");
+        var tvShow = new DiscoveredTvShow(null, List.of());
+        when(workQueueService.findDue()).thenReturn(List.of(item));
+        when(tmdbService.fetchDiscoverPage("first_air_date_year=2019", 7)).thenReturn(new TvShowsResponse(7, 10, 2L, List.of(
+                new TvShowDto(1L, null, null, null, null, null, null, null, null),
+                new TvShowDto(2L, null, null, null, null, null, null, null, null)
+        )));
+        when(tmdbService.findMissingTvShowIds(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(tmdbService.fetchTvShow(1L)).thenReturn(tvShow);
+        when(tmdbService.fetchTvShow(2L)).thenThrow(error);
+
+        assertEquals(1, workQueueProcessor.processDueItems());
+
+        verify(tmdbService).persistTvShows(List.of(tvShow));
+        verify(workQueueService).recordFailure(WorkItemType.TV_SHOW, 2L, error);
+        verify(workQueueService).complete(item);
+    }
+}
@@ -0,0 +1,89 @@
+package com.upsxace.tv_show_tracker.data_collector.work_queue;
+
+import com.upsxace.tv_show_tracker.data_collector.discovery.DiscoveryConfig;
+import com.upsxace.tv_show_tracker.data_collector.http.TmdbCacheMissException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WorkQueueServiceTest {
+
+    private WorkItemRepository workItemRepository;
+    private WorkQueueService workQueueService;
+
+    @BeforeEach
+    void setUp() {
+        workItemRepository = mock(WorkItemRepository.class);
+        when(workItemRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        var config = new DiscoveryConfig();
+        config.getRetry().setMaxAttempts(3);
+        config.getRetry().setInitialBackoff(Duration.ofMinutes(1));
+        config.getRetry().setMaxBackoff(Duration.ofMinutes(5));
+        workQueueService = new WorkQueueService(workItemRepository, config);
+    }
+
+    @Test
+    void getBackoff_doublesUpToMaximum() {
+        assertEquals(Duration.ofMinutes(1), workQueueService.getBackoff(1));
+        assertEquals(Duration.ofMinutes(2), workQueueService.getBackoff(2));
+        assertEquals(Duration.ofMinutes(4), workQueueService.getBackoff(3));
+        assertEquals(Duration.ofMinutes(5), workQueueService.getBackoff(4));
+        assertEquals(Duration.ofMinutes(5), workQueueService.getBackoff(100));
+    }
+
+    @Test
+    void recordFailure_newWork_schedulesRetry() {
+        when(workItemRepository.findByTypeAndSliceAndTmdbId(WorkItemType.TV_SHOW, "", 1L)).thenReturn(Optional.empty());
+
+        var item = workQueueService.recordFailure(WorkItemType.TV_SHOW, 1L, new ResourceAccessException("timeout"));
+
+        assertEquals(1, item.getAttempts());
+        assertEquals(WorkItemStatus.PENDING, item.getStatus());
+        assertNotNull(item.getNextAttemptAt());
+        assertEquals("ResourceAccessException: timeout", item.getLastError());
+    }
+
+    @Test
+    void recordFailure_lastAttempt_deadLetters() {
+        var existing = WorkItem.builder().type(WorkItemType.TV_SHOW).tmdbId(1L).attempts(2)
+                .status(WorkItemStatus.PENDING).build();
+        when(workItemRepository.findByTypeAndSliceAndTmdbId(WorkItemType.TV_SHOW, "", 1L)).thenReturn(Optional.of(existing));
+
+        var item = workQueueService.recordFailure(WorkItemType.TV_SHOW, 1L, new ResourceAccessException("timeout"));
+
+        assertSame(existing, item);
+        assertEquals(3, item.getAttempts());
+        assertEquals(WorkItemStatus.DEAD, item.getStatus());
+    }
+
+    @Test
+    void recordFailure_clientError_deadLettersRightAway() {
+        when(workItemRepository.findByTypeAndSliceAndTmdbId(any(), any(), any())).thenReturn(Optional.empty());
+
+        var notFound = workQueueService.recordFailure(WorkItemType.TV_SHOW, 1L,
+                HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+        var throttled = workQueueService.recordFailure(WorkItemType.TV_SHOW, 2L,
+                HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null));
+
+        assertEquals(WorkItemStatus.DEAD, notFound.getStatus());
+        assertEquals(WorkItemStatus.PENDING, throttled.getStatus());
+    }
+
+    @Test
+    void recordFailure_cacheMissWhenReplaying_deadLettersRightAway() {
+        when(workItemRepository.findByTypeAndSliceAndTmdbId(any(), any(), any())).thenReturn(Optional.empty());
+
+        var item = workQueueService.recordFailure(WorkItemType.TV_SHOW, 1L, new TmdbCacheMissException("/3/tv/1"));
+
+        assertEquals(WorkItemStatus.DEAD, item.getStatus());
+    }
+}
@@ -0,0 +1,54 @@
+package com.upsxace.tv_show_tracker.genre;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GenreServiceTest {
+
+    private GenreRepository genreRepository;
+    private GenreService genreService;
+
+    private static Genre genre(long id, long tmdbId, String name) {
+        return Genre.builder().id(id).tmdbId(tmdbId).name(name).build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        genreRepository = mock(GenreRepository.class);
+        when(genreRepository.findAll()).thenReturn(List.of(genre(2L, 35L, "Comedy"), genre(1L, 18L, "Drama")));
+        genreService = new GenreService(genreRepository);
+        genreService.init();
+    }
+
+    @Test
+    void getAll_isServedFromMemory() {
+        genreService.getAll();
+        assertEquals(List.of("Drama", "Comedy"), genreService.getAll().stream().map(Genre::getName).toList());
+        verify(genreRepository, times(1)).findAll();
+    }
+
+    @Test
+    void storeAll_knownGenres_costNoWrite() {
+        genreService.storeAll(List.of(Genre.builder().tmdbId(18L).name("Drama").build()));
+
+        verify(genreRepository, never()).upsertAll(anyCollection());
+        verify(genreRepository, times(1)).findAll();
+    }
+
+    @Test
+    void storeAll_newGenre_upsertsAndSwapsDictionary() {
+        var western = Genre.builder().tmdbId(37L).name("Western").build();
+        when(genreRepository.findAll()).thenReturn(List.of(genre(1L, 18L, "Drama"), genre(3L, 37L, "Western")));
+
+        genreService.storeAll(List.of(western));
+
+        verify(genreRepository).upsertAll(List.of(western));
+        assertEquals(List.of(1L, 3L), genreService.getAll().stream().map(Genre::getId).toList());
+    }
+}
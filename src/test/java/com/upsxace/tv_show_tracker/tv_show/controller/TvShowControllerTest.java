@@ -4,17 +4,21 @@ import com.upsxace.tv_show_tracker.actor.entity.ActorCredit;
 import com.upsxace.tv_show_tracker.actor.service.ActorService;
 import com.upsxace.tv_show_tracker.tv_show.graphql.AllTvShowsInput;
 import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowDto;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowSelection;
 import com.upsxace.tv_show_tracker.tv_show.service.TvShowService;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,31 +40,35 @@ class TvShowControllerTest {
 
     @Test
     void getTvShow_delegatesToService() {
-        TvShowDto dto = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null);
-        when(tvShowService.getById(1L)).thenReturn(dto);
+        TvShowDto dto = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        var selection = mock(DataFetchingFieldSelectionSet.class);
+        when(selection.contains("genres")).thenReturn(true);
+        when(tvShowService.getById(1L, new TvShowSelection(true, false))).thenReturn(dto);
 
-        TvShowDto result = controller.getTvShow(1L);
+        TvShowDto result = controller.getTvShow(1L, selection);
 
         assertSame(dto, result);
-        verify(tvShowService).getById(1L);
+        verify(tvShowService).getById(1L, new TvShowSelection(true, false));
     }
 
     @Test
     void allTvShows_delegatesToService() {
         AllTvShowsInput input = new AllTvShowsInput(null, null, null);
-        Page<TvShowDto> page = Page.empty();
-        when(tvShowService.getAll(input)).thenReturn(page);
+        Slice<TvShowDto> page = new SliceImpl<>(List.of());
+        var selection = mock(DataFetchingFieldSelectionSet.class);
+        when(selection.contains("content/seasons")).thenReturn(true);
+        when(tvShowService.getAll(input, new TvShowSelection(false, true), false)).thenReturn(page);
 
-        Page<TvShowDto> result = controller.allTvShows(input);
+        Slice<TvShowDto> result = controller.allTvShows(input, selection);
 
         assertSame(page, result);
-        verify(tvShowService).getAll(input);
+        verify(tvShowService).getAll(input, new TvShowSelection(false, true), false);
     }
 
     @Test
     void actorCredits_groupsByTvShowIdCorrectly() {
-        TvShowDto tv1 = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null);
-        TvShowDto tv2 = new TvShowDto(2L, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        TvShowDto tv1 = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        TvShowDto tv2 = new TvShowDto(2L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
 
         ActorCredit c1 = new ActorCredit(); c1.setTvShowId(1L);
         ActorCredit c2 = new ActorCredit(); c2.setTvShowId(2L);
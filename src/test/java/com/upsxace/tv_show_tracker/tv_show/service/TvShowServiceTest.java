@@ -1,10 +1,19 @@
 package com.upsxace.tv_show_tracker.tv_show.service;
 
-import com.upsxace.tv_show_tracker.data_collector.http.TmdbService;
+import com.upsxace.tv_show_tracker.common.exceptions.BadRequestException;
+import com.upsxace.tv_show_tracker.common.graphql.Cursor;
+import com.upsxace.tv_show_tracker.common.graphql.CursorInput;
+import com.upsxace.tv_show_tracker.common.graphql.Edge;
+import com.upsxace.tv_show_tracker.common.graphql.SortDirection;
+import com.upsxace.tv_show_tracker.data_collector.hydration.CreditHydrationService;
 import com.upsxace.tv_show_tracker.tv_show.entity.TvShow;
 import com.upsxace.tv_show_tracker.tv_show.graphql.AllTvShowsFilterInput;
 import com.upsxace.tv_show_tracker.tv_show.graphql.AllTvShowsInput;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowConnectionInput;
 import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowDto;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowOrderInput;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowSelection;
+import com.upsxace.tv_show_tracker.tv_show.graphql.TvShowSortableField;
 import com.upsxace.tv_show_tracker.tv_show.mapper.TvShowMapper;
 import com.upsxace.tv_show_tracker.tv_show.repository.TvShowRepository;
 import com.upsxace.tv_show_tracker.user.repository.UserFavoriteTvShowRepository;
@@ -15,9 +24,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.*;
 
+import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,10 +41,12 @@ class TvShowServiceTest {
     @Mock
     private TvShowMapper tvShowMapper;
     @Mock
-    private TmdbService tmdbService;
+    private CreditHydrationService creditHydrationService;
     @Mock
     private UserFavoriteTvShowRepository userFavoriteTvShowRepository;
 
+    private static final TvShowSelection GENRES_AND_SEASONS = new TvShowSelection(true, true);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -44,48 +55,99 @@ class TvShowServiceTest {
     @Test
     void getAll_withGenreFilter_returnsMappedDtos() {
         AllTvShowsInput input = new AllTvShowsInput(new AllTvShowsFilterInput(1L), null, null);
-        Pageable pageable = PageRequest.of(0, 20);
 
-        Page<Long> idsPage = new PageImpl<>(List.of(1L, 2L), pageable, 2);
-        when(tvShowRepository.findAllIdsByGenreId(any(), eq(1L))).thenReturn(idsPage);
+        when(tvShowRepository.findAllIdsByGenreId(any(), eq(1L))).thenReturn(new SliceImpl<>(List.of(1L, 2L)));
+        when(tvShowRepository.countByGenreId(1L)).thenReturn(2L);
 
-        TvShow tv1 = new TvShow();
-        TvShow tv2 = new TvShow();
-        tv1.setSeasons(Collections.emptyList());
-        tv2.setSeasons(Collections.emptyList());
-        when(tvShowRepository.findAllByIdIn(anyList(), any(Sort.class))).thenReturn(List.of(tv1, tv2));
+        TvShow tv1 = TvShow.builder().id(1L).seasons(Collections.emptyList()).build();
+        TvShow tv2 = TvShow.builder().id(2L).seasons(Collections.emptyList()).build();
+        when(tvShowRepository.findAllForSelection(List.of(1L, 2L), GENRES_AND_SEASONS)).thenReturn(List.of(tv2, tv1));
 
-        TvShowDto dto1 = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null);
-        TvShowDto dto2 = new TvShowDto(2L, null, null, null, null, null, null, null, null, null, null, null, null, null);
-        when(tvShowMapper.toDtos(anyList())).thenReturn(List.of(dto1, dto2));
+        TvShowDto dto1 = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        TvShowDto dto2 = new TvShowDto(2L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        when(tvShowMapper.toDtos(List.of(tv1, tv2))).thenReturn(List.of(dto1, dto2));
 
-        Page<TvShowDto> result = tvShowService.getAll(input);
+        Slice<TvShowDto> result = tvShowService.getAll(input, GENRES_AND_SEASONS, true);
 
         assertEquals(2, result.getContent().size());
+        assertEquals(2, assertInstanceOf(Page.class, result).getTotalElements());
         verify(tvShowRepository).findAllIdsByGenreId(any(), eq(1L));
-        verify(tvShowMapper).toDtos(anyList());
+        verify(tvShowMapper).toDtos(List.of(tv1, tv2));
     }
 
     @Test
-    void getAll_noGenreFilter_returnsMappedDtos() {
+    void getAll_noAssociationsOrTotalSelected_readsPageInOneQuery() {
         AllTvShowsInput input = new AllTvShowsInput(null, null, null);
 
         Pageable pageable = PageRequest.of(0, 20);
-        Page<Long> idsPage = new PageImpl<>(List.of(1L), pageable, 1);
-        when(tvShowRepository.findAllIds(pageable)).thenReturn(idsPage);
-
         TvShow tv1 = new TvShow();
-        tv1.setSeasons(Collections.emptyList());
-        when(tvShowRepository.findAllByIdIn(anyList(), any(Sort.class))).thenReturn(List.of(tv1));
+        when(tvShowRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(tv1), pageable, true));
 
-        TvShowDto dto1 = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null);
-        when(tvShowMapper.toDtos(anyList())).thenReturn(List.of(dto1));
+        TvShowDto dto1 = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        when(tvShowMapper.toDtos(List.of(tv1))).thenReturn(List.of(dto1));
 
-        Page<TvShowDto> result = tvShowService.getAll(input);
+        Slice<TvShowDto> result = tvShowService.getAll(input, new TvShowSelection(false, false), false);
 
         assertEquals(1, result.getContent().size());
-        verify(tvShowRepository).findAllIds(pageable);
-        verify(tvShowMapper).toDtos(anyList());
+        assertFalse(result instanceof Page<?>, "the total is unknown when not counted");
+        assertTrue(result.hasNext());
+        verify(tvShowRepository).findAllBy(pageable);
+        verify(tvShowRepository, never()).findAllIds(any());
+        verify(tvShowRepository, never()).findAllForSelection(anyList(), any());
+        verify(tvShowRepository, never()).count();
+    }
+
+    private static TvShowDto dto(Long id) {
+        return new TvShowDto(id, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void getConnection_keepsCursorOrderAndUsesExtraRowForNextPage() {
+        var order = new TvShowOrderInput(TvShowSortableField.popularity, SortDirection.DESC);
+        var input = new TvShowConnectionInput(null, new CursorInput(2, null), order);
+        var cursors = List.of(
+                new Cursor("popularity:DESC", "9.5", 5L),
+                new Cursor("popularity:DESC", "9.5", 3L),
+                new Cursor("popularity:DESC", "7", 9L)
+        );
+        when(tvShowRepository.findPage(TvShowSortableField.popularity, SortDirection.DESC, null, 3, null))
+                .thenReturn(cursors);
+        when(tvShowRepository.findAllForSelection(List.of(5L, 3L), GENRES_AND_SEASONS)).thenReturn(List.of());
+        when(tvShowMapper.toDtos(anyList())).thenReturn(List.of(dto(3L), dto(5L)));
+
+        var result = tvShowService.getConnection(input, GENRES_AND_SEASONS);
+
+        assertEquals(List.of(5L, 3L), result.getEdges().stream().map(e -> e.getNode().getId()).toList());
+        assertEquals(List.of(cursors.get(0).encode(), cursors.get(1).encode()),
+                result.getEdges().stream().map(Edge::getCursor).toList());
+        assertTrue(result.getPageInfo().isHasNextPage());
+        assertFalse(result.getPageInfo().isHasPreviousPage());
+        assertEquals(cursors.get(1).encode(), result.getPageInfo().getEndCursor());
+        verify(tvShowRepository, never()).findAllIds(any());
+    }
+
+    @Test
+    void getConnection_afterCursor_seeksFromIt() {
+        var after = new Cursor("id:ASC", null, 40L);
+        var input = new TvShowConnectionInput(new AllTvShowsFilterInput(1L), new CursorInput(null, after.encode()), null);
+        when(tvShowRepository.findPage(TvShowSortableField.id, SortDirection.ASC, after, 21, 1L)).thenReturn(List.of());
+
+        var result = tvShowService.getConnection(input, GENRES_AND_SEASONS);
+
+        assertTrue(result.getEdges().isEmpty());
+        assertTrue(result.getPageInfo().isHasPreviousPage());
+        assertFalse(result.getPageInfo().isHasNextPage());
+        verify(tvShowRepository, never()).findAllForSelection(anyList(), any());
+    }
+
+    @Test
+    void getConnection_cursorOfAnotherOrdering_isRejected() {
+        var after = new Cursor("name:ASC", "Dark", 40L).encode();
+        var order = new TvShowOrderInput(TvShowSortableField.popularity, SortDirection.DESC);
+        var input = new TvShowConnectionInput(null, new CursorInput(10, after), order);
+
+        assertThrows(BadRequestException.class, () -> tvShowService.getConnection(input, GENRES_AND_SEASONS));
+        verifyNoInteractions(tvShowRepository);
     }
 
     @Test
@@ -93,22 +155,35 @@ class TvShowServiceTest {
         TvShow tvShow = new TvShow();
         tvShow.setSeasons(Collections.emptyList());
         tvShow.setActorCredits(Collections.emptyList());
-        when(tvShowRepository.findById(1L)).thenReturn(Optional.of(tvShow));
+        when(tvShowRepository.findAllForSelection(List.of(1L), GENRES_AND_SEASONS)).thenReturn(List.of(tvShow));
 
-        TvShowDto dto = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        TvShowDto dto = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
         when(tvShowMapper.toDto(tvShow)).thenReturn(dto);
 
-        TvShowDto result = tvShowService.getById(1L);
+        TvShowDto result = tvShowService.getById(1L, GENRES_AND_SEASONS);
 
         assertNotNull(result);
-        verify(tmdbService).fillTvShowCredits(tvShow);
+        verify(creditHydrationService).requestCredits(tvShow);
         verify(tvShowMapper).toDto(tvShow);
     }
 
+    @Test
+    void getById_hydratedTvShowWithoutCredits_requestsNothing() {
+        TvShow tvShow = new TvShow();
+        tvShow.setSeasons(Collections.emptyList());
+        tvShow.setActorCredits(Collections.emptyList());
+        tvShow.setCreditsHydratedAt(OffsetDateTime.now());
+        when(tvShowRepository.findAllForSelection(List.of(1L), GENRES_AND_SEASONS)).thenReturn(List.of(tvShow));
+
+        tvShowService.getById(1L, GENRES_AND_SEASONS);
+
+        verifyNoInteractions(creditHydrationService);
+    }
+
     @Test
     void getById_nonExistingTvShow_returnsNull() {
-        when(tvShowRepository.findById(1L)).thenReturn(Optional.empty());
-        assertNull(tvShowService.getById(1L));
+        when(tvShowRepository.findAllForSelection(List.of(1L), GENRES_AND_SEASONS)).thenReturn(List.of());
+        assertNull(tvShowService.getById(1L, GENRES_AND_SEASONS));
     }
 
     @Test
@@ -117,8 +192,8 @@ class TvShowServiceTest {
         TvShow tv2 = new TvShow();
         when(tvShowRepository.findAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(tv1, tv2));
 
-        TvShowDto dto1 = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null);
-        TvShowDto dto2 = new TvShowDto(2L, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        TvShowDto dto1 = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        TvShowDto dto2 = new TvShowDto(2L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
         when(tvShowMapper.toDtos(List.of(tv1, tv2))).thenReturn(List.of(dto1, dto2));
 
         List<TvShowDto> result = tvShowService.getAllById(List.of(1L, 2L));
@@ -159,8 +159,8 @@ class UserControllerTest {
 
     @Test
     void tvShow_batchMapping_resolvesTvShows() {
-        var tvShow1 = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null);
-        var tvShow2 = new TvShowDto(2L, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        var tvShow1 = new TvShowDto(1L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        var tvShow2 = new TvShowDto(2L, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
 
         var favorites = List.of(
                 new UserFavoriteTvShow(){{